@@ -1,13 +1,22 @@
 package com.amsidh.mvc.authservice.config;
 
+import com.amsidh.mvc.authservice.util.BCryptCalibrator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 
 /**
  * Security configuration for authentication service.
@@ -17,7 +26,7 @@ import org.springframework.security.web.SecurityFilterChain;
  * 
  * BCrypt Configuration:
  * - Algorithm: BCrypt with secure random salt
- * - Cost factor: 10 (2^10 = 1024 iterations)
+ * - Cost factor: calibrated at startup (see BCryptCalibrator), never below 10
  * - Salt: Randomly generated per password
  * - Output: 60-character hash string
  * 
@@ -43,6 +52,8 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class AuthConfig {
 
+    static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+
     /**
      * Configures Spring Security for Auth Service.
      * 
@@ -55,7 +66,7 @@ public class AuthConfig {
      * Public Endpoints (All endpoints are public):
      * - POST /api/v1/auth-service/auth/register - User registration
      * - POST /api/v1/auth-service/auth/token - User login and JWT generation
-     * - GET /api/v1/auth-service/auth/validate - JWT token validation (called by
+     * - GET/POST /api/v1/auth-service/auth/validate - JWT token introspection (called by
      * Gateway)
      * - /actuator/** - Health checks and metrics
      * 
@@ -65,6 +76,8 @@ public class AuthConfig {
      * services
      * - /register and /token MUST be public (bootstrap authentication)
      * - /validate is public but only called internally by Gateway
+     * - /import is internal: callers must send the admin key in X-Admin-Key, and the
+     * gateway never routes it (without auth.bulk-import.admin-key it is disabled)
      * - Gateway's AuthenticationFilter protects all other services
      * 
      * Security Flow:
@@ -77,14 +90,21 @@ public class AuthConfig {
      * @throws Exception if configuration fails
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            @Value("${auth.bulk-import.admin-key:}") String importAdminKey) throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for stateless REST API
                 .authorizeHttpRequests(auth -> auth
+                        // Matched against the path below the context path
+                        .requestMatchers("/auth/import", "/auth/import/**")
+                        .access(adminKeyAccess(importAdminKey)) // 403 without the admin key
                         .requestMatchers(
                                 "/api/v1/auth-service/auth/register",
                                 "/api/v1/auth-service/auth/token",
+                                "/api/v1/auth-service/auth/refresh",
                                 "/api/v1/auth-service/auth/validate",
+                                "/api/v1/auth-service/auth/jwks",
+                                "/api/v1/auth-service/auth/revoke",
                                 "/actuator/**")
                         .permitAll() // Explicitly permit public endpoints
                         .anyRequest().permitAll() // Permit any other requests (fallback)
@@ -96,27 +116,53 @@ public class AuthConfig {
         return http.build();
     }
 
+    /**
+     * Grants access only to requests carrying the admin key in {@value #ADMIN_KEY_HEADER}.
+     * The key is compared in constant time; a blank key denies every request.
+     * 
+     * @param adminKey the configured admin key
+     * @return authorization manager for internal admin endpoints
+     */
+    static AuthorizationManager<RequestAuthorizationContext> adminKeyAccess(String adminKey) {
+        byte[] expected = adminKey == null ? new byte[0] : adminKey.getBytes(StandardCharsets.UTF_8);
+        return (authentication, context) -> {
+            String presented = context.getRequest().getHeader(ADMIN_KEY_HEADER);
+            boolean granted = expected.length > 0 && presented != null
+                    && MessageDigest.isEqual(expected, presented.getBytes(StandardCharsets.UTF_8));
+            return new AuthorizationDecision(granted);
+        };
+    }
+
     /**
      * Creates BCrypt password encoder bean.
      * 
      * BCrypt Details:
      * - Uses Blowfish cipher
      * - Generates random salt per password
-     * - Cost factor: 10 (default, balanced between security and performance)
-     * - Encoded format: $2a$10$[22-char salt][31-char hash]
+     * - Cost factor: highest value whose hash time on this machine stays within
+     *   auth.password-hashing.target-latency, bounded by min-strength and max-strength
+     * - Encoded format: $2a$[cost]$[22-char salt][31-char hash]
+     * - Hashes created at an older cost still verify (the cost is part of the hash)
      * 
      * Usage:
      * - encode(rawPassword): Hash password for storage
      * - matches(rawPassword, encodedPassword): Verify password during login
      * 
      * Performance:
-     * - Encoding: ~100-200ms (intentionally slow)
+     * - Encoding: ~target-latency (intentionally slow)
      * - Matching: Same as encoding (prevents timing attacks)
+     * - Runs on the bounded PasswordHasher executor, not on request threads
      * 
-     * @return BCrypt password encoder with default cost factor (10)
+     * @param targetLatency acceptable time for one hash
+     * @param minStrength   lowest cost factor allowed
+     * @param maxStrength   highest cost factor allowed
+     * @return BCrypt password encoder with the calibrated cost factor
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password-hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${auth.password-hashing.min-strength:10}") int minStrength,
+            @Value("${auth.password-hashing.max-strength:14}") int maxStrength) {
+        return new BCryptPasswordEncoder(BCryptCalibrator.calibrate(targetLatency, minStrength, maxStrength));
     }
 }
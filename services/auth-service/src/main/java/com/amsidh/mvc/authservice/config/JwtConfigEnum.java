@@ -1,14 +1,21 @@
 package com.amsidh.mvc.authservice.config;
 
+import com.amsidh.mvc.authservice.util.JwtKeyRing;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 public enum JwtConfigEnum {
     INSTANCE;
 
     private volatile String jwtSecret;
     private volatile Long jwtExpiration;
+    private volatile JwtKeyRing keyRing;
     private volatile boolean initialized = false;
 
     @Component
@@ -17,9 +24,18 @@ public enum JwtConfigEnum {
         @Value("${jwt.secret}")
         private String secret;
 
-        @Value("${jwt.expiration:86400000}")
+        @Value("${jwt.expiration:900000}")
         private Long expiration;
 
+        @Value("${jwt.active-kid:}")
+        private String activeKid;
+
+        private final Environment environment;
+
+        public Config(Environment environment) {
+            this.environment = environment;
+        }
+
         @PostConstruct
         public void initializeEnum() {
             if (secret == null || secret.trim().isEmpty()) {
@@ -30,8 +46,13 @@ public enum JwtConfigEnum {
                 throw new IllegalStateException("jwt.expiration must be positive");
             }
 
+            Map<String, JwtKeyRing.KeyProperties> keys = Binder.get(environment)
+                    .bind("jwt.keys", Bindable.mapOf(String.class, JwtKeyRing.KeyProperties.class))
+                    .orElse(Map.of());
+
             INSTANCE.jwtSecret = secret;
             INSTANCE.jwtExpiration = expiration;
+            INSTANCE.keyRing = JwtKeyRing.of(secret, activeKid, keys);
             INSTANCE.initialized = true;
         }
     }
@@ -46,6 +67,11 @@ public enum JwtConfigEnum {
         return jwtExpiration;
     }
 
+    public JwtKeyRing getKeyRing() {
+        checkInitialized();
+        return keyRing;
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
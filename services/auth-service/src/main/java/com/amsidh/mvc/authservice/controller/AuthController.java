@@ -2,8 +2,15 @@ package com.amsidh.mvc.authservice.controller;
 
 import com.amsidh.mvc.authservice.dto.AuthRequest;
 import com.amsidh.mvc.authservice.dto.AuthResponse;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationRequest;
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse;
+import com.amsidh.mvc.authservice.dto.RefreshTokenRequest;
+import com.amsidh.mvc.authservice.dto.RevokeTokenRequest;
+import com.amsidh.mvc.authservice.dto.TokenIntrospectionRequest;
+import com.amsidh.mvc.authservice.dto.TokenIntrospectionResponse;
 import com.amsidh.mvc.authservice.dto.UserCredentialRequest;
 import com.amsidh.mvc.authservice.service.AuthService;
+import com.amsidh.mvc.authservice.service.BulkImportJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,15 +18,28 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * REST controller for authentication endpoints.
@@ -28,18 +48,25 @@ import org.springframework.web.bind.annotation.RestController;
  * 
  * Endpoints:
  * - POST /register - User registration
+ * - POST /import - Queue a bulk user registration (migration, internal)
+ * - GET /import/{jobId} - Bulk import status (internal)
  * - POST /token - Login and JWT token generation
- * - GET /validate - JWT token validation
+ * - POST /refresh - New token pair from a refresh token (no password)
+ * - GET /validate - JWT token introspection
+ * - POST /validate - Batch JWT token introspection
+ * - GET /jwks - Public signing keys (JWK Set)
+ * - POST /revoke - Token revocation (logout)
  * 
- * All endpoints are public (no authentication required).
+ * All endpoints are public (no authentication required), except /import which
+ * requires the X-Admin-Key header.
  * Gateway is responsible for validating tokens for business services.
  * 
  * Architecture Flow:
  * 1. Client registers → POST /register
  * 2. Client logs in → POST /token → Receives JWT
  * 3. Client accesses business service → Gateway intercepts
- * 4. Gateway calls → GET /validate?token=<jwt>
- * 5. Auth-service validates token → Returns email
+ * 4. Gateway (or a service) calls → GET /validate with the token
+ * 5. Auth-service introspects the token → Returns subject, expiry, revocation
  * 6. Gateway routes request with user context
  * 
  * @author Amsidh Mohammed
@@ -52,6 +79,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final BulkImportJobService bulkImportJobService;
 
     /**
      * Register a new user.
@@ -96,11 +124,96 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
 
+    /**
+     * Import users in bulk.
+     * 
+     * Queues the registration of many users for migrating an existing user base and
+     * answers right away; the import itself runs in the background (see
+     * BulkImportJobService) and is followed with GET /import/{jobId}. Passwords are
+     * hashed in parallel and users are inserted in JDBC batches. Users whose email or
+     * name already exists are skipped and reported, so a failed import can simply be
+     * re-run.
+     * 
+     * Internal endpoint: requires the X-Admin-Key header and is called on the service
+     * directly; the gateway does not route it.
+     * 
+     * Request Body:
+     * {
+     * "users": [
+     * {"name": "John Doe", "email": "john.doe@example.com", "password": "password123"}
+     * ]
+     * }
+     * 
+     * Success Response: 202 ACCEPTED, Location: /api/v1/auth-service/auth/import/{jobId}
+     * {
+     * "jobId": "5b0f1c4e-2f1d-4d8e-9b7a-0c6e1f2a3b4c",
+     * "status": "QUEUED",
+     * "received": 1,
+     * "submittedAt": "2025-11-01T10:15:30Z"
+     * }
+     * 
+     * Error Responses:
+     * - 400 BAD REQUEST: Validation errors in any entry, or more than 10000 users
+     * - 403 FORBIDDEN: Missing or wrong admin key
+     * - 503 SERVICE UNAVAILABLE: Too many imports already queued, retry later
+     * 
+     * @param request the users to import
+     * @return the queued import job
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Bulk import users", description = "Queues the registration of many users with batched inserts. Existing users are skipped. Internal, requires X-Admin-Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import queued", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportJobResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong admin key", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "503", description = "Too many imports queued", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<BulkImportJobResponse> importUsers(
+            @Valid @RequestBody @Parameter(description = "Users to register", required = true) BulkRegistrationRequest request) {
+
+        log.info("Bulk import request received - Users: {}", request.users().size());
+        BulkImportJobResponse job = bulkImportJobService.submit(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * Bulk import status.
+     * 
+     * Reports the state of an import queued with POST /import. Once COMPLETED the
+     * response carries the import summary (registered count and skipped emails).
+     * Jobs are kept for auth.bulk-import.job-retention after they finish.
+     * 
+     * Success Response: 200 OK (same body as POST /import)
+     * 
+     * Error Responses:
+     * - 403 FORBIDDEN: Missing or wrong admin key
+     * - 404 NOT FOUND: Unknown or expired job
+     * 
+     * @param jobId the id returned by POST /import
+     * @return the job state
+     */
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Bulk import status", description = "State and summary of a bulk import job. Internal, requires X-Admin-Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job state", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong admin key", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<BulkImportJobResponse> importStatus(
+            @PathVariable @Parameter(description = "Import job id", required = true) String jobId) {
+
+        return ResponseEntity.of(bulkImportJobService.find(jobId));
+    }
+
     /**
      * Generate JWT token (Login).
      * 
-     * Authenticates user credentials and generates JWT token.
-     * Token is valid for 24 hours.
+     * Authenticates user credentials and generates a short-lived JWT access token
+     * (jwt.expiration, 15 minutes by default) and a refresh token.
      * 
      * Request Body:
      * {
@@ -112,36 +225,226 @@ public class AuthController {
      * {
      * "token": "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...",
      * "tokenType": "Bearer",
-     * "expiresIn": 86400000
+     * "expiresIn": 900000,
+     * "refreshToken": "q3Jx0v...Zk",
+     * "refreshExpiresIn": 2592000000
      * }
      * 
      * Error Responses:
      * - 400 BAD REQUEST: Missing email or password
      * - 401 UNAUTHORIZED: Invalid credentials
+     * - 429 TOO MANY REQUESTS: Too many failed attempts for the email or client IP
+     *   (Retry-After gives the back-off in seconds)
      * - 500 INTERNAL SERVER ERROR: Server error
      * 
      * Usage:
      * Client should store the token and include it in subsequent requests:
      * Authorization: Bearer <token>
+     * and call POST /refresh before it expires instead of logging in again.
      * 
      * @param request the authentication request with email and password
      * @return JWT token with metadata
      */
     @PostMapping("/token")
-    @Operation(summary = "Generate JWT token", description = "Authenticates user and generates JWT token valid for 24 hours")
+    @Operation(summary = "Generate JWT token", description = "Authenticates user and generates a short-lived JWT token and a refresh token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Token generated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = "application/json")),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(mediaType = "application/json"))
+            @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "429", description = "Too many failed attempts", content = @Content(mediaType = "application/json"))
     })
     public ResponseEntity<AuthResponse> generateToken(
-            @Valid @RequestBody @Parameter(description = "User credentials for authentication", required = true) AuthRequest request) {
+            @Valid @RequestBody @Parameter(description = "User credentials for authentication", required = true) AuthRequest request,
+            HttpServletRequest httpRequest) {
 
         log.info("Token generation request received for email: {}", request.email());
-        AuthResponse response = authService.generateToken(request);
+        // Client address from X-Forwarded-For (server.forward-headers-strategy: native)
+        AuthResponse response = authService.generateToken(request, httpRequest.getRemoteAddr());
         log.info("Token generated successfully for email: {}", request.email());
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Refresh tokens.
+     * 
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Costs one hash and one indexed lookup instead of a BCrypt password check.
+     * Each refresh token works once; presenting a used one again revokes every
+     * token issued from the same login.
+     * 
+     * Request Body:
+     * {
+     * "refreshToken": "q3Jx0v...Zk"
+     * }
+     * 
+     * Success Response: 200 OK (same body as POST /token)
+     * 
+     * Error Responses:
+     * - 400 BAD REQUEST: Missing refresh token
+     * - 401 UNAUTHORIZED: Unknown, expired, revoked or reused refresh token
+     * 
+     * @param request the refresh token request
+     * @return new token pair
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh JWT token", description = "Exchanges a single-use refresh token for a new access token and refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token refreshed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "401", description = "Invalid refresh token", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<AuthResponse> refreshToken(
+            @Valid @RequestBody @Parameter(description = "Refresh token from the last token response", required = true) RefreshTokenRequest request) {
+
+        return ResponseEntity.ok(authService.refreshToken(request));
+    }
+
+    /**
+     * Introspect a token.
+     * 
+     * Reports whether a token is active (valid signature, not expired, not revoked)
+     * and its claims. The token is read from the Authorization header, or from the
+     * token parameter. Verified tokens are cached until they expire; revocation is
+     * always checked.
+     * 
+     * Request Header:
+     * Authorization: Bearer <token>
+     * 
+     * Success Response: 200 OK (also for inactive tokens)
+     * {
+     * "active": true,
+     * "subject": "john.doe@example.com",
+     * "tokenId": "0f8e0c1e-8b1a-4c52-9a57-3f1c2b9d7e11",
+     * "expiresAt": 1761906930,
+     * "revoked": false
+     * }
+     * 
+     * Error Responses:
+     * - 400 BAD REQUEST: No token given
+     * 
+     * @param authorization the Authorization header carrying the token
+     * @param token         the token, if not sent in the header
+     * @return introspection result
+     */
+    @GetMapping("/validate")
+    @Operation(summary = "Introspect token", description = "Returns whether the token is active, with its subject, expiry and revocation status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Introspection result", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenIntrospectionResponse.class))),
+            @ApiResponse(responseCode = "400", description = "No token given", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<TokenIntrospectionResponse> validate(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) @Parameter(description = "Bearer token to introspect") String authorization,
+            @RequestParam(value = "token", required = false) @Parameter(description = "Token to introspect, if not sent as Authorization header") String token) {
+
+        String candidate = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : token;
+        if (candidate == null || candidate.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(authService.introspectTokens(List.of(candidate)).get(0));
+    }
+
+    /**
+     * Introspect many tokens.
+     * 
+     * Batch form of GET /validate for internal services and batch jobs: up to
+     * 1000 tokens in one call, answered in the same order, with a single
+     * revocation lookup for the whole batch.
+     * 
+     * Request Body:
+     * {
+     * "tokens": ["eyJhbGciOiJIUzUxMiJ9...", "eyJraWQiOiJocy0yMDI1LTExIn0..."]
+     * }
+     * 
+     * Success Response: 200 OK
+     * [
+     * {"active": true, "subject": "john.doe@example.com", "tokenId": "...", "expiresAt": 1761906930, "revoked": false},
+     * {"active": false, "revoked": false, "reason": "expired"}
+     * ]
+     * 
+     * Error Responses:
+     * - 400 BAD REQUEST: Empty list, blank token or more than 1000 tokens
+     * 
+     * @param request the tokens to introspect
+     * @return one introspection result per token
+     */
+    @PostMapping("/validate")
+    @Operation(summary = "Introspect tokens (batch)", description = "Introspects up to 1000 tokens in one call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Introspection results in request order", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<List<TokenIntrospectionResponse>> validateBatch(
+            @Valid @RequestBody @Parameter(description = "Tokens to introspect", required = true) TokenIntrospectionRequest request) {
+
+        return ResponseEntity.ok(authService.introspectTokens(request.tokens()));
+    }
+
+    /**
+     * Public signing keys (JWK Set).
+     * 
+     * Lists the public keys of the asymmetric (ES256) keys in the signing key ring,
+     * indexed by kid. The gateway fetches this in the background and verifies tokens
+     * without ever holding a signing secret. HMAC keys are never published.
+     * 
+     * Success Response: 200 OK
+     * {
+     * "keys": [{"kty": "EC", "crv": "P-256", "kid": "ec-2025-11", "x": "...", "y": "..."}]
+     * }
+     * 
+     * @return JWK Set, cacheable for 5 minutes
+     */
+    @GetMapping("/jwks")
+    @Operation(summary = "Public signing keys", description = "JWK Set with the public keys used to verify asymmetric tokens")
+    @ApiResponse(responseCode = "200", description = "JWK Set", content = @Content(mediaType = "application/json"))
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(authService.getJwks());
+    }
+
+    /**
+     * Revoke a token (Logout).
+     * 
+     * Revokes the bearer token of the request before it expires. The gateway
+     * rejects the token within seconds. When the body carries the session's refresh
+     * token, every refresh token issued from the same login is revoked too, so the
+     * session cannot be resumed; other sessions of the same user stay valid.
+     * 
+     * Request Header:
+     * Authorization: Bearer <token>
+     * 
+     * Request Body (optional):
+     * {
+     * "refreshToken": "q3Jx0v...Zk"
+     * }
+     * 
+     * Success Response: 200 OK
+     * "Token revoked successfully"
+     * 
+     * Error Responses:
+     * - 400 BAD REQUEST: Missing Authorization header
+     * - 401 UNAUTHORIZED: Invalid token, token without id, or refresh token of another user
+     * 
+     * @param authorization the Authorization header carrying the token to revoke
+     * @param request       the session's refresh token, if any
+     * @return confirmation message
+     */
+    @PostMapping("/revoke")
+    @Operation(summary = "Revoke token", description = "Revokes the bearer token and, if given, the refresh token family of the session (logout)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token revoked", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "401", description = "Invalid token", content = @Content(mediaType = "application/json"))
+    })
+    public ResponseEntity<String> revoke(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) @Parameter(description = "Bearer token to revoke", required = true) String authorization,
+            @RequestBody(required = false) @Parameter(description = "Refresh token of the session to end") RevokeTokenRequest request) {
+
+        if (!authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Authorization header must be a Bearer token");
+        }
+        String refreshToken = request != null ? request.refreshToken() : null;
+        return ResponseEntity.ok(authService.revokeToken(authorization.substring(7), refreshToken));
+    }
 }
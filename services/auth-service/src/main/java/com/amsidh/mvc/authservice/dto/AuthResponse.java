@@ -5,7 +5,8 @@ import lombok.Builder;
 /**
  * Response DTO for successful authentication.
  * 
- * Contains the JWT token and metadata for client use.
+ * Contains the short-lived JWT access token, the refresh token to renew it
+ * without sending the password again, and metadata for client use.
  * Client should include this token in the Authorization header for subsequent
  * requests.
  * 
@@ -16,12 +17,16 @@ import lombok.Builder;
  * {
  * "token": "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...",
  * "tokenType": "Bearer",
- * "expiresIn": 86400000
+ * "expiresIn": 900000,
+ * "refreshToken": "q3Jx0v...Zk",
+ * "refreshExpiresIn": 2592000000
  * }
  * 
  * @param token     the JWT access token
  * @param tokenType the token type (always "Bearer" for JWT)
  * @param expiresIn token expiration time in milliseconds
+ * @param refreshToken     opaque token for POST /auth/refresh (single use)
+ * @param refreshExpiresIn refresh token expiration time in milliseconds
  * 
  * @author Amsidh Mohammed
  */
@@ -29,7 +34,9 @@ import lombok.Builder;
 public record AuthResponse(
         String token,
         String tokenType,
-        Long expiresIn) {
+        Long expiresIn,
+        String refreshToken,
+        Long refreshExpiresIn) {
     /**
      * Constructor with default token type.
      * Sets tokenType to "Bearer" if not specified.
@@ -0,0 +1,44 @@
+package com.amsidh.mvc.authservice.dto;
+
+import java.time.Instant;
+
+import lombok.Builder;
+
+/**
+ * Response DTO for a bulk user import job.
+ * 
+ * Example:
+ * {
+ * "jobId": "5b0f1c4e-2f1d-4d8e-9b7a-0c6e1f2a3b4c",
+ * "status": "COMPLETED",
+ * "received": 1000,
+ * "submittedAt": "2025-11-01T10:15:30Z",
+ * "finishedAt": "2025-11-01T10:16:05Z",
+ * "result": {"received": 1000, "registered": 997, "skippedEmails": ["..."]}
+ * }
+ * 
+ * @param jobId       id to poll GET /auth/import/{jobId} with
+ * @param status      QUEUED, RUNNING, COMPLETED or FAILED
+ * @param received    number of users in the request
+ * @param submittedAt when the import was accepted
+ * @param finishedAt  when the import completed or failed, null while pending
+ * @param result      import summary once COMPLETED
+ * @param error       failure reason once FAILED; users of chunks committed before
+ *                    the failure stay registered and are skipped on a re-run
+ * 
+ * @author Amsidh Mohammed
+ */
+@Builder(toBuilder = true)
+public record BulkImportJobResponse(
+        String jobId,
+        Status status,
+        int received,
+        Instant submittedAt,
+        Instant finishedAt,
+        BulkRegistrationResponse result,
+        String error) {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
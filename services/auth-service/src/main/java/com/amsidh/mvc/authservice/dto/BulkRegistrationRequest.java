@@ -0,0 +1,30 @@
+package com.amsidh.mvc.authservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for importing many users at once.
+ * 
+ * Each entry follows the same validation rules as a single registration.
+ * At most 10000 users per request; larger imports are split by the client.
+ * 
+ * Example:
+ * {
+ * "users": [
+ * {"name": "John Doe", "email": "john.doe@example.com", "password": "password123"},
+ * {"name": "Jane Doe", "email": "jane.doe@example.com", "password": "password456"}
+ * ]
+ * }
+ * 
+ * @param users the users to register
+ * 
+ * @author Amsidh Mohammed
+ */
+public record BulkRegistrationRequest(
+
+        @NotEmpty(message = "At least one user is required") @Size(max = 10000, message = "At most 10000 users per request") List<@Valid UserCredentialRequest> users) {
+}
@@ -0,0 +1,29 @@
+package com.amsidh.mvc.authservice.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+
+/**
+ * Response DTO for a bulk user import.
+ * 
+ * Example:
+ * {
+ * "received": 1000,
+ * "registered": 997,
+ * "skippedEmails": ["john.doe@example.com", "jane.doe@example.com", "dup@example.com"]
+ * }
+ * 
+ * @param received      number of users in the request
+ * @param registered    number of users created
+ * @param skippedEmails emails not created because the email or name already exists
+ *                      (in the database or earlier in the same request)
+ * 
+ * @author Amsidh Mohammed
+ */
+@Builder
+public record BulkRegistrationResponse(
+        int received,
+        int registered,
+        List<String> skippedEmails) {
+}
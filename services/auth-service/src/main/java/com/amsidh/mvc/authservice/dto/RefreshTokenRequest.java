@@ -0,0 +1,20 @@
+package com.amsidh.mvc.authservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request DTO for exchanging a refresh token for a new token pair.
+ * 
+ * Example:
+ * {
+ * "refreshToken": "q3Jx0v...Zk"
+ * }
+ * 
+ * @param refreshToken the opaque refresh token from the last token response
+ * 
+ * @author Amsidh Mohammed
+ */
+public record RefreshTokenRequest(
+
+        @NotBlank(message = "Refresh token is required") String refreshToken) {
+}
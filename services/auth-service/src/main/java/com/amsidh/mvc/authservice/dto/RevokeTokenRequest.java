@@ -0,0 +1,17 @@
+package com.amsidh.mvc.authservice.dto;
+
+/**
+ * Optional request body for logout.
+ * 
+ * Example:
+ * {
+ * "refreshToken": "q3Jx0v...Zk"
+ * }
+ * 
+ * @param refreshToken the refresh token of the session being logged out; its whole
+ *                     rotation family is revoked with the access token
+ * 
+ * @author Amsidh Mohammed
+ */
+public record RevokeTokenRequest(String refreshToken) {
+}
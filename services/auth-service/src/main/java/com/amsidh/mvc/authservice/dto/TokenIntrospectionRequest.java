@@ -0,0 +1,24 @@
+package com.amsidh.mvc.authservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for introspecting many tokens in one call.
+ * 
+ * Example:
+ * {
+ * "tokens": ["eyJhbGciOiJIUzUxMiJ9...", "eyJraWQiOiJocy0yMDI1LTExIn0..."]
+ * }
+ * 
+ * @param tokens the compact JWTs to check (at most 1000)
+ * 
+ * @author Amsidh Mohammed
+ */
+public record TokenIntrospectionRequest(
+
+        @NotEmpty(message = "At least one token is required") @Size(max = 1000, message = "At most 1000 tokens per request") List<@NotBlank String> tokens) {
+}
@@ -0,0 +1,41 @@
+package com.amsidh.mvc.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+
+/**
+ * Response DTO describing one token (introspection).
+ * 
+ * A token is active when its signature is valid, it has not expired and it has
+ * not been revoked. Inactive tokens carry the reason; claims are only returned
+ * for tokens with a valid signature.
+ * 
+ * Example:
+ * {
+ * "active": true,
+ * "subject": "john.doe@example.com",
+ * "tokenId": "0f8e0c1e-8b1a-4c52-9a57-3f1c2b9d7e11",
+ * "expiresAt": 1761906930,
+ * "revoked": false
+ * }
+ * 
+ * @param active    true if the token can be used
+ * @param subject   the token subject (user email)
+ * @param tokenId   the jti claim
+ * @param expiresAt expiration in epoch seconds
+ * @param revoked   true if the token was revoked (logout)
+ * @param reason    why the token is inactive: invalid, expired or revoked
+ * 
+ * @author Amsidh Mohammed
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospectionResponse(
+        boolean active,
+        String subject,
+        String tokenId,
+        Long expiresAt,
+        boolean revoked,
+        String reason) {
+}
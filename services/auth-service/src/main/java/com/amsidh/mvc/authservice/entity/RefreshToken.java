@@ -0,0 +1,95 @@
+package com.amsidh.mvc.authservice.entity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity storing an issued refresh token.
+ * 
+ * Only the SHA-256 hash of the opaque token is stored, so a database leak does
+ * not hand out usable tokens. Refresh tokens are high-entropy random values, so a
+ * fast hash is enough (unlike passwords, they cannot be guessed).
+ * 
+ * Rotation:
+ * - Every refresh consumes the presented token and issues a new one in the same family
+ * - A consumed token presented again means it was stolen (or replayed), so the
+ *   whole family is revoked and the user has to log in again
+ * 
+ * @author Amsidh Mohammed
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_family_id", columnList = "familyId"),
+        @Index(name = "idx_refresh_expires_at", columnList = "expiresAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    /**
+     * Primary key - Auto-generated
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * SHA-256 of the opaque token, hex encoded
+     */
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    /**
+     * Rotation family; all tokens descending from one login share it
+     */
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    /**
+     * Token owner (user email), used as the access token subject
+     */
+    @Column(nullable = false, length = 150)
+    private String subject;
+
+    /**
+     * Token expiration; expired rows are purged periodically
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * When the token was exchanged for a new one; null while unused
+     */
+    private Instant consumedAt;
+
+    /**
+     * Set when the family was revoked (reuse detected or logout)
+     */
+    @Column(nullable = false)
+    private boolean revoked;
+
+    /**
+     * Timestamp when the token was issued
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+}
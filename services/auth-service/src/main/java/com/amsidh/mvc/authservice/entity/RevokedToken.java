@@ -0,0 +1,62 @@
+package com.amsidh.mvc.authservice.entity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity recording a revoked JWT.
+ * 
+ * Tokens are identified by their jti claim. A row is only needed until the
+ * token expires; expired rows are purged periodically.
+ * 
+ * @author Amsidh Mohammed
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_expires_at", columnList = "expiresAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    /**
+     * Token id (jti claim)
+     */
+    @Id
+    @Column(length = 64)
+    private String tokenId;
+
+    /**
+     * Token subject (user email)
+     */
+    @Column(nullable = false, length = 150)
+    private String subject;
+
+    /**
+     * Token expiration; the revocation is irrelevant after this instant
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Timestamp when the token was revoked
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime revokedDate;
+
+}
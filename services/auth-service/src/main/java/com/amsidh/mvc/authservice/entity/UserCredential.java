@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +27,7 @@ import lombok.NoArgsConstructor;
  * Security Notes:
  * - Password field stores BCrypt hashed passwords (never plain text)
  * - Email and name fields must be unique to prevent duplicate accounts
+ * - The named unique constraints are the duplicate check during registration
  * - Timestamps track account creation and last update for audit purposes
  * 
  * @author Amsidh Mohammed
@@ -34,6 +36,9 @@ import lombok.NoArgsConstructor;
 @Table(name = "user_credentials", indexes = {
         @Index(name = "idx_email", columnList = "email"),
         @Index(name = "idx_name", columnList = "name")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = UserCredential.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = UserCredential.NAME_CONSTRAINT, columnNames = "name")
 })
 @Data
 @Builder
@@ -41,6 +46,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class UserCredential {
 
+    public static final String EMAIL_CONSTRAINT = "uk_user_credentials_email";
+    public static final String NAME_CONSTRAINT = "uk_user_credentials_name";
+
     /**
      * Primary key - auto-generated user ID
      */
@@ -52,14 +60,14 @@ public class UserCredential {
      * Unique username for the user
      * Used for login and identification
      */
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String name;
 
     /**
      * Unique email address for the user
      * Primary authentication identifier
      */
-    @Column(nullable = false, unique = true, length = 150)
+    @Column(nullable = false, length = 150)
     private String email;
 
     /**
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -23,6 +24,8 @@ import lombok.extern.slf4j.Slf4j;
  * Exception Mapping:
  * - UserAlreadyExistsException → 409 CONFLICT
  * - AuthenticationException → 401 UNAUTHORIZED
+ * - TooManyLoginAttemptsException → 429 TOO MANY REQUESTS (with Retry-After)
+ * - ServiceOverloadedException → 503 SERVICE UNAVAILABLE (with Retry-After)
  * - MethodArgumentNotValidException → 400 BAD REQUEST (with validation details)
  * - Generic Exception → 500 INTERNAL SERVER ERROR
  * 
@@ -51,7 +54,8 @@ public class GlobalExceptionHandler {
      * "status": 409,
      * "error": "Conflict",
      * "message": "User with email john@example.com already exists",
-     * "path": "/api/v1/auth-service/auth/register"
+     * "path": "/api/v1/auth-service/auth/register",
+     * "validationErrors": ["email: already exists"]
      * }
      * 
      * @param ex      the UserAlreadyExistsException
@@ -71,6 +75,7 @@ public class GlobalExceptionHandler {
                 .error(HttpStatus.CONFLICT.getReasonPhrase())
                 .message(ex.getMessage())
                 .path(request.getRequestURI())
+                .validationErrors(ex.getField() != null ? List.of(ex.getField() + ": already exists") : null)
                 .build();
 
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
@@ -120,6 +125,82 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    /**
+     * Handles TooManyLoginAttemptsException (429 TOO MANY REQUESTS).
+     * 
+     * Thrown when:
+     * - An email or client IP has too many failed logins and is backing off
+     * 
+     * Response: 429 TOO MANY REQUESTS, header Retry-After: seconds until the next attempt
+     * {
+     * "timestamp": "2025-10-31T10:15:30",
+     * "status": 429,
+     * "error": "Too Many Requests",
+     * "message": "Too many failed login attempts, please retry later",
+     * "path": "/api/v1/auth-service/auth/token"
+     * }
+     * 
+     * @param ex      the TooManyLoginAttemptsException
+     * @param request the HTTP request
+     * @return error response with 429 status
+     */
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyLoginAttemptsException(
+            TooManyLoginAttemptsException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfter().toSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles ServiceOverloadedException (503 SERVICE UNAVAILABLE).
+     * 
+     * Thrown when:
+     * - The password hashing queue is full
+     * 
+     * Response: 503 SERVICE UNAVAILABLE, header Retry-After: 1
+     * {
+     * "timestamp": "2025-10-31T10:15:30",
+     * "status": 503,
+     * "error": "Service Unavailable",
+     * "message": "Authentication service is busy, please retry later",
+     * "path": "/api/v1/auth-service/auth/token"
+     * }
+     * 
+     * @param ex      the ServiceOverloadedException
+     * @param request the HTTP request
+     * @return error response with 503 status
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex,
+            HttpServletRequest request) {
+
+        log.warn("Service overloaded: {} - Path: {}", ex.getMessage(), request.getRequestURI());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     /**
      * Handles MethodArgumentNotValidException (400 BAD REQUEST).
      * 
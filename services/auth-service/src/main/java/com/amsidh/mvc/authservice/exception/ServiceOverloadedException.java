@@ -0,0 +1,23 @@
+package com.amsidh.mvc.authservice.exception;
+
+/**
+ * Exception thrown when the service sheds work instead of queueing it.
+ * 
+ * This exception is thrown when:
+ * - The password hashing queue is full (login or registration storm)
+ * 
+ * HTTP Status: 503 SERVICE UNAVAILABLE (with Retry-After)
+ * 
+ * @author Amsidh Mohammed
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Constructs a new service overloaded exception with the specified detail message.
+     * 
+     * @param message the detail message
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
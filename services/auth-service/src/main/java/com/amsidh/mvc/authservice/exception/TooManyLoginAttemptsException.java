@@ -0,0 +1,40 @@
+package com.amsidh.mvc.authservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when login attempts are throttled.
+ * 
+ * This exception is thrown when:
+ * - Too many failed logins for the same email within the window
+ * - Too many failed logins from the same client IP within the window
+ * 
+ * HTTP Status: 429 TOO MANY REQUESTS (with Retry-After)
+ * 
+ * @author Amsidh Mohammed
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    /**
+     * Time until the next attempt is allowed.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new too many login attempts exception.
+     * 
+     * @param message    the detail message
+     * @param retryAfter time until the next attempt is allowed
+     */
+    public TooManyLoginAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return time until the next attempt is allowed
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -13,6 +13,11 @@ package com.amsidh.mvc.authservice.exception;
  */
 public class UserAlreadyExistsException extends RuntimeException {
 
+    /**
+     * The duplicate field ("email" or "name"), or null if unknown.
+     */
+    private final String field;
+
     /**
      * Constructs a new user already exists exception with the specified detail
      * message.
@@ -21,6 +26,7 @@ public class UserAlreadyExistsException extends RuntimeException {
      */
     public UserAlreadyExistsException(String message) {
         super(message);
+        this.field = null;
     }
 
     /**
@@ -32,5 +38,25 @@ public class UserAlreadyExistsException extends RuntimeException {
      */
     public UserAlreadyExistsException(String message, Throwable cause) {
         super(message, cause);
+        this.field = null;
+    }
+
+    /**
+     * Constructs a new user already exists exception for a duplicate field.
+     * 
+     * @param field the duplicate field ("email" or "name")
+     * @param value the rejected value
+     * @param cause the constraint violation
+     */
+    public UserAlreadyExistsException(String field, String value, Throwable cause) {
+        super("User with " + field + " " + value + " already exists", cause);
+        this.field = field;
+    }
+
+    /**
+     * @return the duplicate field, or null if unknown
+     */
+    public String getField() {
+        return field;
     }
 }
@@ -0,0 +1,38 @@
+package com.amsidh.mvc.authservice.kafka;
+
+import com.amsidh.mvc.kafka.auth.TokenRevocation;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class TokenRevocationProducer {
+  private final KafkaTemplate<String, TokenRevocation> kafkaTemplate;
+  private final String topic;
+
+  public TokenRevocationProducer(KafkaTemplate<String, TokenRevocation> kafkaTemplate,
+                                 @Value("${jwt.revocation.topic:token-revocation-topic}") String topic) {
+    this.kafkaTemplate = kafkaTemplate;
+    this.topic = topic;
+  }
+
+  public void sendTokenRevocation(TokenRevocation tokenRevocation) {
+    log.info("Sending token revocation for token id: {}", tokenRevocation.tokenId());
+    Message<TokenRevocation> message =
+            MessageBuilder
+                    .withPayload(tokenRevocation)
+                    .setHeader(KafkaHeaders.TOPIC, topic)
+                    // Keyed by token id so repeated revocations of one token stay ordered
+                    .setHeader(KafkaHeaders.KEY, tokenRevocation.tokenId())
+                    .setHeader("X-Trace-ID", MDC.get("traceId"))
+                    .setHeader("X-Correlation-ID", MDC.get("traceId"))
+                    .build();
+    kafkaTemplate.send(message);
+  }
+}
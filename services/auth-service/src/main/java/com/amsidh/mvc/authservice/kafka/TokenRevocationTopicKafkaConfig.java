@@ -0,0 +1,31 @@
+package com.amsidh.mvc.authservice.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class TokenRevocationTopicKafkaConfig {
+
+    @Bean
+    public NewTopic tokenRevocationTopic(@Value("${jwt.revocation.topic:token-revocation-topic}") String topic,
+                                         @Value("${jwt.expiration:900000}") long tokenExpirationMs) {
+        // Gateways rebuild their denylist by replaying the topic on startup, so every
+        // revocation must stay on the topic until the token it revokes has expired
+        long retentionMs = tokenExpirationMs + Duration.ofHours(1).toMillis();
+        log.info("Creating {} in Kafka broker with retention: {}ms", topic, retentionMs);
+        return TopicBuilder.name(topic)
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(retentionMs))
+                .build();
+    }
+
+}
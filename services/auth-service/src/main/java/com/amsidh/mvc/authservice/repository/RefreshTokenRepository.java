@@ -0,0 +1,59 @@
+package com.amsidh.mvc.authservice.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amsidh.mvc.authservice.entity.RefreshToken;
+
+/**
+ * Repository interface for RefreshToken entity.
+ * 
+ * @author Amsidh Mohammed
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as consumed, only if nobody consumed it before.
+     * The conditional update makes concurrent refreshes with the same token race-free:
+     * exactly one of them gets 1, the others see a reused token.
+     * 
+     * @param id the token row id
+     * @param now the current instant
+     * @return 1 if this call consumed the token, 0 if it was already consumed
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.consumedAt = :now where r.id = :id and r.consumedAt is null")
+    int consume(Long id, Instant now);
+
+    /**
+     * Revoke every token of a rotation family.
+     * 
+     * @param familyId the family id
+     * @return number of revoked rows
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId")
+    int revokeFamily(String familyId);
+
+    /**
+     * Delete refresh tokens that have expired.
+     * 
+     * @param now the current instant
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+
+}
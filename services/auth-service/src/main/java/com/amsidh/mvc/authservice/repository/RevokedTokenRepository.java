@@ -0,0 +1,45 @@
+package com.amsidh.mvc.authservice.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amsidh.mvc.authservice.entity.RevokedToken;
+
+/**
+ * Repository interface for RevokedToken entity.
+ * 
+ * @author Amsidh Mohammed
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Delete revocations of tokens that have expired.
+     * Runs as a single bulk statement instead of loading the rows.
+     * 
+     * @param now the current instant
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+
+    /**
+     * Which of the given token ids are revoked.
+     * One primary key lookup for a whole introspection batch.
+     * 
+     * @param tokenIds token ids (jti claims)
+     * @return the revoked subset
+     */
+    @Query("select r.tokenId from RevokedToken r where r.tokenId in :tokenIds")
+    Set<String> findRevokedIds(Collection<String> tokenIds);
+
+}
@@ -0,0 +1,65 @@
+package com.amsidh.mvc.authservice.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amsidh.mvc.authservice.entity.UserCredential;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC batch inserts for bulk user imports.
+ * 
+ * JPA cannot batch inserts of UserCredential (IDENTITY ids force one statement
+ * per row), so imports go straight to JDBC: one batched INSERT per chunk, which
+ * the PostgreSQL driver pipelines in a single round trip. (reWriteBatchedInserts
+ * is not used: it reports no per-row counts, so duplicates could not be told apart.)
+ * 
+ * Rows whose email or name already exist are skipped by ON CONFLICT DO NOTHING
+ * instead of failing the whole batch; their update count is 0.
+ * 
+ * @author Amsidh Mohammed
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserCredentialBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO user_credentials "
+            + "(name, email, password, created_date, updated_date) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert users in one JDBC batch.
+     * 
+     * @param users users with encoded passwords
+     * @return per user: true if inserted, false if skipped as a duplicate
+     */
+    @Transactional
+    public boolean[] insertAll(List<UserCredential> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPassword());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+
+        boolean[] inserted = new boolean[users.size()];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[index++] = count > 0;
+            }
+        }
+        return inserted;
+    }
+
+}
@@ -1,8 +1,11 @@
 package com.amsidh.mvc.authservice.repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.amsidh.mvc.authservice.entity.UserCredential;
@@ -45,4 +48,14 @@ public interface UserCredentialRepository extends JpaRepository<UserCredential,
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Emails from the given list that are already registered.
+     * Lets bulk imports skip existing users before spending BCrypt time on them.
+     * 
+     * @param emails candidate email addresses
+     * @return the subset that already exists
+     */
+    @Query("select u.email from UserCredential u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
 }
@@ -1,7 +1,13 @@
 package com.amsidh.mvc.authservice.service;
 
+import java.util.List;
+
 import com.amsidh.mvc.authservice.dto.AuthRequest;
 import com.amsidh.mvc.authservice.dto.AuthResponse;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationRequest;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationResponse;
+import com.amsidh.mvc.authservice.dto.RefreshTokenRequest;
+import com.amsidh.mvc.authservice.dto.TokenIntrospectionResponse;
 import com.amsidh.mvc.authservice.dto.UserCredentialRequest;
 
 /**
@@ -23,6 +29,60 @@ public interface AuthService {
 
     String registerUser(UserCredentialRequest request);
 
-    AuthResponse generateToken(AuthRequest request);
+    /**
+     * Register many users at once (migration of an existing user base).
+     * Users whose email or name already exists are skipped, not failed.
+     *
+     * @param request the users to register
+     * @return counts and the skipped emails
+     */
+    BulkRegistrationResponse importUsers(BulkRegistrationRequest request);
+
+    /**
+     * Authenticate with email and password and issue a token pair.
+     * Failed attempts are throttled per email and per client IP.
+     *
+     * @param request  the credentials
+     * @param clientIp the client IP address, or null if unknown
+     * @return access token and refresh token
+     */
+    AuthResponse generateToken(AuthRequest request, String clientIp);
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token (rotation).
+     * The presented refresh token can only be used once.
+     *
+     * @param request the refresh token
+     * @return new token pair
+     */
+    AuthResponse refreshToken(RefreshTokenRequest request);
+
+    /**
+     * Check tokens issued by this service (introspection).
+     * Each token is reported active, or inactive with the reason (invalid, expired, revoked).
+     *
+     * @param tokens the compact JWTs
+     * @return one result per token, in the same order
+     */
+    List<TokenIntrospectionResponse> introspectTokens(List<String> tokens);
+
+    /**
+     * Public signing keys as a JWK Set, for verifiers of asymmetric (ES256) tokens.
+     *
+     * @return JWK Set JSON; empty key list when only HMAC keys are configured
+     */
+    String getJwks();
+
+    /**
+     * Revoke a token before it expires (logout).
+     * The token id is recorded and published so gateways reject the token within seconds.
+     * When the session's refresh token is given, its whole rotation family is revoked too,
+     * so the session cannot be resumed with any refresh token issued from the same login.
+     *
+     * @param token        the compact JWT to revoke
+     * @param refreshToken the session's refresh token, or {@code null}
+     * @return confirmation message
+     */
+    String revokeToken(String token, String refreshToken);
 
 }
@@ -0,0 +1,130 @@
+package com.amsidh.mvc.authservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse;
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse.Status;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationRequest;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationResponse;
+import com.amsidh.mvc.authservice.exception.ServiceOverloadedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs bulk user imports in the background.
+ * 
+ * An import of thousands of users takes minutes of BCrypt work, far longer than any
+ * HTTP timeout in front of auth-service. POST /auth/import therefore only queues the
+ * import and answers 202 with a job id; the job's status is polled with
+ * GET /auth/import/{jobId}.
+ * 
+ * - One import runs at a time, so imports never take more than one BCrypt window
+ *   from interactive logins (see PasswordHasher#encodeAll)
+ * - At most auth.bulk-import.queue-capacity imports wait; further submissions are
+ *   rejected with 503 instead of piling up requests (and their passwords) in memory
+ * - Job states are kept for auth.bulk-import.job-retention after their last change
+ * 
+ * Metrics: executor metrics under {@code auth.bulk-import}.
+ * 
+ * @author Amsidh Mohammed
+ */
+@Service
+@Slf4j
+public class BulkImportJobService {
+
+    private final AuthService authService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, BulkImportJobResponse> jobs;
+
+    public BulkImportJobService(AuthService authService,
+                                MeterRegistry meterRegistry,
+                                @Value("${auth.bulk-import.queue-capacity:2}") int queueCapacity,
+                                @Value("${auth.bulk-import.job-retention:1h}") Duration jobRetention) {
+        this.authService = authService;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("bulk-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.bulk-import");
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .maximumSize(1000)
+                .build();
+        log.info("Bulk import executor initialized - Queue capacity: {}, Job retention: {}",
+                queueCapacity, jobRetention);
+    }
+
+    /**
+     * Queue an import.
+     *
+     * @param request the users to register
+     * @return the queued job
+     * @throws ServiceOverloadedException if too many imports are already waiting
+     */
+    public BulkImportJobResponse submit(BulkRegistrationRequest request) {
+        BulkImportJobResponse job = BulkImportJobResponse.builder()
+                .jobId(UUID.randomUUID().toString())
+                .status(Status.QUEUED)
+                .received(request.users().size())
+                .submittedAt(Instant.now())
+                .build();
+        jobs.put(job.jobId(), job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.jobId());
+            log.warn("Bulk import rejected: {} imports already queued", executor.getQueue().size());
+            throw new ServiceOverloadedException("Too many bulk imports pending, retry later");
+        }
+        log.info("Bulk import queued - Job: {}, Users: {}", job.jobId(), job.received());
+        return job;
+    }
+
+    /**
+     * @param jobId the id returned by {@link #submit(BulkRegistrationRequest)}
+     * @return the job's current state, empty if unknown or expired
+     */
+    public Optional<BulkImportJobResponse> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void run(BulkImportJobResponse job, BulkRegistrationRequest request) {
+        jobs.put(job.jobId(), job.toBuilder().status(Status.RUNNING).build());
+        try {
+            BulkRegistrationResponse result = authService.importUsers(request);
+            jobs.put(job.jobId(), job.toBuilder()
+                    .status(Status.COMPLETED)
+                    .finishedAt(Instant.now())
+                    .result(result)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Bulk import failed - Job: {}, Error: {}", job.jobId(), e.getMessage(), e);
+            jobs.put(job.jobId(), job.toBuilder()
+                    .status(Status.FAILED)
+                    .finishedAt(Instant.now())
+                    .error(e.getMessage())
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
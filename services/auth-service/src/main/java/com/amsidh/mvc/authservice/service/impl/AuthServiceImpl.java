@@ -1,18 +1,51 @@
 package com.amsidh.mvc.authservice.service.impl;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.amsidh.mvc.authservice.cache.VerifiedTokenCache;
+import com.amsidh.mvc.authservice.config.JwtConfigEnum;
 import com.amsidh.mvc.authservice.dto.AuthRequest;
 import com.amsidh.mvc.authservice.dto.AuthResponse;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationRequest;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationResponse;
+import com.amsidh.mvc.authservice.dto.RefreshTokenRequest;
+import com.amsidh.mvc.authservice.dto.TokenIntrospectionResponse;
 import com.amsidh.mvc.authservice.dto.UserCredentialRequest;
+import com.amsidh.mvc.authservice.entity.RefreshToken;
+import com.amsidh.mvc.authservice.entity.RevokedToken;
 import com.amsidh.mvc.authservice.entity.UserCredential;
 import com.amsidh.mvc.authservice.exception.AuthenticationException;
 import com.amsidh.mvc.authservice.exception.UserAlreadyExistsException;
+import com.amsidh.mvc.authservice.kafka.TokenRevocationProducer;
+import com.amsidh.mvc.authservice.repository.RefreshTokenRepository;
+import com.amsidh.mvc.authservice.repository.RevokedTokenRepository;
+import com.amsidh.mvc.authservice.repository.UserCredentialBatchRepository;
 import com.amsidh.mvc.authservice.repository.UserCredentialRepository;
 import com.amsidh.mvc.authservice.service.AuthService;
 import com.amsidh.mvc.authservice.util.JwtUtil;
+import com.amsidh.mvc.authservice.util.LoginAttemptTracker;
+import com.amsidh.mvc.authservice.util.PasswordHasher;
+import com.amsidh.mvc.authservice.util.RefreshTokenGenerator;
+import com.amsidh.mvc.authservice.util.VerifiedToken;
+import com.amsidh.mvc.kafka.auth.TokenRevocation;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,16 +55,26 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * Handles:
  * - User registration with BCrypt password encryption
+ * - Bulk user import (batched inserts, parallel hashing)
  * - Token generation with credential validation
- * - Token validation for API Gateway
+ * - Token introspection (single and batch) for gateway, services and batch jobs
+ * - Token revocation (logout), published to gateways over Kafka
+ * - Refresh token rotation with reuse detection
  * 
  * Dependencies:
  * - UserCredentialRepository: Database operations
- * - PasswordEncoder: BCrypt password hashing
+ * - UserCredentialBatchRepository: JDBC batch inserts for bulk imports
+ * - RevokedTokenRepository: Revoked token ids until their expiry
+ * - TokenRevocationProducer: Revocation events for gateways
+ * - RefreshTokenRepository: Hashed refresh tokens and their rotation families
+ * - PasswordHasher: BCrypt password hashing on a bounded executor
+ * - LoginAttemptTracker: Failed login throttling per email and client IP
  * - JwtUtil: JWT token operations
  * 
  * Security Features:
- * - BCrypt password hashing (cost factor 10)
+ * - BCrypt password hashing, cost calibrated at startup to auth.password-hashing.target-latency
+ *   (see BCryptCalibrator, never below 10); hashes run on PasswordHasher's bounded executor
+ *   and are rejected with 503 when its queue is full
  * - JWT token with HS256 signing
  * - Transaction management for data consistency
  * - Comprehensive audit logging
@@ -44,45 +87,56 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthServiceImpl implements AuthService {
 
     private final UserCredentialRepository userCredentialRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationProducer tokenRevocationProducer;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenGenerator refreshTokenGenerator;
+
+    private final UserCredentialBatchRepository userCredentialBatchRepository;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${jwt.refresh.expiration:30d}")
+    private Duration refreshExpiration;
+
+    @Value("${auth.bulk-import.batch-size:500}")
+    private int importBatchSize;
 
     /**
      * {@inheritDoc}
      * 
      * Implementation details:
-     * - Checks email uniqueness using indexed query
-     * - Uses BCrypt for password hashing (cost 10, secure random salt)
-     * - Wrapped in transaction for atomicity
+     * - A single INSERT; the unique constraints on email and name are the duplicate check
+     *   (an up-front existence query would still race with concurrent registrations)
+     * - Constraint violations map to UserAlreadyExistsException naming the field
+     * - Uses BCrypt for password hashing (calibrated cost, secure random salt),
+     *   before the insert so no connection is held while hashing
      * - Logs registration events for audit trail
      */
     @Override
-    @Transactional
     public String registerUser(UserCredentialRequest request) {
         log.info("Attempting to register new user with email: {}", request.email());
 
-        // Check if user already exists
-        if (userCredentialRepository.existsByEmail(request.email())) {
-            log.warn("Registration failed: Email {} already exists", request.email());
-            throw new UserAlreadyExistsException(
-                    "User with email " + request.email() + " already exists");
-        }
-
-        // Check if username is already taken
-        if (userCredentialRepository.findByName(request.name()).isPresent()) {
-            log.warn("Registration failed: Username {} already exists", request.name());
-            throw new UserAlreadyExistsException(
-                    "User with name " + request.name() + " already exists");
-        }
-
         // Create new user with encrypted password
         UserCredential user = UserCredential.builder()
                 .name(request.name())
                 .email(request.email())
-                .password(passwordEncoder.encode(request.password())) // BCrypt encryption
+                .password(passwordHasher.encode(request.password())) // BCrypt encryption
                 .build();
 
-        userCredentialRepository.save(user);
+        try {
+            userCredentialRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String field = duplicateField(e);
+            if (field == null) {
+                throw e;
+            }
+            String value = "email".equals(field) ? request.email() : request.name();
+            log.warn("Registration failed: {} {} already exists", field, value);
+            throw new UserAlreadyExistsException(field, value, e);
+        }
         log.info("User registered successfully with email: {}", request.email());
 
         return "User registered successfully";
@@ -92,42 +146,374 @@ public class AuthServiceImpl implements AuthService {
      * {@inheritDoc}
      * 
      * Implementation details:
+     * - Duplicates within the request are skipped (first occurrence wins)
+     * - Per chunk of auth.bulk-import.batch-size users: one query to skip existing
+     *   emails, parallel BCrypt on the hashing executor, one JDBC batch insert
+     * - Each chunk commits on its own; re-running a failed import skips the users
+     *   already imported without hashing their passwords again
+     */
+    @Override
+    public BulkRegistrationResponse importUsers(BulkRegistrationRequest request) {
+        List<UserCredentialRequest> users = request.users();
+        log.info("Bulk import started - Users: {}", users.size());
+
+        List<String> skippedEmails = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenNames = new HashSet<>();
+        List<UserCredentialRequest> unique = new ArrayList<>(users.size());
+        for (UserCredentialRequest user : users) {
+            boolean newEmail = seenEmails.add(user.email());
+            boolean newName = seenNames.add(user.name());
+            if (newEmail && newName) {
+                unique.add(user);
+            } else {
+                skippedEmails.add(user.email());
+            }
+        }
+
+        int registered = 0;
+        for (int from = 0; from < unique.size(); from += importBatchSize) {
+            List<UserCredentialRequest> chunk = unique.subList(from, Math.min(from + importBatchSize, unique.size()));
+            Set<String> existing = userCredentialRepository.findExistingEmails(
+                    chunk.stream().map(UserCredentialRequest::email).toList());
+
+            List<UserCredentialRequest> fresh = new ArrayList<>(chunk.size());
+            for (UserCredentialRequest user : chunk) {
+                if (existing.contains(user.email())) {
+                    skippedEmails.add(user.email());
+                } else {
+                    fresh.add(user);
+                }
+            }
+            if (fresh.isEmpty()) {
+                continue;
+            }
+
+            List<String> passwords = passwordHasher.encodeAll(
+                    fresh.stream().map(UserCredentialRequest::password).toList());
+            List<UserCredential> rows = new ArrayList<>(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                rows.add(UserCredential.builder()
+                        .name(fresh.get(i).name())
+                        .email(fresh.get(i).email())
+                        .password(passwords.get(i))
+                        .build());
+            }
+
+            boolean[] inserted = userCredentialBatchRepository.insertAll(rows);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    registered++;
+                } else {
+                    skippedEmails.add(fresh.get(i).email());
+                }
+            }
+            log.info("Bulk import progress - Processed: {}/{}, Registered: {}",
+                    from + chunk.size(), unique.size(), registered);
+        }
+
+        log.info("Bulk import finished - Received: {}, Registered: {}, Skipped: {}",
+                users.size(), registered, skippedEmails.size());
+        return BulkRegistrationResponse.builder()
+                .received(users.size())
+                .registered(registered)
+                .skippedEmails(skippedEmails)
+                .build();
+    }
+
+    /**
+     * Which unique constraint a failed insert violated: by constraint name, or by the
+     * column named in the database message for constraints created under another name.
+     */
+    private static String duplicateField(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                if (constraint.contains(UserCredential.EMAIL_CONSTRAINT)) {
+                    return "email";
+                }
+                if (constraint.contains(UserCredential.NAME_CONSTRAINT)) {
+                    return "name";
+                }
+            }
+        }
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("(email")) {
+            return "email";
+        }
+        if (message.contains("(name")) {
+            return "name";
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Implementation details:
+     * - Throttled per email and client IP before any database or BCrypt work; the
+     *   attempt is reserved with the check, so concurrent guesses cannot overshoot
      * - Retrieves user by email (indexed query)
-     * - Validates password using BCrypt matches() method
-     * - Generates JWT with 24-hour expiration
-     * - Returns token with metadata
+     * - Validates password using BCrypt matches() method; unknown emails are
+     *   verified against a dummy hash so they take as long as wrong passwords
+     * - Generates a short-lived JWT plus a refresh token starting a new rotation family
+     * - Returns tokens with metadata
      * 
      * Password validation:
      * BCrypt automatically extracts salt from stored hash
      * and compares with provided password
+     * 
+     * Not transactional: no connection is held while BCrypt runs.
      */
     @Override
-    @Transactional(readOnly = true)
-    public AuthResponse generateToken(AuthRequest request) {
+    public AuthResponse generateToken(AuthRequest request, String clientIp) {
         log.info("Generating token for user: {}", request.email());
+        UserCredential user;
+        // The attempt is reserved until resolved; errors other than bad credentials release it
+        try (LoginAttemptTracker.Attempt attempt = loginAttemptTracker.checkAllowed(request.email(), clientIp)) {
+            // Retrieve user by email
+            user = userCredentialRepository.findByEmail(request.email()).orElse(null);
 
-        // Retrieve user by email
-        UserCredential user = userCredentialRepository.findByEmail(request.email())
-                .orElseThrow(() -> {
+            // Validate password using BCrypt (dummy hash when the user does not exist)
+            if (!passwordHasher.matches(request.password(), user != null ? user.getPassword() : null)) {
+                attempt.failed();
+                if (user == null) {
                     log.error("Authentication failed: User not found with email: {}", request.email());
-                    return new AuthenticationException("Invalid credentials");
+                } else {
+                    log.error("Authentication failed: Invalid password for email: {}", request.email());
+                }
+                throw new AuthenticationException("Invalid credentials");
+            }
+            attempt.succeeded();
+        }
+
+        AuthResponse response = issueTokens(user.getEmail(), UUID.randomUUID().toString());
+        log.info("Token generated successfully for user: {}", request.email());
+        return response;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Implementation details:
+     * - One SHA-256 and one indexed lookup; no BCrypt and no user lookup
+     * - The presented token is consumed with a conditional update, so of two
+     *   concurrent refreshes with the same token exactly one succeeds
+     * - A consumed token presented again revokes its whole family (reuse detection)
+     */
+    @Override
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public AuthResponse refreshToken(RefreshTokenRequest request) {
+        RefreshToken current = refreshTokenRepository
+                .findByTokenHash(refreshTokenGenerator.hash(request.refreshToken()))
+                .orElseThrow(() -> {
+                    log.warn("Refresh failed: Unknown refresh token");
+                    return new AuthenticationException("Invalid refresh token");
                 });
 
-        // Validate password using BCrypt
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            log.error("Authentication failed: Invalid password for email: {}", request.email());
-            throw new AuthenticationException("Invalid credentials");
+        Instant now = Instant.now();
+        if (current.isRevoked()) {
+            log.warn("Refresh failed: Revoked refresh token for user: {}", current.getSubject());
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            log.info("Refresh failed: Expired refresh token for user: {}", current.getSubject());
+            throw new AuthenticationException("Refresh token expired");
+        }
+        if (current.getConsumedAt() != null || refreshTokenRepository.consume(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Refresh token reuse detected for user: {} - Family: {}, Revoked tokens: {}",
+                    current.getSubject(), current.getFamilyId(), revoked);
+            throw new AuthenticationException("Refresh token reuse detected, please log in again");
         }
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail());
-        log.info("Token generated successfully for user: {}", request.email());
+        AuthResponse response = issueTokens(current.getSubject(), current.getFamilyId());
+        log.info("Token refreshed for user: {}", current.getSubject());
+        return response;
+    }
+
+    private AuthResponse issueTokens(String subject, String familyId) {
+        String token = jwtUtil.generateToken(subject);
+
+        String refreshToken = refreshTokenGenerator.generate();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(refreshTokenGenerator.hash(refreshToken))
+                .familyId(familyId)
+                .subject(subject)
+                .expiresAt(Instant.now().plus(refreshExpiration))
+                .build());
 
-        // Return token response with metadata
         return AuthResponse.builder()
                 .token(token)
                 .tokenType("Bearer")
-                .expiresIn(86400000L) // 24 hours in milliseconds
+                .expiresIn(JwtConfigEnum.INSTANCE.getJwtExpiration())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(refreshExpiration.toMillis())
                 .build();
     }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Implementation details:
+     * - Signatures are verified once per token and cached until the token expires
+     * - Revocation is checked for the whole batch with one query
+     */
+    @Override
+    public List<TokenIntrospectionResponse> introspectTokens(List<String> tokens) {
+        Instant now = Instant.now();
+        VerifiedToken[] verified = new VerifiedToken[tokens.size()];
+        String[] reasons = new String[tokens.size()];
+        Set<String> tokenIds = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            try {
+                VerifiedToken token = verifiedTokenCache.get(tokens.get(i), this::verifyToken);
+                if (token.isExpiredAt(now)) {
+                    reasons[i] = "expired";
+                    continue;
+                }
+                verified[i] = token;
+                if (token.tokenId() != null) {
+                    tokenIds.add(token.tokenId());
+                }
+            } catch (ExpiredJwtException e) {
+                reasons[i] = "expired";
+            } catch (JwtException | IllegalArgumentException e) {
+                reasons[i] = "invalid";
+            }
+        }
+
+        Set<String> revoked = tokenIds.isEmpty() ? Set.of() : revokedTokenRepository.findRevokedIds(tokenIds);
+        List<TokenIntrospectionResponse> responses = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            VerifiedToken token = verified[i];
+            if (token == null) {
+                responses.add(TokenIntrospectionResponse.builder().active(false).reason(reasons[i]).build());
+                continue;
+            }
+            boolean isRevoked = token.tokenId() != null && revoked.contains(token.tokenId());
+            responses.add(TokenIntrospectionResponse.builder()
+                    .active(!isRevoked)
+                    .subject(token.subject())
+                    .tokenId(token.tokenId())
+                    .expiresAt(token.expiresAt().getEpochSecond())
+                    .revoked(isRevoked)
+                    .reason(isRevoked ? "revoked" : null)
+                    .build());
+        }
+        log.debug("Introspected {} tokens - Revoked: {}", tokens.size(), revoked.size());
+        return responses;
+    }
+
+    private VerifiedToken verifyToken(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant(), claims.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The key ring is immutable, so the JWK Set is built once at startup and
+     * returned as is.
+     */
+    @Override
+    public String getJwks() {
+        return jwtUtil.getJwks();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Implementation details:
+     * - Verifies the token first, so only genuine tokens can be revoked
+     * - Revokes the refresh token family of the session when its refresh token is
+     *   given, also for an access token that has already expired
+     * - Records the jti with the token's expiry (primary key lookup, idempotent)
+     * - Publishes the revocation; gateways keep it until the token expires
+     * - Tokens issued before jti was introduced cannot be revoked individually
+     */
+    @Override
+    public String revokeToken(String token, String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(token);
+        } catch (ExpiredJwtException e) {
+            // The signature was verified before the expiry check, so the subject is genuine
+            revokeRefreshFamily(e.getClaims().getSubject(), refreshToken);
+            log.info("Revocation skipped: token already expired for user: {}", e.getClaims().getSubject());
+            return "Token already expired";
+        } catch (JwtException e) {
+            log.error("Revocation failed: Invalid token - Error: {}", e.getMessage());
+            throw new AuthenticationException("Invalid token");
+        }
+        revokeRefreshFamily(claims.getSubject(), refreshToken);
+
+        String tokenId = claims.getId();
+        if (tokenId == null || tokenId.isBlank()) {
+            log.warn("Revocation failed: Token without id for user: {}", claims.getSubject());
+            throw new AuthenticationException("Token has no id and cannot be revoked");
+        }
+
+        Instant expiresAt = claims.getExpiration().toInstant();
+        if (!revokedTokenRepository.existsById(tokenId)) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .tokenId(tokenId)
+                    .subject(claims.getSubject())
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        // Published even for repeated revocations, so a lost event can be re-sent by revoking again
+        tokenRevocationProducer.sendTokenRevocation(
+                new TokenRevocation(tokenId, claims.getSubject(), expiresAt.getEpochSecond()));
+        log.info("Token revoked for user: {} - Token id: {}", claims.getSubject(), tokenId);
+
+        return "Token revoked successfully";
+    }
+
+    /**
+     * Revoke the rotation family of a refresh token owned by the subject. Unknown
+     * refresh tokens (e.g. already purged) are ignored, so logout can be repeated.
+     */
+    private void revokeRefreshFamily(String subject, String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        RefreshToken current = refreshTokenRepository
+                .findByTokenHash(refreshTokenGenerator.hash(refreshToken))
+                .orElse(null);
+        if (current == null) {
+            log.info("Logout: Unknown refresh token for user: {}", subject);
+            return;
+        }
+        if (!current.getSubject().equals(subject)) {
+            log.warn("Revocation failed: Refresh token of user: {} presented by user: {}", current.getSubject(), subject);
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+        log.info("Refresh tokens revoked for user: {} - Family: {}, Revoked tokens: {}",
+                subject, current.getFamilyId(), revoked);
+    }
+
+    /**
+     * Purge revocations of tokens that have expired; the token itself is rejected
+     * by its exp claim from then on.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:1h}")
+    public void purgeExpiredRevocations() {
+        int purged = revokedTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    /**
+     * Purge expired refresh tokens, including consumed and revoked ones.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:1h}")
+    public void purgeExpiredRefreshTokens() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
 }
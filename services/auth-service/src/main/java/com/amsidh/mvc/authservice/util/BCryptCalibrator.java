@@ -0,0 +1,60 @@
+package com.amsidh.mvc.authservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost factor for this machine.
+ * <p>
+ * Each cost step doubles the hashing time. The time of one hash is measured at
+ * {@code minStrength} (best of a few runs after a warm-up) and the highest cost whose
+ * projected time stays within the latency target is chosen, never below
+ * {@code minStrength} and never above {@code maxStrength}.
+ * <p>
+ * Existing hashes keep verifying at whatever cost they were created with; the cost is
+ * stored in the hash itself.
+ *
+ * @author Amsidh Mohammed
+ */
+@Slf4j
+public final class BCryptCalibrator {
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptCalibrator() {
+    }
+
+    /**
+     * @param targetLatency acceptable time for one hash
+     * @param minStrength   lowest cost allowed (security floor)
+     * @param maxStrength   highest cost allowed
+     * @return the chosen cost factor
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || maxStrength < minStrength) {
+            throw new IllegalArgumentException("BCrypt strength must satisfy 4 <= min <= max <= 31");
+        }
+        String salt = BCrypt.gensalt(minStrength);
+        BCrypt.hashpw(SAMPLE_PASSWORD, salt); // Warm-up (JIT)
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long projected = best;
+        while (strength < maxStrength && projected * 2 <= targetLatency.toNanos()) {
+            strength++;
+            projected *= 2;
+        }
+        log.info("BCrypt cost calibrated - Strength: {}, Measured at {}: {}ms, Projected: {}ms, Target: {}ms",
+                strength, minStrength, best / 1_000_000, projected / 1_000_000, targetLatency.toMillis());
+        return strength;
+    }
+}
@@ -0,0 +1,182 @@
+package com.amsidh.mvc.authservice.util;
+
+import io.jsonwebtoken.security.Keys;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of JWT signing keys indexed by key id ({@code kid}).
+ * <p>
+ * Loaded once at startup from {@code jwt.keys}; tokens are signed with the key named
+ * by {@code jwt.active-kid} and carry its id in the {@code kid} header, so verifiers
+ * pick the right key with a single map lookup.
+ * <p>
+ * Key types:
+ * - {@code secret}: HMAC key shared with the gateway (HS256/384/512 by key length)
+ * - {@code private-key} + {@code public-key}: EC P-256 key pair (ES256), base64 PKCS#8 and
+ *   X.509; only the public key is published, through {@link #getJwksJson()}
+ * <p>
+ * Rotation: add the new key to every service first, then switch {@code jwt.active-kid}.
+ * Tokens signed with the previous key stay valid until they expire as long as that key
+ * remains in the ring. Without {@code jwt.active-kid}, tokens are signed with the legacy
+ * {@code jwt.secret} and no {@code kid}, as before.
+ *
+ * @author Amsidh Mohammed
+ */
+public final class JwtKeyRing {
+
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final String activeKid;
+    private final Key signingKey;
+    private final Key legacyKey;
+    private final Map<String, Key> verificationKeys;
+    private final String jwksJson;
+
+    private JwtKeyRing(String activeKid, Key signingKey, Key legacyKey, Map<String, Key> verificationKeys,
+                       String jwksJson) {
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.legacyKey = legacyKey;
+        this.verificationKeys = verificationKeys;
+        this.jwksJson = jwksJson;
+    }
+
+    /**
+     * Build the ring from configuration.
+     *
+     * @param legacySecret HMAC secret used when no active kid is configured
+     * @param activeKid    id of the key new tokens are signed with, may be blank
+     * @param keys         configured keys by id
+     * @return the key ring
+     * @throws IllegalStateException if a key is malformed or the active kid is unknown
+     */
+    public static JwtKeyRing of(String legacySecret, String activeKid, Map<String, KeyProperties> keys) {
+        Map<String, Key> signingKeys = new LinkedHashMap<>();
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        StringJoiner jwks = new StringJoiner(",", "{\"keys\":[", "]}");
+        keys.forEach((kid, properties) -> {
+            if (!KEY_ID.matcher(kid).matches()) {
+                throw new IllegalStateException("Invalid JWT key id: " + kid);
+            }
+            if (properties.secret() != null && !properties.secret().isBlank()) {
+                Key secretKey = Keys.hmacShaKeyFor(properties.secret().getBytes(StandardCharsets.UTF_8));
+                signingKeys.put(kid, secretKey);
+                verificationKeys.put(kid, secretKey);
+            } else if (properties.publicKey() != null) {
+                ECPublicKey publicKey = ecPublicKey(kid, properties.publicKey());
+                jwks.add(toJwk(kid, publicKey));
+                verificationKeys.put(kid, publicKey);
+                if (properties.privateKey() != null) {
+                    signingKeys.put(kid, ecPrivateKey(kid, properties.privateKey()));
+                }
+            } else {
+                throw new IllegalStateException("JWT key " + kid + " needs a secret or a public-key");
+            }
+        });
+
+        Key legacyKey = Keys.hmacShaKeyFor(legacySecret.getBytes(StandardCharsets.UTF_8));
+        Map<String, Key> verifiers = Collections.unmodifiableMap(verificationKeys);
+        if (activeKid == null || activeKid.isBlank()) {
+            return new JwtKeyRing(null, legacyKey, legacyKey, verifiers, jwks.toString());
+        }
+        Key active = signingKeys.get(activeKid);
+        if (active == null) {
+            throw new IllegalStateException("jwt.active-kid " + activeKid + " has no signing key in jwt.keys");
+        }
+        return new JwtKeyRing(activeKid, active, legacyKey, verifiers, jwks.toString());
+    }
+
+    /**
+     * Look up the key that verifies a token.
+     *
+     * @param kid the token's {@code kid} header, or {@code null}
+     * @return the HMAC secret or EC public key, or {@code null} if the ring has no key with that id
+     */
+    public Key find(String kid) {
+        return kid == null ? legacyKey : verificationKeys.get(kid);
+    }
+
+    /**
+     * @return id of the key new tokens are signed with, or {@code null} for the legacy key
+     */
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    /**
+     * @return key new tokens are signed with
+     */
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * @return JWK Set with the public keys of all asymmetric keys in the ring
+     */
+    public String getJwksJson() {
+        return jwksJson;
+    }
+
+    private static ECPublicKey ecPublicKey(String kid, String base64) {
+        try {
+            return (ECPublicKey) KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder().decode(base64)));
+        } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+            throw new IllegalStateException("Invalid EC public key for JWT key " + kid, e);
+        }
+    }
+
+    private static Key ecPrivateKey(String kid, String base64) {
+        try {
+            return KeyFactory.getInstance("EC")
+                    .generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(base64)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid EC private key for JWT key " + kid, e);
+        }
+    }
+
+    private static String toJwk(String kid, ECPublicKey key) {
+        if (key.getParams().getCurve().getField().getFieldSize() != 256) {
+            throw new IllegalStateException("JWT key " + kid + " must be an EC P-256 key");
+        }
+        return "{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\""
+                + ",\"kid\":\"" + kid + "\""
+                + ",\"x\":\"" + coordinate(key.getW().getAffineX()) + "\""
+                + ",\"y\":\"" + coordinate(key.getW().getAffineY()) + "\"}";
+    }
+
+    /**
+     * Unsigned, fixed-length (32 byte) base64url encoding of a P-256 coordinate.
+     */
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    /**
+     * One configured key under {@code jwt.keys.<kid>}.
+     *
+     * @param secret     HMAC secret
+     * @param privateKey base64 PKCS#8 EC private key
+     * @param publicKey  base64 X.509 EC public key
+     */
+    public record KeyProperties(String secret, String privateKey, String publicKey) {
+    }
+}
@@ -1,21 +1,27 @@
 package com.amsidh.mvc.authservice.util;
 
 import com.amsidh.mvc.authservice.config.JwtConfigEnum;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.InvalidKeyException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 @Slf4j
 public class JwtUtil {
 
+    private volatile JwtParser parser;
 
     public String generateToken(String email) {
         log.info("Generating JWT token for email: {}", email);
@@ -34,18 +40,53 @@ public class JwtUtil {
         log.debug("Creating token - Subject: {}, IssuedAt: {}, Expiration: {}",
                 subject, now, expirationDate);
 
-        return Jwts.builder()
+        // Keys are built once at startup; the kid header lets verifiers look the key up directly
+        JwtKeyRing keyRing = JwtConfigEnum.INSTANCE.getKeyRing();
+        JwtBuilder builder = Jwts.builder();
+        if (keyRing.getActiveKid() != null) {
+            builder.header().keyId(keyRing.getActiveKid()).and();
+        }
+        return builder
                 .claims(claims)
+                .id(UUID.randomUUID().toString()) // jti: lets a single token be revoked
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expirationDate)
-                .signWith(getSigningKey())
+                .signWith(keyRing.getSigningKey())
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = JwtConfigEnum.INSTANCE.getJwtSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verify a token issued by this service and return its claims.
+     * <p>
+     * The verification key is picked by the token's {@code kid}, so tokens signed
+     * with any key still in the ring are accepted.
+     *
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser()
+                    .keyLocator(new LocatorAdapter<Key>() {
+                        @Override
+                        protected Key locate(ProtectedHeader header) {
+                            Key key = JwtConfigEnum.INSTANCE.getKeyRing().find(header.getKeyId());
+                            if (key == null) {
+                                throw new InvalidKeyException("Unknown key id: " + header.getKeyId());
+                            }
+                            return key;
+                        }
+                    })
+                    .build();
+            parser = current;
+        }
+        return current.parseSignedClaims(token).getPayload();
     }
 
+    public String getJwks() {
+        return JwtConfigEnum.INSTANCE.getKeyRing().getJwksJson();
+    }
 }
@@ -0,0 +1,297 @@
+package com.amsidh.mvc.authservice.util;
+
+import com.amsidh.mvc.authservice.exception.TooManyLoginAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Tracks failed logins per email and per client IP and throttles them before any
+ * database or BCrypt work is done.
+ * <p>
+ * Failures are counted in a sliding window (the current and previous fixed window,
+ * weighted by overlap), so the state per key is a few longs. Attempts in flight count
+ * as failures until they are resolved. Once a key has more failures in the window than
+ * its threshold, each further attempt must wait an exponentially growing back-off after
+ * the last failure ({@code base-backoff * 2^excess}, capped at {@code max-backoff});
+ * attempts during the back-off get an immediate 429 with Retry-After instead of a
+ * sleeping request thread.
+ * <p>
+ * A successful login clears the email's failures; the IP keeps its count, so one valid
+ * account cannot be used to reset a stuffing run. Keys without failures are not kept;
+ * both maps are bounded and entries are evicted after {@code idle-timeout} without attempts.
+ * <p>
+ * Metrics: {@code auth.login.attempts} tagged {@code result=allowed|rejected} and
+ * {@code limit=none|email|ip}; {@code auth.login.tracked} gauges the tracked keys.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+@Slf4j
+public class LoginAttemptTracker {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int emailThreshold;
+    private final int ipThreshold;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Cache<String, SlidingWindow> emailAttempts;
+    private final Cache<String, SlidingWindow> ipAttempts;
+    private final Meter.MeterProvider<Counter> attemptCounter;
+
+    public LoginAttemptTracker(MeterRegistry meterRegistry,
+                               @Value("${auth.login-throttle.enabled:true}") boolean enabled,
+                               @Value("${auth.login-throttle.window:15m}") Duration window,
+                               @Value("${auth.login-throttle.email-threshold:5}") int emailThreshold,
+                               @Value("${auth.login-throttle.ip-threshold:20}") int ipThreshold,
+                               @Value("${auth.login-throttle.base-backoff:1s}") Duration baseBackoff,
+                               @Value("${auth.login-throttle.max-backoff:15m}") Duration maxBackoff,
+                               @Value("${auth.login-throttle.max-entries:100000}") long maxEntries,
+                               @Value("${auth.login-throttle.idle-timeout:30m}") Duration idleTimeout) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.emailThreshold = emailThreshold;
+        this.ipThreshold = ipThreshold;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        // Entries must outlive the window and the back-off, or eviction would reset them early
+        Duration expiry = idleTimeout.compareTo(window.plus(maxBackoff)) >= 0 ? idleTimeout : window.plus(maxBackoff);
+        this.emailAttempts = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterAccess(expiry).build();
+        this.ipAttempts = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterAccess(expiry).build();
+        this.attemptCounter = Counter.builder("auth.login.attempts")
+                .description("Login attempts by throttling decision")
+                .withRegistry(meterRegistry);
+        Gauge.builder("auth.login.tracked", this, tracker -> tracker.emailAttempts.estimatedSize() + tracker.ipAttempts.estimatedSize())
+                .description("Emails and client IPs with recent failed logins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit or reject a login attempt. Call before looking the user up.
+     * <p>
+     * An admitted attempt is reserved atomically with the check: until it is resolved,
+     * it counts as a failure for the email and the IP, so concurrent attempts cannot all
+     * pass the check before the first failure is recorded. Beyond the threshold only one
+     * attempt per back-off is admitted. Resolve the attempt with {@link Attempt#failed()}
+     * or {@link Attempt#succeeded()}; closing an unresolved attempt releases it without
+     * counting a failure.
+     *
+     * @param email    the login email
+     * @param clientIp the client IP, or null if unknown
+     * @return the reserved attempt, to be used in try-with-resources
+     * @throws TooManyLoginAttemptsException if the email or IP is backing off
+     */
+    public Attempt checkAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return Attempt.NONE;
+        }
+        String emailKey = emailKey(email);
+        long now = System.nanoTime();
+        long emailWait = reserve(emailAttempts, emailKey, emailThreshold, now);
+        long ipWait = emailWait <= 0 && clientIp != null ? reserve(ipAttempts, clientIp, ipThreshold, now) : 0;
+        if (emailWait <= 0 && ipWait <= 0) {
+            attemptCounter.withTags("result", "allowed", "limit", "none").increment();
+            return new Attempt(this, emailKey, clientIp);
+        }
+        if (emailWait <= 0) {
+            release(emailAttempts, emailKey, false);
+        }
+
+        String limit = emailWait > 0 ? "email" : "ip";
+        attemptCounter.withTags("result", "rejected", "limit", limit).increment();
+        log.warn("Login throttled - Email: {}, IP: {}, Limit: {}", email, clientIp, limit);
+        // Round up so clients never retry a moment too early
+        Duration retryAfter = Duration.ofSeconds(Math.max(1, (Math.max(emailWait, ipWait) + 999_999_999L) / 1_000_000_000L));
+        throw new TooManyLoginAttemptsException("Too many failed login attempts, please retry later", retryAfter);
+    }
+
+    /**
+     * Reserve an attempt for the key unless it is backing off.
+     *
+     * @return 0 if reserved, otherwise the remaining back-off in nanoseconds
+     */
+    private long reserve(Cache<String, SlidingWindow> attempts, String key, int threshold, long now) {
+        long[] wait = new long[1];
+        attempts.asMap().compute(key, (k, window) -> {
+            SlidingWindow current = window != null ? window : new SlidingWindow(now);
+            wait[0] = current.tryReserve(now, windowNanos, threshold, baseBackoffNanos, maxBackoffNanos);
+            return current;
+        });
+        return wait[0];
+    }
+
+    /**
+     * Turn the reservation into a failure for the email and the client IP.
+     */
+    private void recordFailure(String emailKey, String clientIp) {
+        long now = System.nanoTime();
+        emailAttempts.asMap().compute(emailKey, (k, window) -> failure(window, now));
+        if (clientIp != null) {
+            ipAttempts.asMap().compute(clientIp, (k, window) -> failure(window, now));
+        }
+    }
+
+    private SlidingWindow failure(SlidingWindow window, long now) {
+        SlidingWindow current = window != null ? window : new SlidingWindow(now);
+        current.recordFailure(now, windowNanos);
+        return current;
+    }
+
+    /**
+     * Release the reservation; after a success the email's failures are cleared as well.
+     * The IP keeps its count, so one valid account cannot be used to reset a stuffing run.
+     */
+    private void release(String emailKey, String clientIp, boolean succeeded) {
+        release(emailAttempts, emailKey, succeeded);
+        if (clientIp != null) {
+            release(ipAttempts, clientIp, false);
+        }
+    }
+
+    private static void release(Cache<String, SlidingWindow> attempts, String key, boolean clearFailures) {
+        // Entries without failures or reservations are dropped, so successful logins leave nothing behind
+        attempts.asMap().computeIfPresent(key, (k, window) -> window.release(clearFailures) ? null : window);
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A login attempt admitted by {@link #checkAllowed(String, String)}.
+     * Not thread-safe; resolved by the request that reserved it.
+     */
+    public static final class Attempt implements AutoCloseable {
+
+        private static final Attempt NONE = new Attempt(null, null, null);
+
+        private final LoginAttemptTracker tracker;
+        private final String emailKey;
+        private final String clientIp;
+        private boolean resolved;
+
+        private Attempt(LoginAttemptTracker tracker, String emailKey, String clientIp) {
+            this.tracker = tracker;
+            this.emailKey = emailKey;
+            this.clientIp = clientIp;
+            this.resolved = tracker == null;
+        }
+
+        /**
+         * Count the attempt as a failed login for the email and the client IP.
+         */
+        public void failed() {
+            if (!resolved) {
+                resolved = true;
+                tracker.recordFailure(emailKey, clientIp);
+            }
+        }
+
+        /**
+         * Release the attempt and clear the email's failures.
+         */
+        public void succeeded() {
+            if (!resolved) {
+                resolved = true;
+                tracker.release(emailKey, clientIp, true);
+            }
+        }
+
+        /**
+         * Release the attempt without counting it, if it was not resolved
+         * (e.g. the login failed for a reason unrelated to the credentials).
+         */
+        @Override
+        public void close() {
+            if (!resolved) {
+                resolved = true;
+                tracker.release(emailKey, clientIp, false);
+            }
+        }
+    }
+
+    /**
+     * Failure counts of the current and previous fixed window, the attempts admitted but
+     * not yet resolved, and the last failure (or reserved back-off slot) time.
+     * <p>
+     * Only mutated inside a map compute for its key, which serializes access.
+     */
+    private static final class SlidingWindow {
+
+        private long windowStart;
+        private int current;
+        private int previous;
+        private int pending;
+        private long lastFailure;
+
+        private SlidingWindow(long now) {
+            this.windowStart = now;
+            // Back-offs of attempts reserved before any failure run from the first reservation
+            this.lastFailure = now;
+        }
+
+        long tryReserve(long now, long windowNanos, int threshold, long baseBackoffNanos, long maxBackoffNanos) {
+            roll(now, windowNanos);
+            double overlap = 1.0 - (double) (now - windowStart) / windowNanos;
+            int failures = (int) (previous * overlap) + current + pending;
+            int excess = failures - threshold;
+            if (excess > 0) {
+                // Shift bounded by the free high bits so the back-off cannot overflow
+                int shift = Math.min(excess, Long.numberOfLeadingZeros(baseBackoffNanos) - 1);
+                long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << shift);
+                long wait = lastFailure + backoff - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                // Claim this back-off slot, so concurrent attempts wait for the next one
+                lastFailure = now;
+            }
+            pending++;
+            return 0;
+        }
+
+        void recordFailure(long now, long windowNanos) {
+            roll(now, windowNanos);
+            if (pending > 0) {
+                pending--;
+            }
+            current++;
+            lastFailure = now;
+        }
+
+        /**
+         * @return true if nothing is left to track
+         */
+        boolean release(boolean clearFailures) {
+            if (pending > 0) {
+                pending--;
+            }
+            if (clearFailures) {
+                current = 0;
+                previous = 0;
+            }
+            return pending == 0 && current == 0 && previous == 0;
+        }
+
+        private void roll(long now, long windowNanos) {
+            long elapsed = now - windowStart;
+            if (elapsed < windowNanos) {
+                return;
+            }
+            long windows = elapsed / windowNanos;
+            previous = windows == 1 ? current : 0;
+            current = 0;
+            windowStart += windows * windowNanos;
+        }
+    }
+}
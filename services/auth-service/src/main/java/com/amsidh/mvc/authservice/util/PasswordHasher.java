@@ -0,0 +1,202 @@
+package com.amsidh.mvc.authservice.util;
+
+import com.amsidh.mvc.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt work on a dedicated, bounded executor.
+ * <p>
+ * BCrypt is deliberately CPU-heavy. Running it on Tomcat request threads lets a login
+ * storm occupy every worker and starve unrelated endpoints. Here hashing is limited to
+ * {@code auth.password-hashing.threads} threads (default: one per core) with a queue of
+ * {@code auth.password-hashing.queue-capacity}; request threads wait for their result
+ * without burning CPU. When the queue is full the request fails immediately with
+ * {@link ServiceOverloadedException} (503) instead of queueing without bound.
+ * <p>
+ * Metrics:
+ * - {@code auth.password.hash.queue-wait} - time a hash waited for a thread, per operation
+ * - {@code auth.password.hash.duration} - time spent hashing, per operation
+ * - {@code auth.password.hash.rejected} - hashes rejected because the queue was full
+ * - {@code executor.*} tagged {@code name=auth.password.hash} - pool and queue usage
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+    private volatile String dummyHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.password-hashing.threads:0}") int threads,
+                          @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.password.hash");
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashes rejected because the hashing queue was full")
+                .register(meterRegistry);
+        log.info("Password hashing executor initialized - Threads: {}, Queue capacity: {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Hash a password for storage.
+     *
+     * @param rawPassword the password
+     * @return the encoded password
+     * @throws ServiceOverloadedException if the hashing queue is full
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", encodeTask(rawPassword));
+    }
+
+    /**
+     * Verify a password against its stored hash.
+     * <p>
+     * Without a stored hash (unknown user) the password is verified against a cached
+     * dummy hash of the same cost and false is returned, so unknown and known emails take
+     * the same time.
+     *
+     * @param rawPassword     the password
+     * @param encodedPassword the stored hash, or null if there is no such user
+     * @return true if the password matches
+     * @throws ServiceOverloadedException if the hashing queue is full
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return execute("matches", () -> {
+                passwordEncoder.matches(rawPassword, dummyHash());
+                return false;
+            });
+        }
+        return execute("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Hash many passwords in parallel, for bulk imports.
+     * <p>
+     * At most one hash per hashing thread is queued at a time, so an import never fills
+     * the queue and interactive requests wait behind only a handful of import hashes.
+     *
+     * @param rawPasswords the passwords
+     * @return the encoded passwords, in the same order
+     * @throws ServiceOverloadedException if the hashing queue is full
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int size = rawPasswords.size();
+        int window = executor.getMaximumPoolSize();
+        List<Future<String>> futures = new ArrayList<>(size);
+        List<String> encoded = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < Math.min(window, size); i++) {
+                futures.add(submit("encode", encodeTask(rawPasswords.get(i))));
+            }
+            for (int i = 0; i < size; i++) {
+                encoded.add(await(futures.get(i)));
+                if (i + window < size) {
+                    futures.add(submit("encode", encodeTask(rawPasswords.get(i + window))));
+                }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return encoded;
+    }
+
+    private Callable<String> encodeTask(CharSequence rawPassword) {
+        return () -> passwordEncoder.encode(rawPassword);
+    }
+
+    private <T> T execute(String operation, Callable<T> task) {
+        return await(submit(operation, task));
+    }
+
+    private <T> Future<T> submit(String operation, Callable<T> task) {
+        Timer queueWait = timer("auth.password.hash.queue-wait", "Time a password hash waited for a thread", operation);
+        Timer duration = timer("auth.password.hash.duration", "Time spent hashing a password", operation);
+        long queuedAt = System.nanoTime();
+
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue full, rejecting {} request", operation);
+            throw new ServiceOverloadedException("Authentication service is busy, please retry later");
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String description, String operation) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
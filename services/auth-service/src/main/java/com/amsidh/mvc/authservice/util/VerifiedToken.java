@@ -0,0 +1,19 @@
+package com.amsidh.mvc.authservice.util;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature has been verified.
+ *
+ * @param subject   the token subject (user email)
+ * @param expiresAt the token expiration
+ * @param tokenId   the jti claim, or null for tokens issued without one
+ *
+ * @author Amsidh Mohammed
+ */
+public record VerifiedToken(String subject, Instant expiresAt, String tokenId) {
+
+    public boolean isExpiredAt(Instant instant) {
+        return !expiresAt.isAfter(instant);
+    }
+}
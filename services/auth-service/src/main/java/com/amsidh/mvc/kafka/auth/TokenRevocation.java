@@ -0,0 +1,15 @@
+package com.amsidh.mvc.kafka.auth;
+
+/**
+ * Event published on the token revocation topic when a token is revoked.
+ *
+ * @param tokenId   the revoked token's {@code jti}
+ * @param subject   the token subject (user email)
+ * @param expiresAt the token's {@code exp} in epoch seconds; the event is irrelevant after it
+ */
+public record TokenRevocation(
+        String tokenId,
+        String subject,
+        long expiresAt
+) {
+}
@@ -0,0 +1,35 @@
+package com.amsidh.mvc.authservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthConfigAdminKeyTest {
+
+    @Test
+    void grantsOnlyMatchingAdminKey() {
+        AuthorizationManager<RequestAuthorizationContext> access = AuthConfig.adminKeyAccess("s3cret-key");
+
+        assertThat(granted(access, "s3cret-key")).isTrue();
+        assertThat(granted(access, "s3cret-kez")).isFalse();
+        assertThat(granted(access, "")).isFalse();
+        assertThat(granted(access, null)).isFalse();
+    }
+
+    @Test
+    void blankAdminKeyDisablesEndpoint() {
+        assertThat(granted(AuthConfig.adminKeyAccess(""), "")).isFalse();
+        assertThat(granted(AuthConfig.adminKeyAccess(null), "anything")).isFalse();
+    }
+
+    private static boolean granted(AuthorizationManager<RequestAuthorizationContext> access, String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/import");
+        if (header != null) {
+            request.addHeader(AuthConfig.ADMIN_KEY_HEADER, header);
+        }
+        return access.authorize(() -> null, new RequestAuthorizationContext(request)).isGranted();
+    }
+}
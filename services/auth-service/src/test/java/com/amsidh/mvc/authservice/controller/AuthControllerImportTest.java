@@ -0,0 +1,101 @@
+package com.amsidh.mvc.authservice.controller;
+
+import com.amsidh.mvc.authservice.config.AuthConfig;
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse;
+import com.amsidh.mvc.authservice.service.AuthService;
+import com.amsidh.mvc.authservice.service.BulkImportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /auth/import is an admin-only async job under the service's context path.
+ */
+@WebMvcTest(AuthController.class)
+@Import(AuthConfig.class)
+@TestPropertySource(properties = {
+        "auth.bulk-import.admin-key=test-admin-key",
+        "auth.password-hashing.target-latency=1ms"
+})
+class AuthControllerImportTest {
+
+    private static final String CONTEXT_PATH = "/api/v1/auth-service";
+    private static final String BODY = """
+            {"users": [{"name": "John Doe", "email": "john.doe@example.com", "password": "password123"}]}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private BulkImportJobService bulkImportJobService;
+
+    @Test
+    void rejectsImportWithoutAdminKey() throws Exception {
+        mockMvc.perform(post(CONTEXT_PATH + "/auth/import").contextPath(CONTEXT_PATH)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(CONTEXT_PATH + "/auth/import").contextPath(CONTEXT_PATH)
+                        .header("X-Admin-Key", "wrong")
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(CONTEXT_PATH + "/auth/import/job-1").contextPath(CONTEXT_PATH))
+                .andExpect(status().isForbidden());
+
+        verify(bulkImportJobService, never()).submit(any());
+    }
+
+    @Test
+    void queuesImportAndAnswersAccepted() throws Exception {
+        when(bulkImportJobService.submit(any())).thenReturn(BulkImportJobResponse.builder()
+                .jobId("job-1")
+                .status(BulkImportJobResponse.Status.QUEUED)
+                .received(1)
+                .submittedAt(Instant.now())
+                .build());
+
+        mockMvc.perform(post(CONTEXT_PATH + "/auth/import").contextPath(CONTEXT_PATH)
+                        .header("X-Admin-Key", "test-admin-key")
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost" + CONTEXT_PATH + "/auth/import/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void reportsJobStatus() throws Exception {
+        when(bulkImportJobService.find("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(CONTEXT_PATH + "/auth/import/unknown").contextPath(CONTEXT_PATH)
+                        .header("X-Admin-Key", "test-admin-key"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void otherEndpointsStayPublic() throws Exception {
+        mockMvc.perform(get(CONTEXT_PATH + "/auth/jwks").contextPath(CONTEXT_PATH))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,104 @@
+package com.amsidh.mvc.authservice.service;
+
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse;
+import com.amsidh.mvc.authservice.dto.BulkImportJobResponse.Status;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationRequest;
+import com.amsidh.mvc.authservice.dto.BulkRegistrationResponse;
+import com.amsidh.mvc.authservice.dto.UserCredentialRequest;
+import com.amsidh.mvc.authservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkImportJobServiceTest {
+
+    private static final BulkRegistrationRequest REQUEST = new BulkRegistrationRequest(List.of(
+            new UserCredentialRequest("John Doe", "john.doe@example.com", "password123")));
+
+    private final AuthService authService = mock(AuthService.class);
+    private BulkImportJobService jobs;
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+    }
+
+    @Test
+    void submitReturnsQueuedJobAndCompletesInBackground() {
+        BulkRegistrationResponse summary = new BulkRegistrationResponse(1, 1, List.of());
+        when(authService.importUsers(any())).thenReturn(summary);
+        jobs = new BulkImportJobService(authService, new SimpleMeterRegistry(), 2, Duration.ofHours(1));
+
+        BulkImportJobResponse queued = jobs.submit(REQUEST);
+
+        assertThat(queued.status()).isEqualTo(Status.QUEUED);
+        assertThat(queued.received()).isEqualTo(1);
+        BulkImportJobResponse finished = awaitFinished(queued.jobId());
+        assertThat(finished.status()).isEqualTo(Status.COMPLETED);
+        assertThat(finished.result()).isEqualTo(summary);
+        assertThat(finished.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void failedImportIsReportedOnTheJob() {
+        when(authService.importUsers(any())).thenThrow(new ServiceOverloadedException("Password hashing saturated"));
+        jobs = new BulkImportJobService(authService, new SimpleMeterRegistry(), 2, Duration.ofHours(1));
+
+        BulkImportJobResponse finished = awaitFinished(jobs.submit(REQUEST).jobId());
+
+        assertThat(finished.status()).isEqualTo(Status.FAILED);
+        assertThat(finished.error()).isEqualTo("Password hashing saturated");
+        assertThat(finished.result()).isNull();
+    }
+
+    @Test
+    void rejectsImportsBeyondQueueCapacity() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authService.importUsers(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return new BulkRegistrationResponse(1, 1, List.of());
+        });
+        jobs = new BulkImportJobService(authService, new SimpleMeterRegistry(), 1, Duration.ofHours(1));
+
+        BulkImportJobResponse first = jobs.submit(REQUEST);
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(jobs.find(first.jobId())).get().extracting(BulkImportJobResponse::status).isEqualTo(Status.RUNNING);
+        BulkImportJobResponse waiting = jobs.submit(REQUEST);
+
+        assertThatThrownBy(() -> jobs.submit(REQUEST)).isInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+        assertThat(awaitFinished(waiting.jobId()).status()).isEqualTo(Status.COMPLETED);
+    }
+
+    @Test
+    void unknownJobIsEmpty() {
+        jobs = new BulkImportJobService(authService, new SimpleMeterRegistry(), 2, Duration.ofHours(1));
+
+        assertThat(jobs.find("unknown")).isEmpty();
+    }
+
+    private BulkImportJobResponse awaitFinished(String jobId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            BulkImportJobResponse job = jobs.find(jobId).orElseThrow();
+            if (job.status() == Status.COMPLETED || job.status() == Status.FAILED) {
+                return job;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Import job did not finish: " + jobId);
+    }
+}
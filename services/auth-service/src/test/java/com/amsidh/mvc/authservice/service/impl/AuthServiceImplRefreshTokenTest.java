@@ -0,0 +1,234 @@
+package com.amsidh.mvc.authservice.service.impl;
+
+import com.amsidh.mvc.authservice.cache.VerifiedTokenCache;
+import com.amsidh.mvc.authservice.config.JwtConfigEnum;
+import com.amsidh.mvc.authservice.dto.AuthResponse;
+import com.amsidh.mvc.authservice.dto.RefreshTokenRequest;
+import com.amsidh.mvc.authservice.entity.RefreshToken;
+import com.amsidh.mvc.authservice.exception.AuthenticationException;
+import com.amsidh.mvc.authservice.kafka.TokenRevocationProducer;
+import com.amsidh.mvc.authservice.repository.RefreshTokenRepository;
+import com.amsidh.mvc.authservice.repository.RevokedTokenRepository;
+import com.amsidh.mvc.authservice.repository.UserCredentialBatchRepository;
+import com.amsidh.mvc.authservice.repository.UserCredentialRepository;
+import com.amsidh.mvc.authservice.util.JwtUtil;
+import com.amsidh.mvc.authservice.util.LoginAttemptTracker;
+import com.amsidh.mvc.authservice.util.PasswordHasher;
+import com.amsidh.mvc.authservice.util.RefreshTokenGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation, reuse detection and logout against an in-memory
+ * refresh token table.
+ */
+class AuthServiceImplRefreshTokenTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final Map<String, RefreshToken> tokensByHash = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationProducer tokenRevocationProducer;
+    private AuthServiceImpl authService;
+
+    @BeforeAll
+    static void initializeKeyRing() {
+        JwtConfigEnum.Config config = new JwtConfigEnum.Config(new MockEnvironment());
+        ReflectionTestUtils.setField(config, "secret", SECRET);
+        ReflectionTestUtils.setField(config, "expiration", 900000L);
+        ReflectionTestUtils.setField(config, "activeKid", "");
+        config.initializeEnum();
+    }
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenRevocationProducer = mock(TokenRevocationProducer.class);
+        stubRefreshTokenTable();
+
+        authService = new AuthServiceImpl(
+                mock(UserCredentialRepository.class),
+                mock(PasswordHasher.class),
+                new JwtUtil(),
+                revokedTokenRepository,
+                tokenRevocationProducer,
+                refreshTokenRepository,
+                new RefreshTokenGenerator(),
+                mock(UserCredentialBatchRepository.class),
+                mock(LoginAttemptTracker.class),
+                mock(VerifiedTokenCache.class));
+        ReflectionTestUtils.setField(authService, "refreshExpiration", Duration.ofDays(30));
+    }
+
+    @Test
+    void refreshRotatesTokenWithinFamily() {
+        AuthResponse login = login("user@example.com");
+
+        AuthResponse refreshed = authService.refreshToken(new RefreshTokenRequest(login.refreshToken()));
+
+        assertThat(refreshed.refreshToken()).isNotEqualTo(login.refreshToken());
+        assertThat(refreshed.token()).isNotEqualTo(login.token());
+        RefreshToken first = stored(login.refreshToken());
+        RefreshToken second = stored(refreshed.refreshToken());
+        assertThat(first.getConsumedAt()).isNotNull();
+        assertThat(second.getConsumedAt()).isNull();
+        assertThat(second.getFamilyId()).isEqualTo(first.getFamilyId());
+        assertThat(second.getSubject()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesWholeFamily() {
+        AuthResponse login = login("user@example.com");
+        AuthResponse refreshed = authService.refreshToken(new RefreshTokenRequest(login.refreshToken()));
+
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(login.refreshToken())))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessageContaining("reuse detected");
+
+        assertThat(stored(login.refreshToken()).isRevoked()).isTrue();
+        assertThat(stored(refreshed.refreshToken()).isRevoked()).isTrue();
+        // The legitimate holder of the newest token is logged out as well
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(refreshed.refreshToken())))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void concurrentlyConsumedTokenCountsAsReuse() {
+        AuthResponse login = login("user@example.com");
+        // Another request consumed the row between the lookup and the conditional update
+        when(refreshTokenRepository.consume(anyLong(), any(Instant.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(login.refreshToken())))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessageContaining("reuse detected");
+        assertThat(stored(login.refreshToken()).isRevoked()).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownAndExpiredRefreshTokens() {
+        AuthResponse login = login("user@example.com");
+        stored(login.refreshToken()).setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest("unknown")))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Invalid refresh token");
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(login.refreshToken())))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Refresh token expired");
+    }
+
+    @Test
+    void logoutRevokesAccessTokenAndRefreshFamily() {
+        AuthResponse login = login("user@example.com");
+        AuthResponse refreshed = authService.refreshToken(new RefreshTokenRequest(login.refreshToken()));
+        AuthResponse otherSession = login("user@example.com");
+
+        String message = authService.revokeToken(refreshed.token(), refreshed.refreshToken());
+
+        assertThat(message).isEqualTo("Token revoked successfully");
+        verify(revokedTokenRepository).save(any());
+        verify(tokenRevocationProducer).sendTokenRevocation(any());
+        assertThat(stored(login.refreshToken()).isRevoked()).isTrue();
+        assertThat(stored(refreshed.refreshToken()).isRevoked()).isTrue();
+        assertThat(stored(otherSession.refreshToken()).isRevoked()).isFalse();
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(refreshed.refreshToken())))
+                .isInstanceOf(AuthenticationException.class);
+    }
+
+    @Test
+    void logoutWithoutRefreshTokenOnlyRevokesAccessToken() {
+        AuthResponse login = login("user@example.com");
+
+        authService.revokeToken(login.token(), null);
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+        assertThat(stored(login.refreshToken()).isRevoked()).isFalse();
+    }
+
+    @Test
+    void logoutRejectsRefreshTokenOfAnotherUser() {
+        AuthResponse victim = login("victim@example.com");
+        AuthResponse caller = login("caller@example.com");
+
+        assertThatThrownBy(() -> authService.revokeToken(caller.token(), victim.refreshToken()))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Invalid refresh token");
+        assertThat(stored(victim.refreshToken()).isRevoked()).isFalse();
+        verify(tokenRevocationProducer, never()).sendTokenRevocation(any());
+    }
+
+    @Test
+    void logoutIgnoresUnknownRefreshToken() {
+        AuthResponse login = login("user@example.com");
+
+        assertThat(authService.revokeToken(login.token(), "already-purged")).isEqualTo("Token revoked successfully");
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    private AuthResponse login(String subject) {
+        // generateToken minus the password check: a new family per login
+        return ReflectionTestUtils.invokeMethod(authService, "issueTokens", subject, UUID.randomUUID().toString());
+    }
+
+    private RefreshToken stored(String refreshToken) {
+        return tokensByHash.get(new RefreshTokenGenerator().hash(refreshToken));
+    }
+
+    private void stubRefreshTokenTable() {
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            tokensByHash.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokensByHash.get(invocation.<String>getArgument(0))));
+        when(refreshTokenRepository.consume(anyLong(), any(Instant.class))).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            for (RefreshToken token : tokensByHash.values()) {
+                if (token.getId().equals(id) && token.getConsumedAt() == null) {
+                    token.setConsumedAt(invocation.getArgument(1));
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        when(refreshTokenRepository.revokeFamily(anyString())).thenAnswer(invocation -> {
+            String familyId = invocation.getArgument(0);
+            int revoked = 0;
+            for (RefreshToken token : tokensByHash.values()) {
+                if (token.getFamilyId().equals(familyId)) {
+                    token.setRevoked(true);
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.amsidh.mvc.authservice.util;
+
+import com.amsidh.mvc.authservice.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptTrackerTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void backsOffOnlyOnceFailuresExceedThreshold() {
+        LoginAttemptTracker tracker = tracker(true, 2, 100);
+
+        fail(tracker, EMAIL, IP);
+        fail(tracker, EMAIL, IP);
+        // Exactly at the threshold: not more failures than allowed yet
+        fail(tracker, EMAIL, IP);
+
+        assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP))
+                .isInstanceOfSatisfying(TooManyLoginAttemptsException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void emailIsNormalizedForThrottling() {
+        LoginAttemptTracker tracker = tracker(true, 0, 100);
+
+        fail(tracker, " User@Example.com ", IP);
+
+        assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, "10.0.0.2"))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+    }
+
+    @Test
+    void pendingAttemptsCountAsFailures() {
+        LoginAttemptTracker tracker = tracker(true, 3, 100);
+
+        List<LoginAttemptTracker.Attempt> inFlight = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            inFlight.add(tracker.checkAllowed(EMAIL, IP));
+        }
+
+        assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP)).isInstanceOf(TooManyLoginAttemptsException.class);
+        inFlight.forEach(LoginAttemptTracker.Attempt::close);
+        // Released without a verdict: nothing was counted
+        assertThatCode(() -> tracker.checkAllowed(EMAIL, IP).close()).doesNotThrowAnyException();
+    }
+
+    @Test
+    void concurrentAttemptsCannotOvershootThreshold() throws InterruptedException {
+        LoginAttemptTracker tracker = tracker(true, 3, 100);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < 64; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        tracker.checkAllowed(EMAIL, IP);
+                        admitted.incrementAndGet();
+                    } catch (TooManyLoginAttemptsException e) {
+                        // Throttled
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // threshold + 1 attempts fit before the back-off; none of them has been resolved yet
+        assertThat(admitted.get()).isEqualTo(4);
+    }
+
+    @Test
+    void successClearsEmailButNotIp() {
+        LoginAttemptTracker tracker = tracker(true, 1, 2);
+
+        fail(tracker, EMAIL, IP);
+        try (LoginAttemptTracker.Attempt attempt = tracker.checkAllowed(EMAIL, IP)) {
+            attempt.succeeded();
+        }
+
+        // Without the reset the email would be backing off after the first of these
+        fail(tracker, EMAIL, "10.0.0.2");
+        fail(tracker, EMAIL, "10.0.0.3");
+        assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, "10.0.0.4"))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+
+        // The IP kept its failure across the success: two more take it past its threshold
+        fail(tracker, "third@example.com", IP);
+        fail(tracker, "fourth@example.com", IP);
+        assertThatThrownBy(() -> tracker.checkAllowed("fifth@example.com", IP))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+    }
+
+    @Test
+    void rejectionByIpReleasesEmailReservation() {
+        LoginAttemptTracker tracker = tracker(true, 0, 0);
+        fail(tracker, "other@example.com", IP);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP)).isInstanceOf(TooManyLoginAttemptsException.class);
+        }
+
+        // Had the email kept a reservation per rejected attempt, it would be backing off now
+        assertThatCode(() -> tracker.checkAllowed(EMAIL, "10.0.0.2").close()).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.login.attempts").tag("limit", "ip").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void successfulLoginsLeaveNothingTracked() {
+        LoginAttemptTracker tracker = tracker(true, 5, 20);
+
+        for (int i = 0; i < 10; i++) {
+            try (LoginAttemptTracker.Attempt attempt = tracker.checkAllowed("user" + i + "@example.com", "10.0.0." + i)) {
+                attempt.succeeded();
+            }
+        }
+
+        assertThat(meterRegistry.get("auth.login.tracked").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledTrackerNeverThrottles() {
+        LoginAttemptTracker tracker = tracker(false, 0, 0);
+
+        for (int i = 0; i < 10; i++) {
+            fail(tracker, EMAIL, IP);
+        }
+
+        assertThatCode(() -> tracker.checkAllowed(EMAIL, IP).close()).doesNotThrowAnyException();
+    }
+
+    private static void fail(LoginAttemptTracker tracker, String email, String ip) {
+        try (LoginAttemptTracker.Attempt attempt = tracker.checkAllowed(email, ip)) {
+            attempt.failed();
+        }
+    }
+
+    private LoginAttemptTracker tracker(boolean enabled, int emailThreshold, int ipThreshold) {
+        return new LoginAttemptTracker(meterRegistry, enabled, Duration.ofMinutes(15), emailThreshold, ipThreshold,
+                Duration.ofSeconds(1), Duration.ofMinutes(15), 1000, Duration.ofMinutes(30));
+    }
+}
@@ -2,6 +2,7 @@ package com.amsidh.mvc.gatewayservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main class for the Gateway Service.
@@ -11,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * like logging and security.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class GatewayServiceApplication {
 	/**
 	 * Entry point for the Gateway Service application.
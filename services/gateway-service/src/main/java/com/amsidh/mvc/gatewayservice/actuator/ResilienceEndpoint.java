@@ -0,0 +1,105 @@
+package com.amsidh.mvc.gatewayservice.actuator;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint ({@code /actuator/resilience}) with the live failure-isolation state
+ * of each gateway route: circuit breaker state and rates, and bulkhead saturation.
+ * <p>
+ * Complements {@code /actuator/gateway/routes}, which lists the {@code Bulkhead} and
+ * {@code CircuitBreaker} filters configured on each route but not their runtime state.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+@Endpoint(id = "resilience")
+public class ResilienceEndpoint {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ResilienceEndpoint(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    /**
+     * State of every route that has a circuit breaker or bulkhead.
+     *
+     * @return route id to its resilience state, sorted by route id
+     */
+    @ReadOperation
+    public Map<String, RouteResilienceState> routes() {
+        Map<String, RouteResilienceState> routes = new TreeMap<>();
+        circuitBreakerRegistry.getAllCircuitBreakers()
+                .forEach(breaker -> routes.put(breaker.getName(), state(breaker.getName())));
+        bulkheadRegistry.getAllBulkheads()
+                .forEach(bulkhead -> routes.put(bulkhead.getName(), state(bulkhead.getName())));
+        return routes;
+    }
+
+    /**
+     * State of a single route.
+     *
+     * @param routeId the route id
+     * @return the route's resilience state
+     */
+    @ReadOperation
+    public RouteResilienceState route(@Selector String routeId) {
+        return state(routeId);
+    }
+
+    private RouteResilienceState state(String routeId) {
+        CircuitBreakerState breakerState = circuitBreakerRegistry.find(routeId)
+                .map(ResilienceEndpoint::breakerState)
+                .orElse(null);
+        BulkheadState bulkheadState = bulkheadRegistry.find(routeId)
+                .map(ResilienceEndpoint::bulkheadState)
+                .orElse(null);
+        return new RouteResilienceState(breakerState, bulkheadState);
+    }
+
+    private static CircuitBreakerState breakerState(CircuitBreaker breaker) {
+        CircuitBreaker.Metrics metrics = breaker.getMetrics();
+        return new CircuitBreakerState(breaker.getState().name(),
+                metrics.getFailureRate(),
+                metrics.getSlowCallRate(),
+                metrics.getNumberOfBufferedCalls(),
+                metrics.getNumberOfNotPermittedCalls());
+    }
+
+    private static BulkheadState bulkheadState(Bulkhead bulkhead) {
+        int max = bulkhead.getMetrics().getMaxAllowedConcurrentCalls();
+        int available = bulkhead.getMetrics().getAvailableConcurrentCalls();
+        return new BulkheadState(max, available, max == 0 ? 0.0 : (double) (max - available) / max);
+    }
+
+    /**
+     * Resilience state of one route; either part is {@code null} when not configured.
+     */
+    public record RouteResilienceState(CircuitBreakerState circuitBreaker, BulkheadState bulkhead) {
+    }
+
+    /**
+     * Breaker state; rates are {@code -1} until the minimum number of calls was recorded.
+     */
+    public record CircuitBreakerState(String state, float failureRate, float slowCallRate,
+                                      int bufferedCalls, long notPermittedCalls) {
+    }
+
+    /**
+     * Bulkhead capacity and the share of it currently in use.
+     */
+    public record BulkheadState(int maxConcurrentCalls, int availableConcurrentCalls, double saturation) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.amsidh.mvc.gatewayservice.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Order detail page assembled by the gateway from order, customer and product data.
+ * <p>
+ * The order itself is required. Customer, lines and products are optional: when one
+ * of them fails or times out it is {@code null}, {@code partial} is true and the
+ * failure is listed in {@code errors}.
+ *
+ * @param order    the order as returned by order-service
+ * @param customer the order's customer, or {@code null}
+ * @param lines    order lines, each with its {@code product} (or {@code null}), or {@code null}
+ * @param partial  true if any optional part is missing
+ * @param errors   the parts that could not be loaded
+ * @author Amsidh Mohammed
+ */
+public record OrderView(JsonNode order,
+                        JsonNode customer,
+                        List<JsonNode> lines,
+                        boolean partial,
+                        List<PartError> errors) {
+
+    /**
+     * An optional part that could not be loaded.
+     *
+     * @param part  part name, e.g. {@code customer}, {@code lines} or {@code product:42}
+     * @param error short reason, e.g. {@code timeout} or {@code HTTP 503}
+     */
+    public record PartError(String part, String error) {
+    }
+}
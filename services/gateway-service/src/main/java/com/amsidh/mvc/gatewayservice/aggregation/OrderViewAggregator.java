@@ -0,0 +1,200 @@
+package com.amsidh.mvc.gatewayservice.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds an {@link OrderView} with parallel calls over the load-balanced {@link WebClient}.
+ * <p>
+ * Call graph:
+ * - order and order lines are fetched in parallel
+ * - the customer is fetched as soon as the order (and so its customer id) arrives
+ * - products are fetched in parallel, once per distinct product id, as soon as the lines arrive
+ * <p>
+ * Every part has its own timeout. A failure of the order fails the view and cancels the
+ * other calls; failures of optional parts are reported in {@link OrderView#errors()}.
+ * <p>
+ * Metrics: {@code gateway.aggregation.part-errors} tagged by view and part.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class OrderViewAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderViewAggregator.class);
+
+    private static final String ORDER_SERVICE = "http://ORDER-SERVICE/api/v1/order-service";
+    private static final String CUSTOMER_SERVICE = "http://CUSTOMER-SERVICE/api/v1/customer-service";
+    private static final String PRODUCT_SERVICE = "http://PRODUCT-SERVICE/api/v1/product-service";
+
+    private final WebClient webClient;
+    private final Meter.MeterProvider<Counter> partErrorCounter;
+
+    public OrderViewAggregator(@LoadBalanced WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.partErrorCounter = Counter.builder("gateway.aggregation.part-errors")
+                .description("Parts of aggregated views that could not be loaded")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Assemble the view for one order.
+     *
+     * @param orderId  the order id
+     * @param headers  headers to forward downstream (user, authorization, tracing)
+     * @param settings per-part timeouts and product fan-out
+     * @return the view; errors if the order itself cannot be loaded
+     */
+    public Mono<OrderView> aggregate(int orderId, HttpHeaders headers, Settings settings) {
+        Mono<JsonNode> order = get(ORDER_SERVICE + "/orders/{id}", orderId, headers, settings.orderTimeout())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty order response")))
+                .cache();
+        Mono<Part> lines = optional("lines",
+                get(ORDER_SERVICE + "/order-lines/order/{id}", orderId, headers, settings.linesTimeout()))
+                .cache();
+
+        Mono<Part> customer = order.flatMap(orderNode -> {
+            String customerId = orderNode.path("customerId").asText(null);
+            if (customerId == null || customerId.isBlank()) {
+                return Mono.just(Part.failed("customer", "missing customerId"));
+            }
+            return optional("customer",
+                    get(CUSTOMER_SERVICE + "/customers/{id}", customerId, headers, settings.customerTimeout()));
+        });
+
+        Mono<Map<Integer, Part>> products = lines.flatMap(linesPart -> {
+            if (linesPart.value() == null) {
+                return Mono.just(Map.of());
+            }
+            return Flux.fromIterable(productIds(linesPart.value()))
+                    .flatMap(productId -> optional("product:" + productId,
+                                    get(PRODUCT_SERVICE + "/products/{id}", productId, headers, settings.productTimeout()))
+                                    .map(part -> Map.entry(productId, part)),
+                            settings.productConcurrency())
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        });
+
+        return Mono.zip(order, customer, lines, products)
+                .map(parts -> assemble(parts.getT1(), parts.getT2(), parts.getT3(), parts.getT4()));
+    }
+
+    private OrderView assemble(JsonNode order, Part customer, Part lines, Map<Integer, Part> products) {
+        List<OrderView.PartError> errors = new ArrayList<>();
+        addError(errors, customer);
+        addError(errors, lines);
+
+        List<JsonNode> viewLines = null;
+        if (lines.value() != null) {
+            viewLines = new ArrayList<>(lines.value().size());
+            for (JsonNode line : lines.value()) {
+                if (!(line instanceof ObjectNode objectLine)) {
+                    viewLines.add(line);
+                    continue;
+                }
+                ObjectNode viewLine = objectLine.deepCopy();
+                Part product = line.hasNonNull("productId") ? products.get(line.get("productId").asInt()) : null;
+                viewLine.set("product", product != null ? product.value() : null);
+                viewLines.add(viewLine);
+            }
+        }
+        products.values().forEach(product -> addError(errors, product));
+
+        return new OrderView(order, customer.value(), viewLines, !errors.isEmpty(), List.copyOf(errors));
+    }
+
+    private static void addError(List<OrderView.PartError> errors, Part part) {
+        if (part.error() != null) {
+            errors.add(new OrderView.PartError(part.name(), part.error()));
+        }
+    }
+
+    private static Set<Integer> productIds(JsonNode lines) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (JsonNode line : lines) {
+            if (line.hasNonNull("productId")) {
+                ids.add(line.get("productId").asInt());
+            }
+        }
+        return ids;
+    }
+
+    private Mono<JsonNode> get(String uriTemplate, Object id, HttpHeaders headers, Duration timeout) {
+        return webClient.get()
+                .uri(uriTemplate, id)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout);
+    }
+
+    private Mono<Part> optional(String name, Mono<JsonNode> call) {
+        return call.map(value -> Part.loaded(name, value))
+                .defaultIfEmpty(Part.failed(name, "empty response"))
+                .onErrorResume(error -> {
+                    String reason = describe(error);
+                    partErrorCounter.withTags("view", "order", "part", name.startsWith("product:") ? "product" : name)
+                            .increment();
+                    log.warn("Order view part unavailable - Part: {} | Reason: {}", name, reason);
+                    return Mono.just(Part.failed(name, reason));
+                });
+    }
+
+    /**
+     * Short, client-safe description of a part failure.
+     */
+    public static String describe(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException responseException) {
+            return "HTTP " + responseException.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+
+    /**
+     * Outcome of one optional part; exactly one of {@code value} and {@code error} is set.
+     */
+    private record Part(String name, JsonNode value, String error) {
+
+        static Part loaded(String name, JsonNode value) {
+            return new Part(name, value, null);
+        }
+
+        static Part failed(String name, String error) {
+            return new Part(name, null, error);
+        }
+    }
+
+    /**
+     * Per-part timeouts and the maximum number of concurrent product lookups.
+     */
+    public record Settings(Duration orderTimeout,
+                           Duration linesTimeout,
+                           Duration customerTimeout,
+                           Duration productTimeout,
+                           int productConcurrency) {
+    }
+}
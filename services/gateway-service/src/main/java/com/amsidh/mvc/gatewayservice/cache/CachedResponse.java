@@ -0,0 +1,64 @@
+package com.amsidh.mvc.gatewayservice.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * A downstream response held by the gateway response cache.
+ * <p>
+ * The body is kept as the exact bytes that were written to the client, so a
+ * cache hit wraps them in a {@code DataBuffer} and writes them without any
+ * re-serialisation.
+ *
+ * @param status        HTTP status code
+ * @param headers       read-only response headers (hop-by-hop headers removed)
+ * @param body          response body bytes
+ * @param varyHeaders   request header names from the response's {@code Vary} header
+ * @param varyValues    values of {@code varyHeaders} on the request that produced this entry
+ * @param storedAt      epoch millis when the response was stored
+ * @param freshUntil    epoch millis until which the entry is served as fresh
+ * @param staleUntil    epoch millis until which the entry may be served stale while revalidating
+ * @author Amsidh Mohammed
+ */
+public record CachedResponse(int status,
+                             HttpHeaders headers,
+                             byte[] body,
+                             List<String> varyHeaders,
+                             List<String> varyValues,
+                             long storedAt,
+                             long freshUntil,
+                             long staleUntil) {
+
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    public boolean isUsable(long now) {
+        return now < staleUntil;
+    }
+
+    /**
+     * Check whether this entry was produced for a request with the same values
+     * for every header listed in {@code Vary}.
+     *
+     * @param requestHeaders headers of the current request
+     * @return true if the entry can be served for this request
+     */
+    public boolean matchesVary(HttpHeaders requestHeaders) {
+        for (int i = 0; i < varyHeaders.size(); i++) {
+            String current = String.join(",", requestHeaders.getOrEmpty(varyHeaders.get(i)));
+            if (!current.equals(varyValues.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Approximate memory footprint used to weigh entries in the cache.
+     */
+    public int weight() {
+        return body.length + 256 + headers.size() * 64;
+    }
+}
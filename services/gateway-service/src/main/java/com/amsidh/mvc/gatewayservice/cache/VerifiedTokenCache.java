@@ -0,0 +1,115 @@
+package com.amsidh.mvc.gatewayservice.cache;
+
+import com.amsidh.mvc.gatewayservice.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified JWT tokens.
+ * <p>
+ * A client usually sends many requests with the same bearer token. Instead of
+ * re-checking the HMAC signature and re-parsing the claims on every request,
+ * the gateway verifies a token once and keeps the result here.
+ * <p>
+ * Cache Behaviour:
+ * - Keyed by the SHA-256 digest of the token, the raw token is never stored
+ * - Each entry expires exactly at the token's {@code exp} claim
+ * - Size bounded with Caffeine's frequency-based eviction
+ * - Failed verifications are never cached
+ * <p>
+ * Hit, miss and eviction counts are published as {@code cache.*} meters
+ * tagged {@code cache=gateway.jwt.verified-tokens}.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String CACHE_NAME = "gateway.jwt.verified-tokens";
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${gateway.jwt.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Verified token cache initialized with max size: {}", maxSize);
+    }
+
+    /**
+     * Return the cached verification result for the token, verifying it with
+     * the given function on a miss.
+     *
+     * @param token    the raw JWT token
+     * @param verifier function performing the full verification on a cache miss
+     * @return the verified token
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        String key = digest(token);
+        VerifiedToken verified = cache.get(key, k -> verifier.apply(token));
+        if (verified.isExpiredAt(Instant.now())) {
+            // Entry may outlive exp by the expiry scheduler's granularity; re-verify
+            cache.invalidate(key);
+            return verifier.apply(token);
+        }
+        return verified;
+    }
+
+    /**
+     * Remove every cached verification result.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expires each entry at its token's own expiration time.
+     */
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            return remaining.isNegative() ? 0L : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Access log settings for {@code LoggingFilter}, bound from {@code gateway.access-log.*}.
+ * <p>
+ * Every request is timed, but only a sample of successful requests gets a log line.
+ * Server errors and slow requests are always logged.
+ *
+ * @param sampleRate    fraction (0.0 - 1.0) of successful requests that are logged
+ * @param slowThreshold requests slower than this are always logged at WARN
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.access-log")
+public record AccessLogProperties(Double sampleRate, Duration slowThreshold) {
+
+    public AccessLogProperties {
+        if (sampleRate == null || sampleRate < 0.0 || sampleRate > 1.0) {
+            sampleRate = 0.01;
+        }
+        if (slowThreshold == null) {
+            slowThreshold = Duration.ofSeconds(1);
+        }
+    }
+}
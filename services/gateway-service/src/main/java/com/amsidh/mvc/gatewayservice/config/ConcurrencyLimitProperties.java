@@ -0,0 +1,63 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import com.amsidh.mvc.gatewayservice.limiter.RequestPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limiting settings, bound from {@code gateway.concurrency-limit.*}.
+ * <p>
+ * Every route gets its own limiter starting at {@code initialLimit}; {@code routes}
+ * overrides the limit bounds for individual route ids. {@code priorities} maps requests
+ * to a {@link RequestPriority} by method and path prefix; the first matching rule wins
+ * and unmatched requests are {@code NORMAL}.
+ *
+ * @param enabled      whether the limiter is active
+ * @param initialLimit starting in-flight limit per route
+ * @param minLimit     the limit never drops below this
+ * @param maxLimit     the limit never grows above this
+ * @param tolerance    latency above {@code tolerance x} the long-term average counts as overload
+ * @param backoffRatio multiplicative decrease applied on overload
+ * @param retryAfter   value of the {@code Retry-After} header on rejected requests
+ * @param routes       per-route limit overrides keyed by route id
+ * @param priorities   priority rules, evaluated in order
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public record ConcurrencyLimitProperties(Boolean enabled,
+                                         Integer initialLimit,
+                                         Integer minLimit,
+                                         Integer maxLimit,
+                                         Double tolerance,
+                                         Double backoffRatio,
+                                         Duration retryAfter,
+                                         Map<String, RouteLimit> routes,
+                                         List<PriorityRule> priorities) {
+
+    public ConcurrencyLimitProperties {
+        enabled = enabled == null || enabled;
+        initialLimit = initialLimit == null ? 20 : initialLimit;
+        minLimit = minLimit == null ? 5 : minLimit;
+        maxLimit = maxLimit == null ? 200 : maxLimit;
+        tolerance = tolerance == null ? 2.0 : tolerance;
+        backoffRatio = backoffRatio == null ? 0.9 : backoffRatio;
+        retryAfter = retryAfter == null ? Duration.ofSeconds(1) : retryAfter;
+        routes = routes == null ? Map.of() : routes;
+        priorities = priorities == null ? List.of() : priorities;
+    }
+
+    /**
+     * Limit bounds for one route; unset values fall back to the global ones.
+     */
+    public record RouteLimit(Integer initialLimit, Integer minLimit, Integer maxLimit) {
+    }
+
+    /**
+     * Assigns a priority to requests matching an optional method and a path prefix.
+     */
+    public record PriorityRule(String method, String path, RequestPriority priority) {
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.reactive.function.client.WebClient;
  * 
  * Load Balancing:
  * - @LoadBalanced enables client-side load balancing via Eureka
+ * - Instances are picked by load, not round-robin (see LoadBalancerConfig)
  * - Allows using service names instead of host:port in URLs
  * - Example: http://auth-service/... instead of http://localhost:8099/...
  * 
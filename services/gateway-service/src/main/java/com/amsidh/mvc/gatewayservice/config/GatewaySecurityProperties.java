@@ -0,0 +1,44 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Security settings for the gateway, bound from {@code gateway.security.*}.
+ * <p>
+ * Open endpoints are path prefixes matched on whole segments: {@code /actuator}
+ * opens {@code /actuator} and {@code /actuator/health} but not {@code /actuator-x}.
+ * A {@code *} segment matches any single segment, e.g. {@code /api/v1/*}{@code /actuator}.
+ *
+ * @param openEndpoints     path prefixes that don't require authentication
+ * @param decisionCacheSize number of recently seen paths whose decision is cached
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.security")
+public record GatewaySecurityProperties(List<String> openEndpoints, Integer decisionCacheSize) {
+
+    private static final List<String> DEFAULT_OPEN_ENDPOINTS = List.of(
+            "/api/v1/auth-service/auth/register",
+            "/api/v1/auth-service/auth/token",
+            "/api/v1/auth-service/auth/validate",
+            "/actuator",
+            "/auth/login",
+            "/auth/validate",
+            "/auth/forgot-password",
+            "/auth/reset-password",
+            "/eureka",
+            "/swagger-ui",
+            "/v3/api-docs",
+            "/webjars",
+            "/swagger-resources");
+
+    public GatewaySecurityProperties {
+        if (openEndpoints == null || openEndpoints.isEmpty()) {
+            openEndpoints = DEFAULT_OPEN_ENDPOINTS;
+        }
+        if (decisionCacheSize == null || decisionCacheSize <= 0) {
+            decisionCacheSize = 4096;
+        }
+    }
+}
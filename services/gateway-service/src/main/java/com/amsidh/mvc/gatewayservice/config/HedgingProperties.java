@@ -0,0 +1,23 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Global settings for the {@code Hedge} route filter, bound from {@code gateway.hedging.*}.
+ * <p>
+ * The hedge delay (percentile, bounds) is configured per route on the filter itself.
+ *
+ * @param budgetPercent maximum extra load from hedges, as a percentage of hedgeable requests
+ * @param budgetBurst   hedges that may be sent back to back when the budget is full
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.hedging")
+public record HedgingProperties(Double budgetPercent, Integer budgetBurst) {
+
+    public HedgingProperties {
+        if (budgetPercent == null || budgetPercent < 0.0 || budgetPercent > 100.0) {
+            budgetPercent = 5.0;
+        }
+        budgetBurst = budgetBurst == null || budgetBurst < 1 ? 10 : budgetBurst;
+    }
+}
@@ -1,14 +1,22 @@
 package com.amsidh.mvc.gatewayservice.config;
 
+import com.amsidh.mvc.gatewayservice.util.JwtKeyRing;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public enum JwtConfigEnum {
     INSTANCE;
 
     private volatile String jwtSecret;
     private volatile Long jwtExpiration;
+    private volatile JwtKeyRing keyRing;
     private volatile boolean initialized = false;
 
     @Component
@@ -20,6 +28,12 @@ public enum JwtConfigEnum {
         @Value("${jwt.expiration:86400000}")
         private Long expiration;
 
+        private final Environment environment;
+
+        public Config(Environment environment) {
+            this.environment = environment;
+        }
+
         @PostConstruct
         public void initializeEnum() {
             if (secret == null || secret.trim().isEmpty()) {
@@ -30,8 +44,20 @@ public enum JwtConfigEnum {
                 throw new IllegalStateException("jwt.expiration must be positive");
             }
 
+            // jwt.keys.<kid>.secret; asymmetric keys come from the JWK Set instead
+            Map<String, String> secrets = new LinkedHashMap<>();
+            Binder.get(environment)
+                    .bind("jwt.keys", Bindable.mapOf(String.class, KeyProperties.class))
+                    .orElse(Map.of())
+                    .forEach((kid, key) -> {
+                        if (key.secret() != null && !key.secret().isBlank()) {
+                            secrets.put(kid, key.secret());
+                        }
+                    });
+
             INSTANCE.jwtSecret = secret;
             INSTANCE.jwtExpiration = expiration;
+            INSTANCE.keyRing = JwtKeyRing.of(secret, secrets);
             INSTANCE.initialized = true;
         }
     }
@@ -46,6 +72,11 @@ public enum JwtConfigEnum {
         return jwtExpiration;
     }
 
+    public JwtKeyRing getKeyRing() {
+        checkInitialized();
+        return keyRing;
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
@@ -55,4 +86,12 @@ public enum JwtConfigEnum {
             throw new IllegalStateException("JwtConfigEnum not initialized");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * One configured key under {@code jwt.keys.<kid>}.
+     *
+     * @param secret HMAC secret
+     */
+    public record KeyProperties(String secret) {
+    }
+}
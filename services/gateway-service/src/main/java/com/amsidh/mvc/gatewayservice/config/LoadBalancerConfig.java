@@ -0,0 +1,29 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import com.amsidh.mvc.gatewayservice.loadbalancer.LoadAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Load-aware client-side load balancing for all services.
+ * <p>
+ * Applies to {@code lb://} routes and to the {@code @LoadBalanced WebClient.Builder}
+ * from {@link GatewayConfig}. Instances are chosen with power-of-two-choices on
+ * in-flight requests and latency, optionally scaled by the load factor each service
+ * publishes in its Eureka instance metadata, e.g.:
+ * <pre>
+ * eureka:
+ *   instance:
+ *     metadata-map:
+ *       load-factor: 1.5
+ * </pre>
+ * Disable with {@code gateway.load-balancer.enabled=false} to fall back to round-robin.
+ *
+ * @author Amsidh Mohammed
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.load-balancer", name = "enabled", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LoadAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
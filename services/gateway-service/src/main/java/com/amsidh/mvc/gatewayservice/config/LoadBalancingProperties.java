@@ -0,0 +1,35 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Load-aware balancing settings for {@code lb://} routes and the load-balanced
+ * {@code WebClient}, bound from {@code gateway.load-balancer.*}.
+ *
+ * @param enabled             replace round-robin with power-of-two-choices on instance load
+ * @param decayTime           how quickly the latency average forgets old samples
+ * @param failurePenalty      latency recorded for a failed request or a 5xx response
+ * @param staleRequestTimeout in-flight requests older than this are no longer counted
+ *                            (covers requests that were cancelled and never completed)
+ * @param loadHintKey         Eureka instance metadata key with a load factor published by
+ *                            the service ({@code 1.0} = normal, {@code 2.0} = twice as loaded);
+ *                            blank disables load hints
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public record LoadBalancingProperties(Boolean enabled,
+                                      Duration decayTime,
+                                      Duration failurePenalty,
+                                      Duration staleRequestTimeout,
+                                      String loadHintKey) {
+
+    public LoadBalancingProperties {
+        enabled = enabled == null || enabled;
+        decayTime = decayTime == null ? Duration.ofSeconds(10) : decayTime;
+        failurePenalty = failurePenalty == null ? Duration.ofSeconds(1) : failurePenalty;
+        staleRequestTimeout = staleRequestTimeout == null ? Duration.ofSeconds(60) : staleRequestTimeout;
+        loadHintKey = loadHintKey == null ? "load-factor" : loadHintKey.trim();
+    }
+}
@@ -0,0 +1,66 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Request rate limiting settings, bound from {@code gateway.rate-limit.*}.
+ * <p>
+ * Every (route, caller) pair gets its own token bucket. Callers are identified by the
+ * authenticated user on secured paths and by client IP on open ones. {@code routes}
+ * overrides the rate for individual route ids; a route override with
+ * {@code replenish-rate: 0} turns limiting off for that route.
+ *
+ * @param enabled        whether the limiter is active
+ * @param replenishRate  default requests per second per caller
+ * @param burstCapacity  default bucket size, i.e. requests a caller may send back to back
+ * @param maxBuckets     upper bound on buckets kept in memory
+ * @param idleTimeout    buckets not used for this long are evicted (they would be full anyway)
+ * @param trustedProxies number of trusted proxies in front of the gateway; when positive the
+ *                       client IP is taken from {@code X-Forwarded-For} at that depth
+ * @param routes         per-route overrides keyed by route id
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(Boolean enabled,
+                                  Double replenishRate,
+                                  Integer burstCapacity,
+                                  Long maxBuckets,
+                                  Duration idleTimeout,
+                                  Integer trustedProxies,
+                                  Map<String, RouteLimit> routes) {
+
+    public RateLimitProperties {
+        enabled = enabled == null || enabled;
+        replenishRate = replenishRate == null ? 50.0 : replenishRate;
+        burstCapacity = burstCapacity == null ? 100 : burstCapacity;
+        maxBuckets = maxBuckets == null ? 100_000L : maxBuckets;
+        idleTimeout = idleTimeout == null ? Duration.ofMinutes(10) : idleTimeout;
+        trustedProxies = trustedProxies == null ? 0 : trustedProxies;
+        routes = routes == null ? Map.of() : routes;
+    }
+
+    /**
+     * @return requests per second per caller on the route, 0 if the route is not limited
+     */
+    public double replenishRateFor(String routeId) {
+        RouteLimit override = routes.get(routeId);
+        return override != null && override.replenishRate() != null ? override.replenishRate() : replenishRate;
+    }
+
+    /**
+     * @return bucket size per caller on the route
+     */
+    public int burstCapacityFor(String routeId) {
+        RouteLimit override = routes.get(routeId);
+        return override != null && override.burstCapacity() != null ? override.burstCapacity() : burstCapacity;
+    }
+
+    /**
+     * Rate for one route; unset values fall back to the global ones.
+     */
+    public record RouteLimit(Double replenishRate, Integer burstCapacity) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Failure isolation for gateway routes.
+ * <p>
+ * Provides:
+ * - Circuit breaker and time limiter settings for the {@code CircuitBreaker} route filter;
+ *   breakers are named after the route id, so each route is isolated on its own
+ * - A registry of semaphore bulkheads used by the {@code Bulkhead} route filter
+ * <p>
+ * The time limiter bounds how long the gateway waits on a downstream instance, so a
+ * dead or hung instance costs at most {@code timeout} before the fallback answers.
+ *
+ * @author Amsidh Mohammed
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Applies {@link ResilienceProperties} to every route circuit breaker.
+     *
+     * @param properties resilience settings
+     * @return customizer for the reactive Resilience4J circuit breaker factory
+     */
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> routeCircuitBreakerCustomizer(
+            ResilienceProperties properties) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.failureRateThreshold())
+                .slowCallRateThreshold(properties.slowCallRateThreshold())
+                .slowCallDurationThreshold(properties.slowCallDurationThreshold())
+                .slidingWindowSize(properties.slidingWindowSize())
+                .minimumNumberOfCalls(properties.minimumNumberOfCalls())
+                .waitDurationInOpenState(properties.waitDurationInOpenState())
+                .build();
+
+        // Breaker ids are route ids, so per-route timeouts resolve from the id
+        return factory -> factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(circuitBreakerConfig)
+                .timeLimiterConfig(timeLimiter(properties.timeoutFor(id)))
+                .build());
+    }
+
+    /**
+     * Semaphore bulkheads that reject immediately when full, so a slow route cannot
+     * hold more than its share of gateway connections.
+     *
+     * @param properties    resilience settings
+     * @param meterRegistry registry for the {@code resilience4j.bulkhead.*} saturation metrics
+     * @return bulkhead registry used by the Bulkhead route filter
+     */
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.maxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    private static TimeLimiterConfig timeLimiter(Duration timeout) {
+        return TimeLimiterConfig.custom()
+                .timeoutDuration(timeout)
+                .cancelRunningFuture(true)
+                .build();
+    }
+}
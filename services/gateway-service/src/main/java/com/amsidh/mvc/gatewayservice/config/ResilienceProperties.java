@@ -0,0 +1,86 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Circuit breaker, time limiter and bulkhead settings for gateway routes,
+ * bound from {@code gateway.resilience.*}.
+ * <p>
+ * Breaker thresholds are shared by all routes; timeout, bulkhead size and
+ * fallback mode can be overridden per route id under {@code routes}.
+ *
+ * @param failureRateThreshold       failure percentage that opens a breaker
+ * @param slowCallRateThreshold      slow call percentage that opens a breaker
+ * @param slowCallDurationThreshold  calls slower than this count as slow
+ * @param slidingWindowSize          number of calls the rates are computed over
+ * @param minimumNumberOfCalls       calls needed before the rates are evaluated
+ * @param waitDurationInOpenState    how long a breaker stays open before probing
+ * @param timeout                    upper bound on waiting for a downstream response
+ * @param maxConcurrentCalls         bulkhead size per route
+ * @param fallback                   fallback mode when a breaker is open or a bulkhead is full
+ * @param routes                     per-route overrides keyed by route id
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.resilience")
+public record ResilienceProperties(Float failureRateThreshold,
+                                   Float slowCallRateThreshold,
+                                   Duration slowCallDurationThreshold,
+                                   Integer slidingWindowSize,
+                                   Integer minimumNumberOfCalls,
+                                   Duration waitDurationInOpenState,
+                                   Duration timeout,
+                                   Integer maxConcurrentCalls,
+                                   FallbackMode fallback,
+                                   Map<String, RouteResilience> routes) {
+
+    public ResilienceProperties {
+        failureRateThreshold = failureRateThreshold == null ? 50f : failureRateThreshold;
+        slowCallRateThreshold = slowCallRateThreshold == null ? 80f : slowCallRateThreshold;
+        slowCallDurationThreshold = slowCallDurationThreshold == null ? Duration.ofSeconds(2) : slowCallDurationThreshold;
+        slidingWindowSize = slidingWindowSize == null ? 20 : slidingWindowSize;
+        minimumNumberOfCalls = minimumNumberOfCalls == null ? 10 : minimumNumberOfCalls;
+        waitDurationInOpenState = waitDurationInOpenState == null ? Duration.ofSeconds(10) : waitDurationInOpenState;
+        timeout = timeout == null ? Duration.ofSeconds(5) : timeout;
+        maxConcurrentCalls = maxConcurrentCalls == null ? 50 : maxConcurrentCalls;
+        fallback = fallback == null ? FallbackMode.JSON : fallback;
+        routes = routes == null ? Map.of() : routes;
+    }
+
+    public Duration timeoutFor(String routeId) {
+        RouteResilience route = routes.get(routeId);
+        return route != null && route.timeout() != null ? route.timeout() : timeout;
+    }
+
+    public int maxConcurrentCallsFor(String routeId) {
+        RouteResilience route = routes.get(routeId);
+        return route != null && route.maxConcurrentCalls() != null ? route.maxConcurrentCalls() : maxConcurrentCalls;
+    }
+
+    public FallbackMode fallbackFor(String routeId) {
+        RouteResilience route = routes.get(routeId);
+        return route != null && route.fallback() != null ? route.fallback() : fallback;
+    }
+
+    /**
+     * Per-route overrides; unset values fall back to the global ones.
+     */
+    public record RouteResilience(Duration timeout, Integer maxConcurrentCalls, FallbackMode fallback) {
+    }
+
+    /**
+     * What the gateway answers with when a route is isolated.
+     */
+    public enum FallbackMode {
+        /**
+         * Fast {@code 503} with a JSON error body.
+         */
+        JSON,
+        /**
+         * Last cached response for the request if the route has a response cache, otherwise {@code JSON}.
+         */
+        CACHED
+    }
+}
@@ -0,0 +1,36 @@
+package com.amsidh.mvc.gatewayservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Token revocation settings, bound from {@code gateway.revocation.*}.
+ * <p>
+ * Revoked token ids arrive on {@code topic} and are kept in partitions by token
+ * expiry; a partition is dropped as a whole once every token in it has expired.
+ *
+ * @param enabled                  consume revocations and reject revoked tokens
+ * @param topic                    Kafka topic auth-service publishes revocations on
+ * @param partitionDuration        expiry range covered by one partition
+ * @param expectedPerPartition     revocations a partition's Bloom filter is sized for
+ * @param falsePositiveRate        target false positive rate of each Bloom filter; false
+ *                                 positives only cost an exact-set lookup, never a rejection
+ * @author Amsidh Mohammed
+ */
+@ConfigurationProperties(prefix = "gateway.revocation")
+public record RevocationProperties(Boolean enabled, String topic, Duration partitionDuration,
+                                   Integer expectedPerPartition, Double falsePositiveRate) {
+
+    public RevocationProperties {
+        enabled = enabled == null || enabled;
+        topic = topic == null || topic.isBlank() ? "token-revocation-topic" : topic;
+        if (partitionDuration == null || partitionDuration.toSeconds() < 1) {
+            partitionDuration = Duration.ofHours(1);
+        }
+        expectedPerPartition = expectedPerPartition == null || expectedPerPartition < 1 ? 10_000 : expectedPerPartition;
+        if (falsePositiveRate == null || falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            falsePositiveRate = 0.01;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.amsidh.mvc.gatewayservice.controller;
+
+import com.amsidh.mvc.gatewayservice.util.FallbackResponseWriter;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Target of the {@code CircuitBreaker} route filters' {@code fallbackUri}.
+ * <p>
+ * Routes declare {@code fallbackUri: forward:/fallback/<route-id>}; when the breaker is
+ * open or the downstream call fails or times out, the gateway forwards here and the
+ * route's configured fallback is written.
+ *
+ * @author Amsidh Mohammed
+ */
+@RestController
+public class FallbackController {
+
+    private final FallbackResponseWriter fallbackResponseWriter;
+
+    public FallbackController(FallbackResponseWriter fallbackResponseWriter) {
+        this.fallbackResponseWriter = fallbackResponseWriter;
+    }
+
+    /**
+     * Handle a forwarded request for an isolated route, for any HTTP method.
+     *
+     * @param routeId  the route whose breaker triggered the fallback
+     * @param exchange the forwarded exchange
+     * @return completion of the fallback response
+     */
+    @RequestMapping("/fallback/{routeId}")
+    public Mono<Void> fallback(@PathVariable String routeId, ServerWebExchange exchange) {
+        return fallbackResponseWriter.write(exchange, routeId, "circuit-breaker");
+    }
+}
@@ -1,12 +1,16 @@
 package com.amsidh.mvc.gatewayservice.filter;
 
+import com.amsidh.mvc.gatewayservice.cache.VerifiedTokenCache;
 import com.amsidh.mvc.gatewayservice.exception.AuthenticationException;
+import com.amsidh.mvc.gatewayservice.revocation.TokenRevocationList;
 import com.amsidh.mvc.gatewayservice.util.JwtUtil;
+import com.amsidh.mvc.gatewayservice.util.VerifiedToken;
 import com.amsidh.mvc.gatewayservice.validator.RouteValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -26,15 +30,28 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(AuthenticationFilter.class);
 
+    /**
+     * Runs after LoggingFilter but before NettyWriteResponseFilter, so route filters that
+     * decorate the response (e.g. response caching) already see the authenticated user.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 10;
+
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RouteValidator routeValidator;
+    private final TokenRevocationList revocationList;
 
-    public AuthenticationFilter(JwtUtil jwtUtil) {
+    public AuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache,
+                                RouteValidator routeValidator, TokenRevocationList revocationList) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.routeValidator = routeValidator;
+        this.revocationList = revocationList;
     }
 
     @Override
     public int getOrder() {
-        return 1; // Execute after LoggingFilter
+        return ORDER;
     }
 
     @Override
@@ -43,7 +60,7 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         String path = request.getURI().getPath();
         log.debug("Authentication filter processing request: {}", path);
         // Skip authentication for public endpoints
-        final boolean isSecured = RouteValidator.isSecured.test(request);
+        final boolean isSecured = routeValidator.isSecured(request);
         if (isSecured) {
             // Check if the Authorization header exists and starts with "Bearer "
             if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION) ||
@@ -71,19 +88,14 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     private Mono<String> validateTokenWithAuthService(String bearerToken) {
         final String jwtToken = bearerToken.substring(7);
         try {
-            // Extract email from token
-            String email = jwtUtil.extractEmail(jwtToken);
-            log.debug("Extracted email from token: {}", email);
-
-            // Validate token (signature + expiration + subject)
-            final boolean isValidToken = jwtUtil.validateToken(jwtToken, email);
-            if (isValidToken) {
-                log.debug("Token validated successfully for email: {}", email);
-                return Mono.justOrEmpty(email);
-            } else {
-                log.error("Invalid token");
-                return Mono.empty();
+            // Verify signature + expiration + subject once per token, then serve from cache
+            VerifiedToken verifiedToken = verifiedTokenCache.get(jwtToken, jwtUtil::verifyToken);
+            // Checked on every request (not cached), so a revocation applies as soon as it arrives
+            if (revocationList.isRevoked(verifiedToken)) {
+                throw new AuthenticationException("Token has been revoked");
             }
+            log.debug("Token validated successfully for email: {}", verifiedToken.email());
+            return Mono.just(verifiedToken.email());
         } catch (AuthenticationException e) {
             log.error("Token validation failed: {}", e.getMessage());
             throw e;
@@ -0,0 +1,54 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Copy of a response body taken while it streams to the client, abandoned once it grows
+ * beyond the limit. Used by filters that share or store a response without buffering it
+ * in front of the client.
+ *
+ * @author Amsidh Mohammed
+ */
+final class BodyCopy {
+
+    private final long limit;
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    BodyCopy(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Append the readable bytes of the buffer; its read position is left untouched.
+     *
+     * @return false once the copy was abandoned
+     */
+    boolean append(DataBuffer buffer) {
+        if (bytes == null) {
+            return false;
+        }
+        if (bytes.size() + (long) buffer.readableByteCount() > limit) {
+            bytes = null;
+            return false;
+        }
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer chunk = iterator.next();
+                byte[] array = new byte[chunk.remaining()];
+                chunk.get(array);
+                bytes.write(array, 0, array.length);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the complete body, or {@code null} if it exceeded the limit
+     */
+    byte[] toByteArray() {
+        return bytes != null ? bytes.toByteArray() : null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.config.ConcurrencyLimitProperties;
+import com.amsidh.mvc.gatewayservice.limiter.AdaptiveConcurrencyLimiter;
+import com.amsidh.mvc.gatewayservice.limiter.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route adaptive concurrency limiting with priority-aware load shedding.
+ * <p>
+ * Each route gets an {@link AdaptiveConcurrencyLimiter} whose in-flight limit follows
+ * the route's observed latency. Requests above the limit for their {@link RequestPriority}
+ * are rejected immediately with {@code 503} and a {@code Retry-After} header, instead of
+ * queueing in front of the blocking services behind the gateway.
+ * <p>
+ * The filter runs right after {@link NettyWriteResponseFilter}, so cache hits and coalesced
+ * followers never take a slot, and the measured latency is the downstream time to response
+ * headers.
+ * <p>
+ * Metrics:
+ * - {@code gateway.concurrency.limit} - current limit per route
+ * - {@code gateway.concurrency.in-flight} - admitted requests per route
+ * - {@code gateway.concurrency.rejected} - rejections per route and priority
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Meter.MeterProvider<Counter> rejectedCounter;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.rejectedCounter = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed by the adaptive concurrency limiter")
+                .withRegistry(meterRegistry);
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.retryAfter().toSeconds()));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.enabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::createLimiter);
+        RequestPriority priority = classify(exchange.getRequest());
+        if (!limiter.tryAcquire(priority)) {
+            rejectedCounter.withTags("route", route.getId(), "priority", priority.name()).increment();
+            log.debug("Shedding {} request for route: {} - In-flight: {}, Limit: {}",
+                    priority, route.getId(), limiter.getInFlight(), limiter.getLimit());
+            return reject(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(System.nanoTime() - start, isDropped(exchange, signal)));
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String routeId) {
+        ConcurrencyLimitProperties.RouteLimit override = properties.routes().get(routeId);
+        int initial = override != null && override.initialLimit() != null ? override.initialLimit() : properties.initialLimit();
+        int min = override != null && override.minLimit() != null ? override.minLimit() : properties.minLimit();
+        int max = override != null && override.maxLimit() != null ? override.maxLimit() : properties.maxLimit();
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initial, min, max, properties.tolerance(), properties.backoffRatio());
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive in-flight limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the limiter")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        log.info("Concurrency limiter created for route: {} - Initial: {}, Min: {}, Max: {}", routeId, initial, min, max);
+        return limiter;
+    }
+
+    private RequestPriority classify(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        String method = request.getMethod().name();
+        for (ConcurrencyLimitProperties.PriorityRule rule : properties.priorities()) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(method)) && matchesPrefix(path, rule.path())) {
+                return rule.priority();
+            }
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private static boolean matchesPrefix(String path, String prefix) {
+        if (prefix == null) {
+            return true;
+        }
+        String normalized = prefix.endsWith("/**") ? prefix.substring(0, prefix.length() - 3) : prefix;
+        return path.equals(normalized) || path.startsWith(normalized.endsWith("/") ? normalized : normalized + "/");
+    }
+
+    /**
+     * Failures and gateway-side timeouts count as overload for the limiter.
+     */
+    private static boolean isDropped(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+
+        String body = String.format("{\"status\": %d, \"error\": \"%s\"}",
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "Service is overloaded, please retry later");
+
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
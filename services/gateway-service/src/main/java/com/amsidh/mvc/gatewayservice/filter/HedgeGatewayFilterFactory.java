@@ -0,0 +1,463 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.hedging.HedgeBudget;
+import com.amsidh.mvc.gatewayservice.hedging.LatencyPercentile;
+import com.amsidh.mvc.gatewayservice.loadbalancer.InstanceLoad;
+import com.amsidh.mvc.gatewayservice.loadbalancer.InstanceLoadTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.TimeoutException;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hedged {@code GET} requests for {@code lb://} routes.
+ * <p>
+ * Enabled on a route with:
+ * <pre>
+ * filters:
+ *   - name: Hedge
+ *     args:
+ *       percentile: 95
+ *       minDelay: 20ms
+ *       maxDelay: 1s
+ * </pre>
+ * <p>
+ * The request is sent to one instance. If it has not answered after the route's recent
+ * {@code percentile} latency (clamped to {@code minDelay..maxDelay}; {@code maxDelay} until
+ * enough samples exist), a second attempt goes to a different instance. The first response
+ * wins and the other attempt is cancelled. Hedges are limited by the gateway-wide
+ * {@link HedgeBudget}.
+ * <p>
+ * The filter runs at the routing position ({@link #ORDER}, just before the load balancer
+ * filter), so all other route and global filters see the request first and {@code Hedge} may
+ * be declared anywhere in the route's filter list. It takes the place of the load balancer
+ * and routing filters: attempts go over the gateway's HTTP client with the same forwarded
+ * headers and response timeout. The first response to arrive is streamed to the client as it
+ * is read, whatever its size; a request is never sent again once an attempt has answered.
+ * If the primary fails before a hedge was sent, its error is returned as the routing filter
+ * would (for example 503 when no instance is available); a failed primary does not trigger a
+ * hedge, and when both attempts fail the primary's error is returned.
+ * <p>
+ * The learned latency percentile is kept per route in the factory, so it survives route
+ * refreshes (each Eureka heartbeat re-applies route filters).
+ * <p>
+ * Metrics: {@code gateway.hedge.requests} tagged by route and result (not-hedged,
+ * primary-won, hedge-won, budget-exhausted, no-alternate) and
+ * {@code gateway.hedge.delay} per route.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgeGatewayFilterFactory.class);
+
+    /**
+     * Runs in place of the load balancer and routing filters, after all other route and
+     * global filters have prepared the request.
+     */
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private static final int MAX_ALTERNATE_PICKS = 3;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final InstanceLoadTracker loadTracker;
+    private final HedgeBudget budget;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final HttpClientProperties httpClientProperties;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final Meter.MeterProvider<Counter> requestCounter;
+    private final Map<String, RouteHedge> routes = new ConcurrentHashMap<>();
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    @Autowired
+    public HedgeGatewayFilterFactory(LoadBalancerClientFactory loadBalancerClientFactory,
+                                     InstanceLoadTracker loadTracker,
+                                     HedgeBudget budget,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                     HttpClient httpClient,
+                                     HttpClientProperties httpClientProperties,
+                                     MeterRegistry meterRegistry) {
+        this(loadBalancerClientFactory, loadTracker, budget, headersFiltersProvider, httpClientProperties, meterRegistry,
+                // The gateway's own client (pool, connect timeout, TLS); instances are chosen here,
+                // so this client must not be load-balanced itself
+                WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build());
+    }
+
+    HedgeGatewayFilterFactory(LoadBalancerClientFactory loadBalancerClientFactory,
+                              InstanceLoadTracker loadTracker,
+                              HedgeBudget budget,
+                              ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                              HttpClientProperties httpClientProperties,
+                              MeterRegistry meterRegistry,
+                              WebClient webClient) {
+        super(Config.class);
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.loadTracker = loadTracker;
+        this.budget = budget;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.httpClientProperties = httpClientProperties;
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClient;
+        this.requestCounter = Counter.builder("gateway.hedge.requests")
+                .description("Hedgeable requests by route and result")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        RouteHedge routeHedge = routes.computeIfAbsent(routeId, id -> createRouteHedge(id, config));
+        routeHedge.update(config);
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, routeId, routeHedge), ORDER);
+    }
+
+    private RouteHedge createRouteHedge(String routeId, Config config) {
+        RouteHedge routeHedge = new RouteHedge(config);
+        Gauge.builder("gateway.hedge.delay", routeHedge, r -> r.delay().toNanos() / 1_000_000.0)
+                .description("Current hedge delay in milliseconds")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        log.info("Hedging enabled for route: {} - Percentile: p{}, Min Delay: {}, Max Delay: {}",
+                routeId, config.getPercentile(), config.getMinDelay(), config.getMaxDelay());
+        return routeHedge;
+    }
+
+    /**
+     * @return the state of the route, or {@code null} if hedging was never applied to it
+     */
+    RouteHedge routeHedge(String routeId) {
+        return routes.get(routeId);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain,
+                              String routeId, RouteHedge routeHedge) {
+        LatencyPercentile latency = routeHedge.latency();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI lbUri = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || route == null
+                || lbUri == null || !"lb".equals(lbUri.getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        budget.onRequest();
+        String serviceId = lbUri.getHost();
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+        AtomicBoolean decided = new AtomicBoolean();
+        AtomicReference<Throwable> primaryFailure = new AtomicReference<>();
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+        Mono<ServiceInstance> primaryInstance = choose(serviceId, null)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(true, "Unable to find instance for " + serviceId)))
+                .cache();
+
+        Mono<Attempt> primary = primaryInstance.flatMap(instance -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Cancelled primaries are recorded too: their elapsed time is a lower bound on a slow sample
+            return send(instance, lbUri, headers)
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_ERROR) {
+                            latency.record(System.nanoTime() - start);
+                        }
+                    });
+        })).flatMap(entity -> claim(decided, entity, false))
+                .doOnError(error -> {
+                    primaryFailure.set(error);
+                    primaryFailed.tryEmitEmpty();
+                });
+
+        AtomicBoolean hedged = new AtomicBoolean();
+        // A failed primary is answered as is; hedges only race slow responses, they do not retry
+        Mono<Attempt> hedge = Mono.delay(routeHedge.delay())
+                .takeUntilOther(primaryFailed.asMono())
+                .filter(tick -> {
+                    if (budget.tryAcquire()) {
+                        return true;
+                    }
+                    count(routeId, "budget-exhausted");
+                    return false;
+                })
+                .flatMap(tick -> primaryInstance)
+                .flatMap(first -> choose(serviceId, first)
+                        .switchIfEmpty(Mono.fromRunnable(() -> count(routeId, "no-alternate"))))
+                .flatMap(instance -> {
+                    hedged.set(true);
+                    log.debug("Hedging request for route: {} to instance: {}:{}",
+                            routeId, instance.getHost(), instance.getPort());
+                    return send(instance, lbUri, headers);
+                })
+                .flatMap(entity -> claim(decided, entity, true));
+
+        Mono<Attempt> winner = Mono.firstWithValue(primary, hedge)
+                // Without a value from either attempt, answer what the routing filter would have
+                .onErrorMap(error -> primaryFailure.get() != null ? primaryFailure.get() : error);
+        Duration responseTimeout = getResponseTimeout(route);
+        if (responseTimeout != null) {
+            winner = winner
+                    .timeout(responseTimeout, Mono.error(() ->
+                            new TimeoutException("Response took longer than timeout: " + responseTimeout)))
+                    .onErrorMap(TimeoutException.class,
+                            error -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, error.getMessage(), error));
+        }
+        return winner.flatMap(attempt -> {
+            count(routeId, attempt.hedge() ? "hedge-won" : hedged.get() ? "primary-won" : "not-hedged");
+            return write(exchange, attempt.entity());
+        });
+    }
+
+    /**
+     * Make {@code entity} the response of the request unless the other attempt already
+     * answered, in which case its body is released unread.
+     */
+    private static Mono<Attempt> claim(AtomicBoolean decided, ResponseEntity<Flux<DataBuffer>> entity, boolean hedge) {
+        if (decided.compareAndSet(false, true)) {
+            return Mono.just(new Attempt(entity, hedge));
+        }
+        entity.getBody().subscribe(DataBufferUtils::release).dispose();
+        return Mono.empty();
+    }
+
+    /**
+     * Choose an instance through the service's load balancer, avoiding {@code exclude} if given.
+     */
+    private Mono<ServiceInstance> choose(String serviceId, ServiceInstance exclude) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerClientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        Mono<ServiceInstance> pick = Mono.from(loadBalancer.choose())
+                .filter(Response::hasServer)
+                .map(Response::getServer);
+        if (exclude == null) {
+            return pick;
+        }
+        return Flux.range(0, MAX_ALTERNATE_PICKS)
+                .concatMap(attempt -> pick)
+                .filter(instance -> !sameInstance(instance, exclude))
+                .next();
+    }
+
+    /**
+     * Send one attempt; it completes with the response headers, the body streams afterwards.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> send(ServiceInstance instance, URI lbUri, HttpHeaders headers) {
+        URI target = LoadBalancerUriTools.reconstructURI(instance, lbUri);
+        return Mono.defer(() -> {
+            InstanceLoad.InFlightRequest inFlight = loadTracker.start(instance);
+            AtomicBoolean answered = new AtomicBoolean();
+            AtomicBoolean completed = new AtomicBoolean();
+            Consumer<Boolean> complete = failed -> {
+                if (completed.compareAndSet(false, true)) {
+                    loadTracker.complete(inFlight, failed);
+                }
+            };
+            return webClient.get()
+                    .uri(target)
+                    .headers(requestHeaders -> requestHeaders.addAll(headers))
+                    .retrieve()
+                    // Error statuses are relayed to the client like any other response
+                    .onStatus(status -> true, response -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class)
+                    .map(entity -> {
+                        answered.set(true);
+                        boolean failed = entity.getStatusCode().is5xxServerError();
+                        Flux<DataBuffer> body = entity.getBody()
+                                .doFinally(signal -> complete.accept(failed || signal == SignalType.ON_ERROR));
+                        return new ResponseEntity<>(body, entity.getHeaders(), entity.getStatusCode());
+                    })
+                    // Surface the connection error itself, as the routing filter does
+                    .onErrorMap(WebClientRequestException.class,
+                            error -> error.getCause() != null ? error.getCause() : error)
+                    .doOnError(error -> complete.accept(true))
+                    .doOnCancel(() -> {
+                        if (!answered.get()) {
+                            complete.accept(false);
+                        }
+                    });
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<Flux<DataBuffer>> entity) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(entity.getStatusCode());
+        response.getHeaders().putAll(HttpHeadersFilter.filter(
+                getHeadersFilters(), entity.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE));
+        // The body is re-framed by the server: keep Content-Length only when it is known
+        if (response.getHeaders().getContentLength() >= 0) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        return response.writeWith(entity.getBody());
+    }
+
+    /**
+     * Same response timeout as the routing filter: the route's {@code response-timeout}
+     * metadata, else {@code spring.cloud.gateway.httpclient.response-timeout}.
+     */
+    private Duration getResponseTimeout(Route route) {
+        Object timeout = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (timeout != null) {
+            long millis = timeout instanceof Number number ? number.longValue() : Long.parseLong(timeout.toString());
+            return millis < 0 ? null : Duration.ofMillis(millis);
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private void count(String routeId, String result) {
+        requestCounter.withTags("route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Winning response and whether it came from the hedged attempt.
+     */
+    private record Attempt(ResponseEntity<Flux<DataBuffer>> entity, boolean hedge) {
+    }
+
+    /**
+     * Hedging state of one route, kept across route refreshes.
+     */
+    static final class RouteHedge {
+
+        private volatile Config config;
+        private volatile LatencyPercentile latency;
+
+        private RouteHedge(Config config) {
+            this.config = config;
+            this.latency = new LatencyPercentile(config.getPercentile());
+        }
+
+        /**
+         * Take the refreshed configuration; the learned latencies are only reset when the
+         * tracked percentile changes.
+         */
+        private void update(Config refreshed) {
+            if (refreshed.getPercentile() != config.getPercentile()) {
+                latency = new LatencyPercentile(refreshed.getPercentile());
+            }
+            config = refreshed;
+        }
+
+        LatencyPercentile latency() {
+            return latency;
+        }
+
+        /**
+         * The route's percentile latency clamped to {@code minDelay..maxDelay};
+         * {@code maxDelay} until enough samples exist.
+         */
+        Duration delay() {
+            Config current = config;
+            long percentileNanos = latency.getValueNanos();
+            if (percentileNanos < 0) {
+                return current.getMaxDelay();
+            }
+            return Duration.ofNanos(Math.max(current.getMinDelay().toNanos(),
+                    Math.min(current.getMaxDelay().toNanos(), percentileNanos)));
+        }
+    }
+
+    /**
+     * Hedge delay settings for a route.
+     */
+    public static class Config implements HasRouteId {
+
+        private double percentile = 95.0;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private String routeId;
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -1,136 +1,123 @@
 package com.amsidh.mvc.gatewayservice.filter;
 
+import com.amsidh.mvc.gatewayservice.config.AccessLogProperties;
+import com.amsidh.mvc.gatewayservice.util.TraceIdGenerator;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Global filter for logging all requests and responses passing through the
- * gateway.
- * Captures request details, response status, and execution time for tracing
- * purposes.
- * Uses Reactor Context for traceId propagation in reactive environment.
+ * Global filter for access logging and latency metrics of all requests passing
+ * through the gateway.
+ * <p>
+ * Per request it:
+ * - Resolves the caller's trace id (W3C traceparent or B3) or generates a new one
+ * - Records a {@code gateway.access} timer tagged by route, method and status
+ * - Writes one access log line for a configurable sample of requests
+ * <p>
+ * Server errors and slow requests are always logged, regardless of sampling.
+ * Timing uses {@link System#nanoTime()}; the log appender is asynchronous (see
+ * logback-spring.xml), so nothing here blocks the event loop.
  */
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(LoggingFilter.class);
-    private static final String START_TIME = "startTime";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final Meter.MeterProvider<Timer> accessTimer;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public LoggingFilter(MeterRegistry meterRegistry, AccessLogProperties properties) {
+        this.accessTimer = Timer.builder("gateway.access")
+                .description("Gateway request latency by route and status")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.sampleRate = properties.sampleRate();
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+    }
 
     /**
-     * Filters incoming requests and outgoing responses.
-     * Logs comprehensive request/response details including headers, status codes,
-     * and timing.
-     * 
+     * Times the request, propagates the trace id and logs the outcome.
+     *
      * @param exchange the current server exchange
      * @param chain    the filter chain
      * @return Mono indicating completion of the filter
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-
-        // Capture start time for duration calculation
-        long startTime = System.currentTimeMillis();
-        exchange.getAttributes().put(START_TIME, startTime);
-
-        // Get or generate traceId - check headers first, then generate
-        String traceId = request.getHeaders().getFirst("X-B3-TraceId");
-        if (traceId == null || traceId.isEmpty()) {
-            traceId = java.util.UUID.randomUUID().toString();
+        final long start = System.nanoTime();
+
+        // Only touch the request when the caller did not send a trace id
+        String traceId = TraceIdGenerator.fromHeaders(exchange.getRequest().getHeaders());
+        ServerWebExchange tracedExchange = exchange;
+        if (traceId == null) {
+            traceId = TraceIdGenerator.newTraceId();
+            ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
+                    .header(TraceIdGenerator.B3_TRACE_ID, traceId)
+                    .build();
+            tracedExchange = exchange.mutate().request(mutatedRequest).build();
         }
 
-        // Add traceId to request headers for downstream services
         final String finalTraceId = traceId;
-        ServerHttpRequest mutatedRequest = request.mutate()
-                .header("X-B3-TraceId", finalTraceId)
-                .build();
-
-        ServerWebExchange mutatedExchange = exchange.mutate().request(mutatedRequest).build();
-
-        // Log incoming request details
-        logRequest(mutatedRequest, finalTraceId);
-
-        // Continue with the filter chain and log response details
-        return chain.filter(mutatedExchange).then(
-                Mono.fromRunnable(() -> {
-                    ServerHttpResponse response = mutatedExchange.getResponse();
-                    Long start = mutatedExchange.getAttribute(START_TIME);
-                    long duration = start != null ? System.currentTimeMillis() - start : 0;
-                    logResponse(mutatedRequest, response, finalTraceId, duration);
-                }));
+        final ServerWebExchange finalExchange = tracedExchange;
+        return chain.filter(finalExchange)
+                .doFinally(signal -> onComplete(finalExchange, finalTraceId, signal, System.nanoTime() - start));
     }
 
-    /**
-     * Logs detailed information about the incoming request.
-     * 
-     * @param request the server HTTP request
-     * @param traceId the trace identifier for request tracking
-     */
-    private void logRequest(ServerHttpRequest request, String traceId) {
-        log.info("=== Incoming Request === TraceId: {} | Method: {} | URI: {} | Remote Address: {}",
-                traceId,
-                request.getMethod(),
-                request.getURI(),
-                request.getRemoteAddress());
-
-        // Log important headers
-        HttpHeaders headers = request.getHeaders();
-        String userAgent = headers.getFirst(HttpHeaders.USER_AGENT);
-        log.debug("Request Headers - TraceId: {} | Content-Type: {} | Accept: {} | User-Agent: {}",
-                traceId,
-                headers.getContentType(),
-                headers.getAccept(),
-                userAgent != null ? userAgent : "N/A");
+    private void onComplete(ServerWebExchange exchange, String traceId, SignalType signal, long durationNanos) {
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : (signal == SignalType.ON_ERROR ? 500 : 200);
+        String routeId = routeId(exchange);
+        ServerHttpRequest request = exchange.getRequest();
 
-        // Log query parameters if present
-        if (!request.getQueryParams().isEmpty()) {
-            log.debug("Query Parameters - TraceId: {} | Params: {}", traceId, request.getQueryParams());
+        accessTimer
+                .withTags("route", routeId, "method", request.getMethod().name(), "status", Integer.toString(status))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        boolean error = status >= 500 || signal == SignalType.ON_ERROR;
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (error || slow) {
+            log.warn("Access - TraceId: {} | Route: {} | Method: {} | Path: {} | Status: {} | Duration: {}ms | Slow: {}",
+                    traceId, routeId, request.getMethod(), request.getPath(), status,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), slow);
+        } else if (log.isInfoEnabled() && isSampled()) {
+            log.info("Access - TraceId: {} | Route: {} | Method: {} | Path: {} | Status: {} | Duration: {}ms",
+                    traceId, routeId, request.getMethod(), request.getPath(), status,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos));
         }
     }
 
-    /**
-     * Logs detailed information about the outgoing response.
-     * 
-     * @param request  the server HTTP request
-     * @param response the server HTTP response
-     * @param traceId  the trace identifier for request tracking
-     * @param duration the request processing duration in milliseconds
-     */
-    private void logResponse(ServerHttpRequest request, ServerHttpResponse response, String traceId, long duration) {
-        log.info("=== Outgoing Response === TraceId: {} | Method: {} | URI: {} | Status: {} | Duration: {}ms",
-                traceId,
-                request.getMethod(),
-                request.getURI(),
-                response.getStatusCode(),
-                duration);
-
-        // Log response headers
-        HttpHeaders headers = response.getHeaders();
-        log.debug("Response Headers - TraceId: {} | Content-Type: {} | Content-Length: {}",
-                traceId,
-                headers.getContentType(),
-                headers.getContentLength());
+    private boolean isSampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
 
-        // Log warning for slow requests (> 1 second)
-        if (duration > 1000) {
-            log.warn("Slow request detected - TraceId: {} | URI: {} | Duration: {}ms",
-                    traceId, request.getURI(), duration);
-        }
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : UNMATCHED_ROUTE;
     }
 
     /**
      * Defines the order of this filter in the filter chain.
      * Lower values have higher priority.
-     * 
+     *
      * @return the order value (highest priority)
      */
     @Override
@@ -0,0 +1,304 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Shadow traffic: copies a share of a route's requests to a second target.
+ * <p>
+ * Enabled on a route with:
+ * <pre>
+ * filters:
+ *   - name: Mirror
+ *     args:
+ *       uri: lb://PRODUCT-SERVICE-CANARY
+ *       percentage: 10
+ *       maxConcurrent: 20
+ * </pre>
+ * <p>
+ * The shadow request is sent in the background, with the same path, query and forwarded
+ * headers plus {@code X-Shadow-Request: true}, and its response body is discarded. The
+ * primary request is never delayed or affected: the shadow is fire-and-forget with its
+ * own {@code timeout}, and when {@code maxConcurrent} shadows are already in flight new
+ * ones are simply skipped.
+ * <p>
+ * Only {@code methods} (default GET, HEAD, OPTIONS) are mirrored, and requests with a
+ * body are skipped, since teeing the body would hold up the primary request.
+ * <p>
+ * Metrics:
+ * - {@code gateway.mirror.requests} - mirror decisions per route (mirrored, saturated, has-body)
+ * - {@code gateway.mirror.latency} - primary and shadow latency of mirrored requests, per side
+ * - {@code gateway.mirror.responses} - mirrored pairs by primary and shadow status class and match
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class MirrorGatewayFilterFactory extends AbstractGatewayFilterFactory<MirrorGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(MirrorGatewayFilterFactory.class);
+
+    public static final String SHADOW_HEADER = "X-Shadow-Request";
+
+    private final WebClient webClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final Meter.MeterProvider<Counter> requestCounter;
+    private final Meter.MeterProvider<Timer> latencyTimer;
+    private final Meter.MeterProvider<Counter> responseCounter;
+    private final Map<String, RouteMirror> routes = new ConcurrentHashMap<>();
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public MirrorGatewayFilterFactory(@LoadBalanced WebClient.Builder webClientBuilder,
+                                      ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                      MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.webClient = webClientBuilder.build();
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.requestCounter = Counter.builder("gateway.mirror.requests")
+                .description("Mirror decisions by route and result")
+                .withRegistry(meterRegistry);
+        this.latencyTimer = Timer.builder("gateway.mirror.latency")
+                .description("Latency of mirrored requests on the primary and shadow side")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.responseCounter = Counter.builder("gateway.mirror.responses")
+                .description("Mirrored requests by primary and shadow status")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        if (config.getUri() == null) {
+            throw new IllegalArgumentException("Mirror filter on route " + routeId + " needs a uri");
+        }
+        // lb://SERVICE is resolved by the load-balanced client as http://SERVICE
+        URI target = "lb".equals(config.getUri().getScheme())
+                ? UriComponentsBuilder.fromUri(config.getUri()).scheme("http").build(true).toUri()
+                : config.getUri();
+        Set<String> methods = config.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        double sampleRate = Math.max(0.0, Math.min(100.0, config.getPercentage())) / 100.0;
+        // Kept across route refreshes, so max-concurrent also bounds mirrors started before one
+        RouteMirror routeMirror = routes.computeIfAbsent(routeId, id -> new RouteMirror());
+        routeMirror.logSettings(routeId, config);
+        AtomicInteger inFlight = routeMirror.inFlight();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!methods.contains(request.getMethod().name())
+                    || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return chain.filter(exchange);
+            }
+            if (hasBody(request.getHeaders())) {
+                count(routeId, "has-body");
+                return chain.filter(exchange);
+            }
+            if (inFlight.incrementAndGet() > config.getMaxConcurrent()) {
+                inFlight.decrementAndGet();
+                count(routeId, "saturated");
+                return chain.filter(exchange);
+            }
+            count(routeId, "mirrored");
+            return mirror(exchange, chain, config, routeId, target, inFlight);
+        };
+    }
+
+    private Mono<Void> mirror(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                              String routeId, URI target, AtomicInteger inFlight) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI shadowUri = UriComponentsBuilder.fromUri(target)
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+
+        long shadowStart = System.nanoTime();
+        Mono<Outcome> shadow = webClient.method(request.getMethod())
+                .uri(shadowUri)
+                .headers(shadowHeaders -> {
+                    shadowHeaders.addAll(headers);
+                    shadowHeaders.set(SHADOW_HEADER, "true");
+                })
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(new Outcome(statusClass(response.statusCode()), System.nanoTime() - shadowStart)))
+                .timeout(config.getTimeout())
+                .onErrorResume(error -> {
+                    log.debug("Shadow request for route: {} failed - Error: {}", routeId, error.toString());
+                    return Mono.just(new Outcome("error", System.nanoTime() - shadowStart));
+                })
+                .doFinally(signal -> inFlight.decrementAndGet());
+
+        Sinks.One<Outcome> primary = Sinks.one();
+        // Compared off the request path; the primary never waits for the shadow
+        Mono.zip(primary.asMono(), shadow)
+                .subscribe(pair -> record(routeId, pair.getT1(), pair.getT2()));
+
+        long primaryStart = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> primary.tryEmitValue(new Outcome(
+                        statusClass(exchange.getResponse().getStatusCode()), System.nanoTime() - primaryStart)));
+    }
+
+    private void record(String routeId, Outcome primary, Outcome shadow) {
+        latencyTimer.withTags("route", routeId, "side", "primary").record(primary.nanos(), TimeUnit.NANOSECONDS);
+        latencyTimer.withTags("route", routeId, "side", "shadow").record(shadow.nanos(), TimeUnit.NANOSECONDS);
+        responseCounter.withTags("route", routeId, "primary", primary.status(), "shadow", shadow.status(),
+                "match", Boolean.toString(primary.status().equals(shadow.status()))).increment();
+    }
+
+    private static boolean hasBody(HttpHeaders headers) {
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    private static String statusClass(HttpStatusCode status) {
+        return status == null ? "none" : (status.value() / 100) + "xx";
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private void count(String routeId, String result) {
+        requestCounter.withTags("route", routeId, "result", result).increment();
+    }
+
+    /**
+     * @return mirrored requests of the route whose shadow has not completed yet
+     */
+    int inFlight(String routeId) {
+        RouteMirror routeMirror = routes.get(routeId);
+        return routeMirror != null ? routeMirror.inFlight().get() : 0;
+    }
+
+    /**
+     * Mirroring state of one route, kept across route refreshes.
+     */
+    private static final class RouteMirror {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile String settings;
+
+        AtomicInteger inFlight() {
+            return inFlight;
+        }
+
+        /**
+         * Log the settings when mirroring is enabled or its settings change, not on every refresh.
+         */
+        void logSettings(String routeId, Config config) {
+            String current = config.getUri() + "|" + config.getPercentage() + "|" + config.getMaxConcurrent()
+                    + "|" + config.getTimeout() + "|" + config.getMethods();
+            if (!current.equals(settings)) {
+                settings = current;
+                log.info("Mirroring enabled for route: {} - Target: {}, Percentage: {}%, Max Concurrent: {}",
+                        routeId, config.getUri(), config.getPercentage(), config.getMaxConcurrent());
+            }
+        }
+    }
+
+    /**
+     * Status class and latency of one side of a mirrored request.
+     */
+    private record Outcome(String status, long nanos) {
+    }
+
+    /**
+     * Mirror settings for a route.
+     */
+    public static class Config implements HasRouteId {
+
+        private URI uri;
+        private double percentage = 10.0;
+        private int maxConcurrent = 20;
+        private Duration timeout = Duration.ofSeconds(5);
+        private List<String> methods = List.of("GET", "HEAD", "OPTIONS");
+        private String routeId;
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void setUri(URI uri) {
+            this.uri = uri;
+        }
+
+        public double getPercentage() {
+            return percentage;
+        }
+
+        public void setPercentage(double percentage) {
+            this.percentage = percentage;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.aggregation.OrderView;
+import com.amsidh.mvc.gatewayservice.aggregation.OrderViewAggregator;
+import com.amsidh.mvc.gatewayservice.util.TraceIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composite route that answers {@code GET /api/v1/views/orders/{orderId}} with one
+ * {@link OrderView} document instead of 3+N client round trips.
+ * <p>
+ * Configured as a route with a no-op URI, so authentication, access logging and load
+ * shedding apply exactly as for the proxied routes:
+ * <pre>
+ * - id: order-view
+ *   uri: no://op
+ *   predicates:
+ *     - Path=/api/v1/views/orders/{orderId}
+ *     - Method=GET
+ *   filters:
+ *     - name: OrderView
+ *       args:
+ *         orderTimeout: 2s
+ *         partTimeout: 1s
+ * </pre>
+ * <p>
+ * Responses:
+ * - {@code 200} with {@code partial: true} when optional parts (customer, lines, products) failed
+ * - {@code 404} when the order does not exist, {@code 504} when it timed out, {@code 502} otherwise
+ * <p>
+ * Metrics: {@code gateway.aggregation.requests} tagged by view and result (complete, partial, failed).
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class OrderViewGatewayFilterFactory extends AbstractGatewayFilterFactory<OrderViewGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderViewGatewayFilterFactory.class);
+
+    private static final String ORDER_ID_VARIABLE = "orderId";
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            "X-User-Email", HttpHeaders.AUTHORIZATION, TraceIdGenerator.TRACEPARENT, TraceIdGenerator.B3_TRACE_ID);
+
+    private final OrderViewAggregator aggregator;
+    private final ObjectMapper objectMapper;
+    private final Meter.MeterProvider<Counter> requestCounter;
+
+    public OrderViewGatewayFilterFactory(OrderViewAggregator aggregator, ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.aggregator = aggregator;
+        this.objectMapper = objectMapper;
+        this.requestCounter = Counter.builder("gateway.aggregation.requests")
+                .description("Aggregated view requests by result")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        OrderViewAggregator.Settings settings = new OrderViewAggregator.Settings(
+                config.getOrderTimeout(), config.getPartTimeout(), config.getPartTimeout(),
+                config.getPartTimeout(), config.getProductConcurrency());
+        return (exchange, chain) -> {
+            String orderId = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get(ORDER_ID_VARIABLE);
+            if (orderId == null || !orderId.chars().allMatch(Character::isDigit) || orderId.length() > 9) {
+                return writeError(exchange, HttpStatus.BAD_REQUEST, "Invalid order id");
+            }
+
+            return aggregator.aggregate(Integer.parseInt(orderId), forwardedHeaders(exchange), settings)
+                    .flatMap(view -> {
+                        requestCounter.withTags("view", "order", "result", view.partial() ? "partial" : "complete")
+                                .increment();
+                        return writeView(exchange, view);
+                    })
+                    .onErrorResume(error -> {
+                        requestCounter.withTags("view", "order", "result", "failed").increment();
+                        log.warn("Order view failed for order: {} - Reason: {}", orderId, OrderViewAggregator.describe(error));
+                        HttpStatus status = statusFor(error);
+                        return writeError(exchange, status, status == HttpStatus.NOT_FOUND
+                                ? "Order not found" : "Order " + OrderViewAggregator.describe(error));
+                    });
+        };
+    }
+
+    private static HttpHeaders forwardedHeaders(ServerWebExchange exchange) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        HttpHeaders forwarded = new HttpHeaders();
+        for (String name : FORWARDED_HEADERS) {
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                forwarded.put(name, values);
+            }
+        }
+        return forwarded;
+    }
+
+    private static HttpStatus statusFor(Throwable error) {
+        if (error instanceof WebClientResponseException.NotFound) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (error instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return HttpStatus.BAD_GATEWAY;
+    }
+
+    private Mono<Void> writeView(ServerWebExchange exchange, OrderView view) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> writeError(ServerWebExchange exchange, HttpStatus httpStatus, String err) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(httpStatus);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+
+        String body = String.format("{\"status\": %d, \"error\": \"%s\"}", httpStatus.value(), err);
+
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Timeouts and product fan-out for the order view.
+     */
+    public static class Config {
+
+        private Duration orderTimeout = Duration.ofSeconds(2);
+        private Duration partTimeout = Duration.ofSeconds(1);
+        private int productConcurrency = 8;
+
+        public Duration getOrderTimeout() {
+            return orderTimeout;
+        }
+
+        public void setOrderTimeout(Duration orderTimeout) {
+            this.orderTimeout = orderTimeout;
+        }
+
+        public Duration getPartTimeout() {
+            return partTimeout;
+        }
+
+        public void setPartTimeout(Duration partTimeout) {
+            this.partTimeout = partTimeout;
+        }
+
+        public int getProductConcurrency() {
+            return productConcurrency;
+        }
+
+        public void setProductConcurrency(int productConcurrency) {
+            this.productConcurrency = productConcurrency;
+        }
+    }
+}
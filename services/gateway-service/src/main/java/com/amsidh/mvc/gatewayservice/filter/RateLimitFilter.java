@@ -0,0 +1,166 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.config.RateLimitProperties;
+import com.amsidh.mvc.gatewayservice.limiter.TokenBucket;
+import com.amsidh.mvc.gatewayservice.validator.RouteValidator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-caller token-bucket rate limiting, entirely in-process.
+ * <p>
+ * Each (route, caller) pair has its own lock-free {@link TokenBucket}. The caller is the
+ * authenticated user ({@code X-User-Email}, set by {@link AuthenticationFilter}) on secured
+ * paths, and the client IP on open paths such as {@code /auth/token}, where a client-sent
+ * {@code X-User-Email} must not be trusted.
+ * <p>
+ * Buckets live in a size-bounded Caffeine cache and are evicted after
+ * {@code gateway.rate-limit.idle-timeout} without requests; an evicted bucket would have
+ * refilled by then, so eviction never grants a caller more than its burst.
+ * <p>
+ * Every limited response carries {@code X-RateLimit-Limit}, {@code X-RateLimit-Remaining}
+ * and {@code X-RateLimit-Reset} (seconds until the bucket is full). Rejected requests get
+ * {@code 429} with {@code Retry-After} and never reach the backends.
+ * <p>
+ * Metrics:
+ * - {@code gateway.ratelimit.rejected} - rejections per route and caller type (user, ip)
+ * - {@code gateway.ratelimit.buckets} - buckets currently held
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /**
+     * Right after authentication, so the user is known and rejected requests skip
+     * coalescing, caching and the concurrency limiter.
+     */
+    public static final int ORDER = AuthenticationFilter.ORDER + 1;
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private static final String USER_HEADER = "X-User-Email";
+
+    private final RateLimitProperties properties;
+    private final RouteValidator routeValidator;
+    private final RemoteAddressResolver remoteAddressResolver;
+    private final Cache<String, TokenBucket> buckets;
+    private final Meter.MeterProvider<Counter> rejectedCounter;
+
+    public RateLimitFilter(RateLimitProperties properties, RouteValidator routeValidator,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.routeValidator = routeValidator;
+        this.remoteAddressResolver = properties.trustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.trustedProxies())
+                : new RemoteAddressResolver() {
+                };
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.rejectedCounter = Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .withRegistry(meterRegistry);
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets currently held")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.enabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        String routeId = route.getId();
+        double replenishRate = properties.replenishRateFor(routeId);
+        if (replenishRate <= 0.0) {
+            return chain.filter(exchange);
+        }
+
+        String caller = resolveCaller(exchange);
+        TokenBucket bucket = buckets.get(routeId + '|' + caller,
+                key -> new TokenBucket(replenishRate, properties.burstCapacityFor(routeId)));
+        TokenBucket.Result result = bucket.tryAcquire();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(LIMIT_HEADER, Integer.toString(bucket.getBurstCapacity()));
+        headers.set(REMAINING_HEADER, Integer.toString(result.remaining()));
+        headers.set(RESET_HEADER, Long.toString(toSeconds(result.resetNanos())));
+
+        if (!result.allowed()) {
+            String callerType = caller.substring(0, caller.indexOf(':'));
+            rejectedCounter.withTags("route", routeId, "caller", callerType).increment();
+            log.debug("Rate limit exceeded for route: {} - Caller: {}", routeId, caller);
+            return reject(exchange, Math.max(1L, toSeconds(result.retryAfterNanos())));
+        }
+        return chain.filter(exchange);
+    }
+
+    private String resolveCaller(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (routeValidator.isSecured(request)) {
+            String email = request.getHeaders().getFirst(USER_HEADER);
+            if (email != null) {
+                return "user:" + email;
+            }
+        }
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        String ip = address != null && address.getAddress() != null
+                ? address.getAddress().getHostAddress()
+                : "unknown";
+        return "ip:" + ip;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long retryAfterSeconds) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+
+        String body = String.format("{\"status\": %d, \"error\": \"%s\"}",
+                HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests, please retry later");
+
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
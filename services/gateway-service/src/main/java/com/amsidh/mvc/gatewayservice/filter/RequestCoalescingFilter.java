@@ -0,0 +1,223 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collapses concurrent identical requests into a single upstream exchange.
+ * <p>
+ * Enabled per route through route metadata:
+ * <pre>
+ * metadata:
+ *   coalesce-requests: true
+ * </pre>
+ * <p>
+ * Requests are identical when method, path, query and the headers that shape the
+ * response ({@code X-User-Email}, {@code Accept}, {@code Accept-Encoding},
+ * {@code Accept-Language}) are equal. The first request (leader) goes downstream; requests
+ * arriving while it is in flight (followers) wait for it and receive a copy of its
+ * status, headers and body. Only {@code GET} and {@code HEAD} are coalesced.
+ * <p>
+ * The leader's body streams to its client while a copy is kept for the followers. If the
+ * leader fails, is cancelled or its body grows beyond {@code gateway.coalescing.max-body-size},
+ * the copy is dropped and followers simply send their own request.
+ * <p>
+ * Metrics: {@code gateway.coalescing.requests} tagged by route and role
+ * (leader, follower, fallback) gives the collapse ratio; {@code gateway.coalescing.in-flight}
+ * shows the number of distinct requests currently being shared.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescingFilter.class);
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    public static final String COALESCE_METADATA_KEY = "coalesce-requests";
+
+    private static final Set<HttpMethod> IDEMPOTENT_READS = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+    private static final List<String> KEY_HEADERS = List.of(
+            "X-User-Email", HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+    private static final Set<String> NON_SHAREABLE_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "set-cookie",
+            "x-ratelimit-limit", "x-ratelimit-remaining", "x-ratelimit-reset");
+
+    private final ConcurrentMap<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Meter.MeterProvider<Counter> requestCounter;
+    private final long maxBodySize;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.coalescing.max-body-size:1MB}") DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize.toBytes();
+        this.requestCounter = Counter.builder("gateway.coalescing.requests")
+                .description("Coalesced requests by route and role")
+                .withRegistry(meterRegistry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct upstream requests currently shared by followers")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !IDEMPOTENT_READS.contains(request.getMethod()) || !isEnabled(route)) {
+            return chain.filter(exchange);
+        }
+
+        String key = coalescingKey(request);
+        Sinks.One<SharedResponse> leaderSink = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, leaderSink);
+
+        if (existing != null) {
+            count(route, "follower");
+            return existing.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isPresent()) {
+                            return writeShared(exchange, shared.get());
+                        }
+                        count(route, "fallback");
+                        log.debug("Leader did not produce a shareable response, forwarding: {}", key);
+                        return chain.filter(exchange);
+                    });
+        }
+
+        count(route, "leader");
+        ServerHttpResponse sharing = new SharingResponseDecorator(exchange.getResponse(), leaderSink);
+        return chain.filter(exchange.mutate().response(sharing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, leaderSink);
+                    // Releases followers when nothing was shared (error, cancel, oversized body)
+                    leaderSink.tryEmitEmpty();
+                });
+    }
+
+    private static boolean isEnabled(Route route) {
+        Object enabled = route.getMetadata().get(COALESCE_METADATA_KEY);
+        return enabled != null && Boolean.parseBoolean(enabled.toString());
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(shared.status()));
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String coalescingKey(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(128)
+                .append(request.getMethod().name()).append(' ')
+                .append(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : KEY_HEADERS) {
+            key.append('|').append(String.join(",", headers.getOrEmpty(name)));
+        }
+        return key.toString();
+    }
+
+    private void count(Route route, String role) {
+        requestCounter.withTags("route", route.getId(), "role", role).increment();
+    }
+
+    /**
+     * Response copied from the leader to its followers.
+     */
+    private record SharedResponse(int status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Copies the leader's response body and publishes it to the followers once complete.
+     */
+    private final class SharingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<SharedResponse> sink;
+
+        private SharingResponseDecorator(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode statusCode = getStatusCode();
+            if (statusCode == null || getHeaders().getContentLength() > maxBodySize) {
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+
+            // Stream the body to the client and keep a copy until it exceeds the limit.
+            // Chunked responses have no Content-Length, so the limit is enforced here.
+            HttpHeaders headers = shareableHeaders();
+            BodyCopy copy = new BodyCopy(maxBodySize);
+            Flux<DataBuffer> teed = Flux.<DataBuffer>from(body)
+                    .doOnNext(buffer -> {
+                        if (!copy.append(buffer)) {
+                            // Followers need not wait for the rest of a body they will not get
+                            sink.tryEmitEmpty();
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        byte[] bytes = copy.toByteArray();
+                        if (bytes != null) {
+                            sink.tryEmitValue(new SharedResponse(statusCode.value(), headers, bytes));
+                        }
+                    });
+            return getDelegate().writeWith(teed);
+        }
+
+        private HttpHeaders shareableHeaders() {
+            HttpHeaders copy = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!NON_SHAREABLE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.cache.CachedResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in, per-route response cache for idempotent GET requests.
+ * <p>
+ * Enabled on a route with:
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ *       staleWhileRevalidate: 60s
+ *       maxSize: 20MB
+ *       maxEntrySize: 512KB
+ * </pre>
+ * <p>
+ * Cache Behaviour:
+ * - Only {@code GET} requests and {@code 200} responses are cached
+ * - Key is method + path + query + {@code X-User-Email}, so per-user responses are never shared
+ * - Responses listed in {@code Vary} are only served to requests with the same header values
+ * - Request {@code Cache-Control: no-cache/no-store} bypasses the cache
+ * - Response {@code no-store}, {@code no-cache}, {@code Set-Cookie} or {@code Vary: *} are not stored,
+ *   {@code private} responses are only stored for authenticated (per-user) keys
+ * - Response {@code max-age}/{@code s-maxage} can shorten, but never extend, the configured TTL
+ * - Size bounded by total body bytes with Caffeine's W-TinyLFU eviction
+ * - The body is streamed to the client while it is copied; the copy is dropped as soon as
+ *   it exceeds {@code maxEntrySize}
+ * - One cache per route, kept across route refreshes
+ * <p>
+ * Expired entries inside the {@code staleWhileRevalidate} window are served immediately while a
+ * single background request refreshes them through the load-balanced {@link WebClient}. This
+ * assumes the route forwards the path unchanged, which is the case for all explicit routes.
+ * <p>
+ * The filter runs after {@link AuthenticationFilter} and before {@link RequestCoalescingFilter} and
+ * {@link NettyWriteResponseFilter}, so the authenticated user is already known, cache hits never
+ * reach the coalescer, and the downstream body can be captured on its way out.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    public static final int ORDER = RequestCoalescingFilter.ORDER - 1;
+
+    private static final String USER_EMAIL_HEADER = "X-User-Email";
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String RATE_LIMIT_HEADER_PREFIX = "x-ratelimit-";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "host", "content-length");
+
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final Meter.MeterProvider<Counter> requestCounter;
+    private final Map<String, RouteCache> cachesByRoute = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+                                             @LoadBalanced WebClient.Builder webClientBuilder) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClientBuilder.build();
+        this.requestCounter = Counter.builder("gateway.response.cache.requests")
+                .description("Response cache lookups by route and result")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Called again for every route refresh (each Eureka heartbeat), so the cache of a route
+     * is created once and kept; only its size bound follows the current configuration.
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        RouteCache routeCache = cachesByRoute.computeIfAbsent(routeId, id -> createCache(id, config));
+        long maxSize = config.getMaxSize().toBytes();
+        routeCache.cache().policy().eviction().ifPresent(eviction -> {
+            if (eviction.getMaximum() != maxSize) {
+                eviction.setMaximum(maxSize);
+                log.info("Response cache resized for route: {} - Max Size: {}", routeId, config.getMaxSize());
+            }
+        });
+
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> filter(exchange, chain, config, routeId, routeCache), ORDER);
+    }
+
+    private RouteCache createCache(String routeId, Config config) {
+        Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new StaleExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response-cache", Tags.of("route", routeId));
+        log.info("Response cache enabled for route: {} - TTL: {}, Stale-While-Revalidate: {}, Max Size: {}",
+                routeId, config.getTtl(), config.getStaleWhileRevalidate(), config.getMaxSize());
+        return new RouteCache(cache, ConcurrentHashMap.newKeySet());
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                              String routeId, RouteCache routeCache) {
+        Cache<String, CachedResponse> cache = routeCache.cache();
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String requestCacheControl = lower(request.getHeaders().getCacheControl());
+        if (requestCacheControl.contains("no-store")) {
+            count(routeId, "bypass");
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        if (!requestCacheControl.contains("no-cache")) {
+            CachedResponse cached = cache.getIfPresent(key);
+            long now = System.currentTimeMillis();
+            if (cached != null && cached.matchesVary(request.getHeaders())) {
+                if (cached.isFresh(now)) {
+                    count(routeId, "hit");
+                    return writeCached(exchange, cached, "HIT", now);
+                }
+                if (cached.isUsable(now)) {
+                    count(routeId, "stale");
+                    revalidate(exchange, key, config, cache, routeCache.revalidating());
+                    return writeCached(exchange, cached, "STALE", now);
+                }
+            }
+        }
+
+        count(routeId, "miss");
+        ServerHttpResponse caching = new CachingResponseDecorator(exchange, key, config, cache);
+        return chain.filter(exchange.mutate().response(caching).build());
+    }
+
+    /**
+     * Look up a response that may still be served for the given request, including
+     * stale entries. Used by fallbacks to answer from cache while a route is down.
+     *
+     * @param routeId        the route the request was sent to
+     * @param requestUri     the original request URI
+     * @param requestHeaders the request headers
+     * @return the cached response, if any
+     */
+    public Optional<CachedResponse> findUsable(String routeId, URI requestUri, HttpHeaders requestHeaders) {
+        RouteCache routeCache = cachesByRoute.get(routeId);
+        if (routeCache == null) {
+            return Optional.empty();
+        }
+        String key = cacheKey(requestUri.getRawPath(), requestUri.getRawQuery(), requestHeaders);
+        CachedResponse cached = routeCache.cache().getIfPresent(key);
+        if (cached == null || !cached.matchesVary(requestHeaders) || !cached.isUsable(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString((now - cached.storedAt()) / 1000));
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Refresh a stale entry in the background. At most one refresh per key is in flight.
+     */
+    private void revalidate(ServerWebExchange exchange, String key, Config config,
+                            Cache<String, CachedResponse> cache, Set<String> revalidating) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !revalidating.add(key)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        URI routeUri = route.getUri();
+        URI target = UriComponentsBuilder.fromUri(routeUri)
+                .scheme("lb".equals(routeUri.getScheme()) ? "http" : routeUri.getScheme())
+                .replacePath(request.getPath().value())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        HttpHeaders requestHeaders = request.getHeaders();
+
+        webClient.get()
+                .uri(target)
+                .headers(headers -> requestHeaders.forEach((name, values) -> {
+                    if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                        headers.addAll(name, values);
+                    }
+                }))
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .timeout(config.getTtl().plus(config.getStaleWhileRevalidate()))
+                .doFinally(signal -> revalidating.remove(key))
+                .subscribe(entity -> {
+                    byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+                    CachedResponse refreshed = toCachedResponse(entity.getStatusCode().value(), entity.getHeaders(),
+                            body, requestHeaders, config);
+                    if (refreshed != null) {
+                        cache.put(key, refreshed);
+                        log.debug("Revalidated cached response for key: {}", key);
+                    }
+                }, error -> log.warn("Background revalidation failed for key: {} - Error: {}", key, error.getMessage()));
+    }
+
+    /**
+     * Build a cache entry if the response may be stored, or return {@code null}.
+     */
+    private CachedResponse toCachedResponse(int status, HttpHeaders responseHeaders, byte[] body,
+                                            HttpHeaders requestHeaders, Config config) {
+        if (status != 200 || body.length > config.getMaxEntrySize().toBytes()
+                || responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+
+        String cacheControl = lower(responseHeaders.getCacheControl());
+        boolean perUser = requestHeaders.getFirst(USER_EMAIL_HEADER) != null;
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")
+                || (cacheControl.contains("private") && !perUser)) {
+            return null;
+        }
+
+        List<String> varyHeaders = responseHeaders.getVary();
+        if (varyHeaders.contains("*")) {
+            return null;
+        }
+        List<String> varyValues = new ArrayList<>(varyHeaders.size());
+        for (String name : varyHeaders) {
+            varyValues.add(String.join(",", requestHeaders.getOrEmpty(name)));
+        }
+
+        long ttlMillis = config.getTtl().toMillis();
+        long originMaxAge = maxAgeMillis(cacheControl);
+        if (originMaxAge >= 0) {
+            ttlMillis = Math.min(ttlMillis, originMaxAge);
+        }
+        if (ttlMillis <= 0) {
+            return null;
+        }
+
+        HttpHeaders stored = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            // Rate limit headers describe the caller's own bucket, not the resource
+            if (!HOP_BY_HOP_HEADERS.contains(lowerName) && !lowerName.startsWith(RATE_LIMIT_HEADER_PREFIX)) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        long freshUntil = now + ttlMillis;
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body,
+                List.copyOf(varyHeaders), List.copyOf(varyValues),
+                now, freshUntil, freshUntil + config.getStaleWhileRevalidate().toMillis());
+    }
+
+    private static long maxAgeMillis(String cacheControl) {
+        long maxAge = directiveSeconds(cacheControl, "s-maxage=");
+        if (maxAge < 0) {
+            maxAge = directiveSeconds(cacheControl, "max-age=");
+        }
+        return maxAge < 0 ? -1 : maxAge * 1000;
+    }
+
+    private static long directiveSeconds(String cacheControl, String directive) {
+        int index = cacheControl.indexOf(directive);
+        if (index < 0) {
+            return -1;
+        }
+        int start = index + directive.length();
+        int end = start;
+        while (end < cacheControl.length() && Character.isDigit(cacheControl.charAt(end))) {
+            end++;
+        }
+        return end > start ? Long.parseLong(cacheControl.substring(start, end)) : -1;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        return cacheKey(request.getPath().value(), request.getURI().getRawQuery(), request.getHeaders());
+    }
+
+    private static String cacheKey(String rawPath, String rawQuery, HttpHeaders headers) {
+        String user = headers.getFirst(USER_EMAIL_HEADER);
+        return rawPath
+                + (rawQuery != null ? "?" + rawQuery : "")
+                + "|" + (user != null ? user : "-");
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private void count(String routeId, String result) {
+        requestCounter.withTags("route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Captures the downstream body as it is written to the client and stores it
+     * when the response is cacheable.
+     */
+    private final class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Config config;
+        private final Cache<String, CachedResponse> cache;
+
+        private CachingResponseDecorator(ServerWebExchange exchange, String key, Config config,
+                                         Cache<String, CachedResponse> cache) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.config = config;
+            this.cache = cache;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode statusCode = getStatusCode();
+            // A fallback already written from this cache must not be stored again as fresh
+            if (statusCode == null || statusCode.value() != 200 || getHeaders().containsKey(CACHE_STATUS_HEADER)) {
+                return super.writeWith(body);
+            }
+            long maxEntrySize = config.getMaxEntrySize().toBytes();
+            if (getHeaders().getContentLength() > maxEntrySize) {
+                return super.writeWith(body);
+            }
+
+            // Stream the body to the client and keep a copy until it exceeds the entry limit
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            BodyCopy copy = new BodyCopy(maxEntrySize);
+            Flux<DataBuffer> teed = Flux.<DataBuffer>from(body)
+                    .doOnNext(copy::append)
+                    .doOnComplete(() -> {
+                        byte[] bytes = copy.toByteArray();
+                        if (bytes == null) {
+                            return;
+                        }
+                        CachedResponse cached = toCachedResponse(statusCode.value(), getHeaders(), bytes,
+                                exchange.getRequest().getHeaders(), config);
+                        if (cached != null) {
+                            cache.put(key, cached);
+                        }
+                    });
+            return getDelegate().writeWith(teed);
+        }
+    }
+
+    /**
+     * Keeps each entry until the end of its stale-while-revalidate window.
+     */
+    private static final class StaleExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            long remainingMillis = value.staleUntil() - System.currentTimeMillis();
+            return Math.max(0L, Duration.ofMillis(remainingMillis).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Cache of one route, with the keys currently being revalidated in the background.
+     */
+    private record RouteCache(Cache<String, CachedResponse> cache, Set<String> revalidating) {
+    }
+
+    /**
+     * Per-route configuration of the response cache.
+     */
+    public static class Config implements HasRouteId {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+        private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+        private String routeId;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.amsidh.mvc.gatewayservice.hedging;
+
+import com.amsidh.mvc.gatewayservice.config.HedgingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway-wide budget that caps hedged attempts at a share of hedgeable requests.
+ * <p>
+ * Every hedgeable request deposits {@code budgetPercent / 100} of a token, every hedge
+ * withdraws one. The balance is capped at {@code budgetBurst} tokens, so a quiet period
+ * cannot be saved up into a hedge storm, and hedging stops by itself when most requests
+ * are slow (i.e. when the backends are overloaded rather than occasionally stalling).
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class HedgeBudget {
+
+    private static final long TOKEN = 1_000_000L;
+
+    private final AtomicLong balance;
+    private final long deposit;
+    private final long capacity;
+
+    public HedgeBudget(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.deposit = Math.round(properties.budgetPercent() / 100.0 * TOKEN);
+        this.capacity = properties.budgetBurst() * TOKEN;
+        this.balance = new AtomicLong(capacity);
+        Gauge.builder("gateway.hedge.budget", balance, b -> (double) b.get() / TOKEN)
+                .description("Hedges that may currently be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Credit the budget for a request that could be hedged.
+     */
+    public void onRequest() {
+        balance.updateAndGet(current -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * Try to spend one hedge from the budget.
+     *
+     * @return true if the hedge may be sent
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
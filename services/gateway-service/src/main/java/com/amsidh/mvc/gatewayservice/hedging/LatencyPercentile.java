@@ -0,0 +1,63 @@
+package com.amsidh.mvc.gatewayservice.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Percentile of the most recent latency samples of one route.
+ * <p>
+ * Samples go into a fixed ring buffer; the percentile is recomputed from a sorted
+ * copy at most once per {@code refreshNanos}, so the hot path is a single array
+ * write and a volatile read.
+ *
+ * @author Amsidh Mohammed
+ */
+public class LatencyPercentile {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int MIN_SAMPLES = 50;
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+
+    private final double percentile;
+    private final long[] samples = new long[WINDOW_SIZE];
+    private int next;
+    private int count;
+    private long lastRefreshNanos = System.nanoTime();
+    private volatile long valueNanos = -1;
+
+    /**
+     * @param percentile percentile to track, between 0 and 100
+     */
+    public LatencyPercentile(double percentile) {
+        if (percentile <= 0.0 || percentile >= 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        this.percentile = percentile;
+    }
+
+    /**
+     * Add a latency sample.
+     *
+     * @param latencyNanos observed latency in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            if (count >= MIN_SAMPLES && now - lastRefreshNanos >= REFRESH_NANOS) {
+                lastRefreshNanos = now;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                valueNanos = sorted[(int) Math.min(count - 1, Math.ceil(percentile / 100.0 * count) - 1)];
+            }
+        }
+    }
+
+    /**
+     * @return the latency percentile in nanoseconds, or {@code -1} until enough samples were recorded
+     */
+    public long getValueNanos() {
+        return valueNanos;
+    }
+}
@@ -0,0 +1,101 @@
+package com.amsidh.mvc.gatewayservice.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight request limiter whose limit adapts to observed latency (AIMD).
+ * <p>
+ * Algorithm:
+ * - A long-term latency average is tracked with a slow EWMA
+ * - A sample slower than {@code tolerance x} that average, or a failed request,
+ *   is treated as overload: the limit is multiplied by {@code backoffRatio}
+ * - Otherwise, while the limiter is actually being used (at least half full),
+ *   the limit grows by {@code 1 / limit}, i.e. by about one per window of requests
+ * <p>
+ * Admission is priority aware: a request of a given {@link RequestPriority} is only
+ * admitted while in-flight requests are below its share of the current limit, so
+ * low priority traffic is rejected first as the limit shrinks.
+ *
+ * @author Amsidh Mohammed
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_RTT_ALPHA = 0.02;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Try to admit a request.
+     *
+     * @param priority the request's priority class
+     * @return true if admitted; the caller must then call {@link #release(long, boolean)}
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int ceiling = Math.max(1, (int) (limit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and feed its outcome into the limit.
+     *
+     * @param latencyNanos time the request spent in flight
+     * @param dropped      true if the request failed or timed out downstream
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(latencyNanos, dropped, inFlightAtCompletion);
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean dropped, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            longRttNanos = latencyNanos;
+        }
+
+        double current = limit;
+        if (dropped || latencyNanos > longRttNanos * tolerance) {
+            current = Math.max(minLimit, current * backoffRatio);
+        } else if (inFlightAtCompletion * 2 >= current) {
+            current = Math.min(maxLimit, current + 1.0 / current);
+        }
+        limit = current;
+
+        if (!dropped) {
+            longRttNanos += LONG_RTT_ALPHA * (latencyNanos - longRttNanos);
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
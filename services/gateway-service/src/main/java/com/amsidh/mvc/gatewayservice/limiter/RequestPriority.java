@@ -0,0 +1,37 @@
+package com.amsidh.mvc.gatewayservice.limiter;
+
+/**
+ * Priority classes used when shedding load.
+ * <p>
+ * Each class may use a share of the current concurrency limit; lower classes
+ * hit their ceiling first and are therefore shed first under overload.
+ *
+ * @author Amsidh Mohammed
+ */
+public enum RequestPriority {
+
+    /**
+     * Revenue or session critical calls (checkout, login); may use the whole limit.
+     */
+    CRITICAL(1.0),
+
+    /**
+     * Regular traffic.
+     */
+    NORMAL(0.9),
+
+    /**
+     * Traffic that is cheap to retry (catalog browsing); shed first.
+     */
+    SHEDDABLE(0.75);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
@@ -0,0 +1,76 @@
+package com.amsidh.mvc.gatewayservice.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * <p>
+ * Implemented as the equivalent GCRA (generic cell rate algorithm): instead of a token
+ * count and a refill timestamp, the bucket keeps a single "theoretical arrival time"
+ * (TAT) in an {@link AtomicLong}. Each admitted request pushes the TAT forward by one
+ * emission interval ({@code 1 / replenishRate}); a request is rejected when that would
+ * put the TAT more than {@code burstCapacity} intervals ahead of now. Refill is implicit
+ * in the passing of time, so admission is a single CAS with no locks, no timers and no
+ * allocation on the success path.
+ *
+ * @author Amsidh Mohammed
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final int burstCapacity;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param replenishRate tokens added per second
+     * @param burstCapacity maximum tokens the bucket holds
+     */
+    public TokenBucket(double replenishRate, int burstCapacity) {
+        if (replenishRate <= 0.0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and capacity");
+        }
+        this.emissionIntervalNanos = Math.max(1L, Math.round(1_000_000_000L / replenishRate));
+        this.burstCapacity = burstCapacity;
+        this.capacityNanos = emissionIntervalNanos * burstCapacity;
+        // A new bucket starts full
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return the outcome, including what to report in rate limit headers
+     */
+    public Result tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) {
+                long backlog = Math.max(0L, current - now);
+                return new Result(false, 0, backlog, ahead - capacityNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                int remaining = (int) ((capacityNanos - ahead) / emissionIntervalNanos);
+                return new Result(true, remaining, ahead, 0L);
+            }
+        }
+    }
+
+    public int getBurstCapacity() {
+        return burstCapacity;
+    }
+
+    /**
+     * Outcome of {@link #tryAcquire()}.
+     *
+     * @param allowed          whether the request was admitted
+     * @param remaining        tokens left after this request
+     * @param resetNanos       time until the bucket is full again
+     * @param retryAfterNanos  time until the next token is available, 0 if admitted
+     */
+    public record Result(boolean allowed, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.amsidh.mvc.gatewayservice.loadbalancer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Load of a single service instance as seen by this gateway.
+ * <p>
+ * Tracks:
+ * - The requests currently in flight to the instance
+ * - A peak-sensitive EWMA of its latency: a sample above the average replaces it at
+ *   once, lower samples pull it down gradually, and the average decays towards zero
+ *   while the instance receives no traffic so it gets probed again
+ *
+ * @author Amsidh Mohammed
+ */
+public class InstanceLoad {
+
+    private final Set<InFlightRequest> inFlight = ConcurrentHashMap.newKeySet();
+    private double ewmaNanos;
+    private long lastUpdateNanos = System.nanoTime();
+    private volatile long lastSweepNanos = System.nanoTime();
+
+    /**
+     * Register a request sent to this instance.
+     *
+     * @param now current {@link System#nanoTime()}
+     * @return handle to pass to {@link #complete(InFlightRequest, long, long)}
+     */
+    public InFlightRequest start(long now) {
+        InFlightRequest request = new InFlightRequest(this, now);
+        inFlight.add(request);
+        return request;
+    }
+
+    /**
+     * Complete a request and record its latency.
+     *
+     * @param request    the handle returned by {@link #start(long)}
+     * @param latency    latency to record, in nanoseconds
+     * @param decayNanos EWMA decay time, in nanoseconds
+     */
+    public void complete(InFlightRequest request, long latency, long decayNanos) {
+        if (inFlight.remove(request)) {
+            observe(latency, System.nanoTime(), decayNanos);
+        }
+    }
+
+    /**
+     * @return number of requests currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Latency average at the given time, including decay since the last sample.
+     *
+     * @param now        current {@link System#nanoTime()}
+     * @param decayNanos EWMA decay time, in nanoseconds
+     * @return latency estimate in nanoseconds
+     */
+    public synchronized double latencyAt(long now, long decayNanos) {
+        return ewmaNanos * Math.exp(-Math.max(0L, now - lastUpdateNanos) / (double) decayNanos);
+    }
+
+    /**
+     * Drop requests that never completed (cancelled exchanges do not report completion).
+     *
+     * @param now          current {@link System#nanoTime()}
+     * @param timeoutNanos age after which an in-flight request is considered abandoned
+     */
+    public void sweep(long now, long timeoutNanos) {
+        if (now - lastSweepNanos < timeoutNanos / 2) {
+            return;
+        }
+        lastSweepNanos = now;
+        inFlight.removeIf(request -> now - request.startNanos() > timeoutNanos);
+    }
+
+    private synchronized void observe(long latency, long now, long decayNanos) {
+        double weight = Math.exp(-Math.max(0L, now - lastUpdateNanos) / (double) decayNanos);
+        if (latency > ewmaNanos * weight) {
+            ewmaNanos = latency;
+        } else {
+            ewmaNanos = ewmaNanos * weight + latency * (1.0 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    /**
+     * One request in flight to an instance; compared by identity.
+     */
+    public static final class InFlightRequest {
+
+        private final InstanceLoad load;
+        private final long startNanos;
+
+        private InFlightRequest(InstanceLoad load, long startNanos) {
+            this.load = load;
+            this.startNanos = startNanos;
+        }
+
+        public InstanceLoad load() {
+            return load;
+        }
+
+        public long startNanos() {
+            return startNanos;
+        }
+    }
+}
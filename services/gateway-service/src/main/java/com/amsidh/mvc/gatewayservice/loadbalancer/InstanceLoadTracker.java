@@ -0,0 +1,254 @@
+package com.amsidh.mvc.gatewayservice.loadbalancer;
+
+import com.amsidh.mvc.gatewayservice.config.LoadBalancingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks in-flight requests and latency per service instance.
+ * <p>
+ * Registered as a {@link LoadBalancerLifecycle}, so Spring Cloud LoadBalancer reports
+ * every request it routes, both for {@code lb://} gateway routes and for the
+ * {@code @LoadBalanced WebClient}. The resulting {@link #cost(ServiceInstance)} drives
+ * {@link PowerOfTwoChoicesLoadBalancer}.
+ * <p>
+ * The in-flight handle of a LoadBalancer request is kept in a map keyed by the identity
+ * of the {@link Request} (the same object is passed from start to completion), not in the
+ * request attributes: those of a {@code WebClient} request are read-only.
+ * <p>
+ * Metrics per instance: {@code gateway.loadbalancer.in-flight} and
+ * {@code gateway.loadbalancer.latency} (EWMA, milliseconds). They are removed together
+ * with the instance's load once it disappears from the service's instance list.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceLoadTracker.class);
+
+    private static final double MIN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double MIN_LOAD_FACTOR = 0.1;
+    private static final double MAX_LOAD_FACTOR = 10.0;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TrackedInstance> loads = new ConcurrentHashMap<>();
+    private final Map<RequestKey, InstanceLoad.InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+    private volatile long lastSweepNanos = System.nanoTime();
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final long staleRequestNanos;
+    private final String loadHintKey;
+
+    public InstanceLoadTracker(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = properties.decayTime().toNanos();
+        this.failurePenaltyNanos = properties.failurePenalty().toNanos();
+        this.staleRequestNanos = properties.staleRequestTimeout().toNanos();
+        this.loadHintKey = properties.loadHintKey();
+    }
+
+    /**
+     * Expected cost of sending one more request to the instance: latency estimate
+     * times the requests it would have in flight, scaled by the instance's load hint.
+     *
+     * @param instance the candidate instance
+     * @return relative cost, lower is better
+     */
+    public double cost(ServiceInstance instance) {
+        TrackedInstance tracked = loads.get(key(instance));
+        InstanceLoad load = tracked != null ? tracked.load() : null;
+        double latency = MIN_LATENCY_NANOS;
+        int inFlight = 0;
+        if (load != null) {
+            latency = Math.max(MIN_LATENCY_NANOS, load.latencyAt(System.nanoTime(), decayNanos));
+            inFlight = load.getInFlight();
+        }
+        return latency * (inFlight + 1) * loadFactor(instance);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing to track until an instance was chosen
+    }
+
+    /**
+     * Record a request sent to the instance outside of the LoadBalancer request
+     * lifecycle (e.g. a hedged attempt).
+     *
+     * @param instance the chosen instance
+     * @return handle to pass to {@link #complete(InstanceLoad.InFlightRequest, boolean)}
+     */
+    public InstanceLoad.InFlightRequest start(ServiceInstance instance) {
+        long now = System.nanoTime();
+        InstanceLoad load = loads.computeIfAbsent(key(instance), key -> register(key, instance)).load();
+        load.sweep(now, staleRequestNanos);
+        return load.start(now);
+    }
+
+    /**
+     * Complete a request started with {@link #start(ServiceInstance)}.
+     *
+     * @param inFlight the handle of the request
+     * @param failed   true if the request failed or returned a server error
+     */
+    public void complete(InstanceLoad.InFlightRequest inFlight, boolean failed) {
+        long latency = System.nanoTime() - inFlight.startNanos();
+        if (failed) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        inFlight.load().complete(inFlight, latency, decayNanos);
+    }
+
+    /**
+     * Stop tracking instances of the service that are no longer in its instance list,
+     * and remove their gauges.
+     *
+     * @param serviceId the service whose instance list was refreshed
+     * @param instances the current instances of the service
+     */
+    public void retainInstances(String serviceId, List<ServiceInstance> instances) {
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            current.add(key(instance));
+        }
+        loads.entrySet().removeIf(entry -> {
+            TrackedInstance tracked = entry.getValue();
+            if (!tracked.serviceId().equalsIgnoreCase(serviceId) || current.contains(entry.getKey())) {
+                return false;
+            }
+            tracked.meters().forEach(meterRegistry::remove);
+            log.debug("Instance left service {}, load no longer tracked: {}", serviceId, entry.getKey());
+            return true;
+        });
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request == null || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        sweepInFlightRequests(now);
+        inFlightRequests.put(new RequestKey(request), start(lbResponse.getServer()));
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        InstanceLoad.InFlightRequest inFlight = request != null ? inFlightRequests.remove(new RequestKey(request)) : null;
+        if (inFlight != null) {
+            complete(inFlight, isFailure(completionContext));
+        }
+    }
+
+    /**
+     * @return LoadBalancer requests started and not yet completed
+     */
+    int trackedRequests() {
+        return inFlightRequests.size();
+    }
+
+    /**
+     * Drop handles of requests that never completed (cancelled exchanges do not report
+     * completion), at most twice per stale request timeout.
+     */
+    private void sweepInFlightRequests(long now) {
+        if (now - lastSweepNanos < staleRequestNanos / 2) {
+            return;
+        }
+        lastSweepNanos = now;
+        inFlightRequests.values().removeIf(inFlight -> now - inFlight.startNanos() > staleRequestNanos);
+    }
+
+    private TrackedInstance register(String key, ServiceInstance instance) {
+        InstanceLoad load = new InstanceLoad();
+        String service = instance.getServiceId() != null ? instance.getServiceId() : "unknown";
+        String instanceTag = instance.getHost() + ":" + instance.getPort();
+        Gauge inFlightGauge = Gauge.builder("gateway.loadbalancer.in-flight", load, InstanceLoad::getInFlight)
+                .description("Requests in flight to a service instance")
+                .tags("service", service, "instance", instanceTag)
+                .register(meterRegistry);
+        Gauge latencyGauge = Gauge.builder("gateway.loadbalancer.latency", load,
+                        l -> l.latencyAt(System.nanoTime(), decayNanos) / TimeUnit.MILLISECONDS.toNanos(1))
+                .description("Peak EWMA latency of a service instance in milliseconds")
+                .tags("service", service, "instance", instanceTag)
+                .register(meterRegistry);
+        log.debug("Tracking load for instance: {}", key);
+        return new TrackedInstance(load, service, List.of(inFlightGauge, latencyGauge));
+    }
+
+    private double loadFactor(ServiceInstance instance) {
+        if (loadHintKey.isEmpty() || instance.getMetadata() == null) {
+            return 1.0;
+        }
+        String hint = instance.getMetadata().get(loadHintKey);
+        if (hint == null) {
+            return 1.0;
+        }
+        try {
+            return Math.max(MIN_LOAD_FACTOR, Math.min(MAX_LOAD_FACTOR, Double.parseDouble(hint)));
+        } catch (NumberFormatException e) {
+            return 1.0;
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null
+                && response.getHttpStatus().is5xxServerError();
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getServiceId() + "/" + instance.getInstanceId()
+                : instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * Load of one instance with the gauges registered for it.
+     */
+    private record TrackedInstance(InstanceLoad load, String serviceId, List<Meter> meters) {
+    }
+
+    /**
+     * Identity of a LoadBalancer request; {@code Request} implementations compare by value.
+     */
+    private record RequestKey(Request<?> request) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
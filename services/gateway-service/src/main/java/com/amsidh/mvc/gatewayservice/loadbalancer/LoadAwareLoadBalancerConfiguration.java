@@ -0,0 +1,33 @@
+package com.amsidh.mvc.gatewayservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service LoadBalancer client configuration that replaces round-robin with
+ * {@link PowerOfTwoChoicesLoadBalancer}.
+ * <p>
+ * Registered as the default configuration of every LoadBalancer child context (see
+ * {@code LoadBalancerConfig}); it is deliberately not a {@code @Configuration} so
+ * component scanning does not pick it up in the main context.
+ *
+ * @author Amsidh Mohammed
+ */
+public class LoadAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            InstanceLoadTracker loadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PowerOfTwoChoicesLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                loadTracker);
+    }
+}
@@ -0,0 +1,173 @@
+package com.amsidh.mvc.gatewayservice.revocation;
+
+import com.amsidh.mvc.gatewayservice.config.RevocationProperties;
+import com.amsidh.mvc.gatewayservice.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory denylist of revoked token ids ({@code jti}).
+ * <p>
+ * Revocations are partitioned by the revoked token's expiry, one partition per
+ * {@code gateway.revocation.partition-duration}. Each partition holds a Bloom filter
+ * and the exact set of its token ids:
+ * <p>
+ * - A check only looks at the one partition the token's {@code exp} falls into
+ * - Most tokens are answered by the Bloom filter alone (a few hashed bit reads)
+ * - A Bloom hit is confirmed against the exact set, so false positives never reject a token
+ * - A partition is dropped as a whole once its expiry range has passed; its tokens are
+ *   rejected by their {@code exp} claim from then on, so memory stays proportional to
+ *   the revocations of still-valid tokens
+ * <p>
+ * Checks never touch the network. Revocations are fed by {@link TokenRevocationListener}.
+ * <p>
+ * Metrics:
+ * - {@code gateway.revocation.entries} - revoked token ids currently held
+ * - {@code gateway.revocation.hits} - Bloom filter hits, tagged {@code result=revoked|false-positive}
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final ConcurrentMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final long partitionSeconds;
+    private final int expectedPerPartition;
+    private final double falsePositiveRate;
+    private final Counter revokedCounter;
+    private final Counter falsePositiveCounter;
+
+    public TokenRevocationList(RevocationProperties properties, MeterRegistry meterRegistry) {
+        this.partitionSeconds = properties.partitionDuration().toSeconds();
+        this.expectedPerPartition = properties.expectedPerPartition();
+        this.falsePositiveRate = properties.falsePositiveRate();
+        this.revokedCounter = Counter.builder("gateway.revocation.hits")
+                .description("Revocation checks that hit the Bloom filter")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("gateway.revocation.hits")
+                .description("Revocation checks that hit the Bloom filter")
+                .tag("result", "false-positive")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.entries", this, TokenRevocationList::size)
+                .description("Revoked token ids currently held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a revoked token.
+     *
+     * @param tokenId   the token's {@code jti}
+     * @param expiresAt the token's {@code exp} in epoch seconds
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        long now = Instant.now().getEpochSecond();
+        purgeExpired(now);
+        if (expiresAt <= now) {
+            return;
+        }
+        Partition partition = partitions.computeIfAbsent(expiresAt / partitionSeconds,
+                key -> new Partition(new BloomFilter(expectedPerPartition, falsePositiveRate)));
+        partition.add(tokenId);
+        log.debug("Token revoked - Token id: {}, Expires: {}", tokenId, Instant.ofEpochSecond(expiresAt));
+    }
+
+    /**
+     * Check whether a verified token has been revoked.
+     *
+     * @param token the verified token
+     * @return true if the token's id is on the denylist
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.tokenId();
+        if (tokenId == null || partitions.isEmpty()) {
+            return false;
+        }
+        Partition partition = partitions.get(token.expiresAt().getEpochSecond() / partitionSeconds);
+        if (partition == null) {
+            return false;
+        }
+        long hash1 = hash(tokenId);
+        long hash2 = mix(hash1) | 1L;
+        if (!partition.bloom.mightContain(hash1, hash2)) {
+            return false;
+        }
+        boolean revoked = partition.tokenIds.contains(tokenId);
+        (revoked ? revokedCounter : falsePositiveCounter).increment();
+        return revoked;
+    }
+
+    /**
+     * @return number of revoked token ids currently held
+     */
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.tokenIds.size();
+        }
+        return size;
+    }
+
+    private void purgeExpired(long now) {
+        partitions.entrySet().removeIf(entry -> {
+            boolean expired = (entry.getKey() + 1) * partitionSeconds <= now;
+            if (expired) {
+                log.info("Dropping revocation partition ending: {} - Entries: {}, Bloom filter: {} bytes",
+                        Instant.ofEpochSecond((entry.getKey() + 1) * partitionSeconds),
+                        entry.getValue().tokenIds.size(), entry.getValue().bloom.sizeInBytes());
+            }
+            return expired;
+        });
+    }
+
+    /**
+     * 64-bit FNV-1a over the token id's chars, finished with a mix step so the
+     * low bits used for probing are well distributed.
+     */
+    private static long hash(String tokenId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            hash ^= tokenId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Revocations of tokens expiring within one partition's range.
+     */
+    private static final class Partition {
+
+        private final BloomFilter bloom;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        private Partition(BloomFilter bloom) {
+            this.bloom = bloom;
+        }
+
+        private void add(String tokenId) {
+            // Exact set first: once the Bloom filter reports the id, the confirmation sees it too
+            if (tokenIds.add(tokenId)) {
+                long hash1 = hash(tokenId);
+                bloom.put(hash1, mix(hash1) | 1L);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.amsidh.mvc.gatewayservice.revocation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds token revocations published by auth-service into the {@link TokenRevocationList}.
+ * <p>
+ * Every gateway instance must see every revocation, so each instance consumes with
+ * its own consumer group, starting from the earliest retained offset. auth-service
+ * retains the topic for the token lifetime, so a restarted gateway rebuilds its
+ * denylist by replaying the topic.
+ * <p>
+ * Payloads are read as plain JSON ({@code tokenId}, {@code expiresAt}), without
+ * depending on auth-service's event classes.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.revocation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TokenRevocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final TokenRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+
+    public TokenRevocationListener(TokenRevocationList revocationList, ObjectMapper objectMapper) {
+        this.revocationList = revocationList;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = "${gateway.revocation.topic:token-revocation-topic}",
+            groupId = "gateway-revocation-${random.uuid}",
+            properties = "auto.offset.reset=earliest")
+    public void onRevocation(String payload) {
+        try {
+            JsonNode revocation = objectMapper.readTree(payload);
+            String tokenId = revocation.path("tokenId").asText(null);
+            long expiresAt = revocation.path("expiresAt").asLong(0);
+            if (tokenId == null || tokenId.isBlank() || expiresAt <= 0) {
+                log.warn("Ignoring malformed token revocation: {}", payload);
+                return;
+            }
+            revocationList.revoke(tokenId, expiresAt);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable token revocation - Error: {}", e.getMessage());
+        }
+    }
+}
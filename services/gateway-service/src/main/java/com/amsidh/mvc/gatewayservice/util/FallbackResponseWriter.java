@@ -0,0 +1,106 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.amsidh.mvc.gatewayservice.cache.CachedResponse;
+import com.amsidh.mvc.gatewayservice.config.ResilienceProperties;
+import com.amsidh.mvc.gatewayservice.filter.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes the fallback response for a route that is isolated by its circuit
+ * breaker or bulkhead.
+ * <p>
+ * Depending on the route's {@link ResilienceProperties.FallbackMode}, the fallback is
+ * either the last cached response for the request (GET only, when the route has a
+ * response cache) or a fast {@code 503} with a JSON body and {@code Retry-After}.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class FallbackResponseWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FallbackResponseWriter.class);
+
+    private final ResilienceProperties properties;
+    private final ResponseCacheGatewayFilterFactory responseCache;
+    private final Meter.MeterProvider<Counter> fallbackCounter;
+
+    public FallbackResponseWriter(ResilienceProperties properties,
+                                  ResponseCacheGatewayFilterFactory responseCache,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.responseCache = responseCache;
+        this.fallbackCounter = Counter.builder("gateway.fallback")
+                .description("Fallback responses by route, cause and response type")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Write the fallback response.
+     *
+     * @param exchange the current exchange
+     * @param routeId  the isolated route
+     * @param cause    short cause used for metrics and logs (e.g. circuit-breaker, bulkhead)
+     * @return completion of the response write
+     */
+    public Mono<Void> write(ServerWebExchange exchange, String routeId, String cause) {
+        ServerHttpResponse response = exchange.getResponse();
+
+        if (properties.fallbackFor(routeId) == ResilienceProperties.FallbackMode.CACHED
+                && exchange.getRequest().getMethod() == HttpMethod.GET) {
+            Optional<CachedResponse> cached = responseCache.findUsable(
+                    routeId, originalUri(exchange), exchange.getRequest().getHeaders());
+            if (cached.isPresent()) {
+                fallbackCounter.withTags("route", routeId, "cause", cause, "response", "cached").increment();
+                log.debug("Serving cached fallback for route: {} - Cause: {}", routeId, cause);
+                CachedResponse entry = cached.get();
+                response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+                response.getHeaders().putAll(entry.headers());
+                response.getHeaders().setContentLength(entry.body().length);
+                response.getHeaders().set("X-Cache", "FALLBACK");
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+            }
+        }
+
+        fallbackCounter.withTags("route", routeId, "cause", cause, "response", "json").increment();
+        log.warn("Route unavailable, returning fallback - Route: {} | Cause: {}", routeId, cause);
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, properties.waitDurationInOpenState().toSeconds())));
+
+        String body = String.format("{\"status\": %d, \"error\": \"%s\"}",
+                HttpStatus.SERVICE_UNAVAILABLE.value(), routeId + " is temporarily unavailable");
+
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * The URI the client sent, before route filters or a fallback forward rewrote it.
+     */
+    private static URI originalUri(ServerWebExchange exchange) {
+        Set<URI> originalUrls = exchange.getAttributeOrDefault(
+                ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR, Set.of());
+        return originalUrls.isEmpty() ? exchange.getRequest().getURI() : originalUrls.iterator().next();
+    }
+}
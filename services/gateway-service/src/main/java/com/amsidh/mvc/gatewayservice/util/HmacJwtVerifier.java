@@ -0,0 +1,386 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.amsidh.mvc.gatewayservice.config.JwtConfigEnum;
+import com.amsidh.mvc.gatewayservice.exception.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Fast-path verifier for the HMAC tokens issued by auth-service.
+ * <p>
+ * auth-service signs tokens with {@code Jwts.builder().subject().issuedAt().expiration()},
+ * which produces a compact token whose header is exactly {@code {"alg":"HSxxx"}} (plus
+ * {@code "kid"} for keys from the {@link JwtKeyRing}) and whose payload only carries
+ * {@code jti}, {@code sub}, {@code iat} and {@code exp}. For that shape this class verifies the token
+ * without going through the generic jjwt parser:
+ * <p>
+ * - The header segment is compared against pre-encoded headers, no decoding needed;
+ *   the matching header also selects the key, so no key is ever tried on a miss
+ * - The signature is computed with a per-thread {@link Mac} over the raw token bytes
+ * - The payload is scanned in place for {@code jti}, {@code sub} and {@code exp}, no claims map is built
+ * - All scratch buffers are per-thread and reused across calls
+ * <p>
+ * Any other token shape (extra header fields, extra claims, escaped strings, unknown key
+ * ids, other algorithms such as ES256) is not handled here: {@link #verify(String)} returns {@code null} and the
+ * caller falls back to jjwt, which keeps full spec-compliant validation for those tokens.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class HmacJwtVerifier {
+
+    private static final String[] ALGORITHMS = {"HS256", "HS384", "HS512"};
+    private static final String[] MAC_ALGORITHMS = {"HmacSHA256", "HmacSHA384", "HmacSHA512"};
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private static final byte[] BASE64_URL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private volatile HeaderTable headers;
+
+    /**
+     * Verify a token issued by auth-service.
+     *
+     * @param token the compact JWT
+     * @return the verified token, or {@code null} if the token does not have the
+     * expected shape and must be verified by the generic parser
+     * @throws AuthenticationException if the token has the expected shape but its
+     *                                 signature is wrong or it has expired
+     */
+    public VerifiedToken verify(String token) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+
+        HeaderTable table = getHeaders();
+        int entry = table.match(token, firstDot);
+        if (entry < 0) {
+            return null;
+        }
+
+        Scratch s = scratch.get();
+        Mac mac = s.mac(table, entry);
+        if (mac == null) {
+            // Secret too short for this algorithm; let jjwt reject it with its own message
+            return null;
+        }
+        byte[] raw = s.raw;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                return null;
+            }
+            raw[i] = (byte) c;
+        }
+
+        // Signature: HMAC over "<header>.<payload>", compared in constant time
+        mac.update(raw, 0, secondDot);
+        int signatureLength = decode(raw, secondDot + 1, length, s.signature);
+        if (signatureLength != mac.getMacLength()) {
+            mac.reset();
+            throw new AuthenticationException("Invalid token");
+        }
+        try {
+            mac.doFinal(s.expected, 0);
+        } catch (GeneralSecurityException e) {
+            throw new AuthenticationException("Token validation failed", e);
+        }
+        if (!constantTimeEquals(s.expected, s.signature, signatureLength)) {
+            throw new AuthenticationException("Invalid token");
+        }
+
+        int payloadLength = decode(raw, firstDot + 1, secondDot, s.payload);
+        if (payloadLength < 0) {
+            return null;
+        }
+        return readClaims(s.payload, payloadLength);
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private HeaderTable getHeaders() {
+        HeaderTable table = headers;
+        if (table == null) {
+            table = new HeaderTable(JwtConfigEnum.INSTANCE.getKeyRing().getSecrets());
+            headers = table;
+        }
+        return table;
+    }
+
+    /**
+     * Scan the payload JSON for {@code jti}, {@code sub} and {@code exp}.
+     * <p>
+     * Only a flat object with the claims auth-service issues is accepted; anything
+     * else returns {@code null} so the generic parser makes the decision.
+     */
+    private static VerifiedToken readClaims(byte[] json, int length) {
+        int i = skipWhitespace(json, 0, length);
+        if (i >= length || json[i++] != '{') {
+            return null;
+        }
+
+        String subject = null;
+        String tokenId = null;
+        long exp = -1;
+        boolean first = true;
+        while (true) {
+            i = skipWhitespace(json, i, length);
+            if (i < length && json[i] == '}') {
+                i++;
+                break;
+            }
+            if (!first) {
+                if (i >= length || json[i++] != ',') {
+                    return null;
+                }
+                i = skipWhitespace(json, i, length);
+            }
+            first = false;
+
+            // Key
+            if (i >= length || json[i++] != '"') {
+                return null;
+            }
+            int keyStart = i;
+            int keyEnd = indexOfQuote(json, i, length);
+            if (keyEnd < 0) {
+                return null;
+            }
+            i = skipWhitespace(json, keyEnd + 1, length);
+            if (i >= length || json[i++] != ':') {
+                return null;
+            }
+            i = skipWhitespace(json, i, length);
+
+            // Value
+            boolean isSubject = keyEquals(json, keyStart, keyEnd, "sub");
+            if (isSubject || keyEquals(json, keyStart, keyEnd, "jti")) {
+                if ((isSubject ? subject : tokenId) != null || i >= length || json[i++] != '"') {
+                    return null;
+                }
+                int valueEnd = indexOfQuote(json, i, length);
+                if (valueEnd < 0 || valueEnd == i) {
+                    return null;
+                }
+                String value = new String(json, i, valueEnd - i, StandardCharsets.UTF_8);
+                if (isSubject) {
+                    subject = value;
+                } else {
+                    tokenId = value;
+                }
+                i = valueEnd + 1;
+            } else if (keyEquals(json, keyStart, keyEnd, "exp") || keyEquals(json, keyStart, keyEnd, "iat")) {
+                long value = 0;
+                int digitsStart = i;
+                while (i < length && json[i] >= '0' && json[i] <= '9' && i - digitsStart < 18) {
+                    value = value * 10 + (json[i++] - '0');
+                }
+                if (i == digitsStart) {
+                    return null;
+                }
+                if (json[keyStart] == 'e') {
+                    if (exp >= 0) {
+                        return null;
+                    }
+                    exp = value;
+                }
+            } else {
+                return null;
+            }
+        }
+
+        if (skipWhitespace(json, i, length) != length || subject == null || exp < 0) {
+            return null;
+        }
+        VerifiedToken verified = new VerifiedToken(subject, Instant.ofEpochSecond(exp), tokenId);
+        if (verified.isExpiredAt(Instant.now())) {
+            throw new AuthenticationException("Token has expired");
+        }
+        return verified;
+    }
+
+    private static boolean keyEquals(byte[] json, int start, int end, String key) {
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (json[start + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the closing quote of a JSON string. Escaped strings are not handled
+     * on the fast path, so a backslash makes the whole token fall back.
+     */
+    private static int indexOfQuote(byte[] json, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (json[i] == '"') {
+                return i;
+            }
+            if (json[i] == '\\' || (json[i] >= 0 && json[i] < 0x20)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] json, int from, int length) {
+        int i = from;
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Decode unpadded base64url from {@code src[from, to)} into {@code dst}.
+     *
+     * @return the number of decoded bytes, or -1 if the input is not valid base64url
+     */
+    private static int decode(byte[] src, int from, int to, byte[] dst) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int out = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < to; i++) {
+            byte c = src[i];
+            int value = c < 0 ? -1 : BASE64_URL_VALUES[c];
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[out++] = (byte) (bits >> bitCount);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Pre-encoded headers for every (secret, algorithm) pair of the key ring.
+     * <p>
+     * The legacy secret is matched by {@code {"alg":"A"}}; keyed secrets by
+     * {@code {"kid":"K","alg":"A"}} and {@code {"alg":"A","kid":"K"}}, since the field
+     * order depends on the issuing library.
+     */
+    private static final class HeaderTable {
+
+        private final List<JwtKeyRing.HmacSecret> secrets;
+        private final String[] encoded;
+        private final int[] secretIndex;
+        private final int[] algorithm;
+
+        private HeaderTable(List<JwtKeyRing.HmacSecret> secrets) {
+            this.secrets = secrets;
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            List<String> headers = new ArrayList<>();
+            List<int[]> owners = new ArrayList<>();
+            for (int k = 0; k < secrets.size(); k++) {
+                String kid = secrets.get(k).kid();
+                for (int a = 0; a < ALGORITHMS.length; a++) {
+                    String alg = "\"alg\":\"" + ALGORITHMS[a] + "\"";
+                    List<String> variants = kid == null
+                            ? List.of("{" + alg + "}")
+                            : List.of("{\"kid\":\"" + kid + "\"," + alg + "}", "{" + alg + ",\"kid\":\"" + kid + "\"}");
+                    for (String header : variants) {
+                        headers.add(encoder.encodeToString(header.getBytes(StandardCharsets.US_ASCII)));
+                        owners.add(new int[]{k, a});
+                    }
+                }
+            }
+            this.encoded = headers.toArray(String[]::new);
+            this.secretIndex = owners.stream().mapToInt(owner -> owner[0]).toArray();
+            this.algorithm = owners.stream().mapToInt(owner -> owner[1]).toArray();
+        }
+
+        private int match(String token, int firstDot) {
+            for (int i = 0; i < encoded.length; i++) {
+                String header = encoded[i];
+                if (header.length() == firstDot && token.regionMatches(0, header, 0, firstDot)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Per-thread scratch state: one {@link Mac} per (secret, algorithm) plus reusable buffers.
+     */
+    private static final class Scratch {
+
+        private final byte[] raw = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] payload = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] signature = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] expected = new byte[64];
+
+        private Mac[] macs;
+        private boolean[] unusable;
+
+        /**
+         * @return the initialized Mac, or {@code null} if the secret is shorter than
+         * the algorithm's output length (jjwt rejects such keys as too weak)
+         */
+        private Mac mac(HeaderTable table, int entry) {
+            if (macs == null) {
+                macs = new Mac[table.secrets.size() * MAC_ALGORITHMS.length];
+                unusable = new boolean[macs.length];
+            }
+            int algorithm = table.algorithm[entry];
+            int slot = table.secretIndex[entry] * MAC_ALGORITHMS.length + algorithm;
+            Mac mac = macs[slot];
+            if (mac == null && !unusable[slot]) {
+                try {
+                    byte[] key = table.secrets.get(table.secretIndex[entry]).secret();
+                    mac = Mac.getInstance(MAC_ALGORITHMS[algorithm]);
+                    if (key.length < mac.getMacLength()) {
+                        unusable[slot] = true;
+                        return null;
+                    }
+                    mac.init(new SecretKeySpec(key, MAC_ALGORITHMS[algorithm]));
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Unable to initialize " + MAC_ALGORITHMS[algorithm], e);
+                }
+                macs[slot] = mac;
+            }
+            return mac;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Public keys for asymmetric (ES256) tokens, taken from auth-service's JWK Set.
+ * <p>
+ * The JWK Set at {@code jwt.jwks-uri} is fetched at startup and then every
+ * {@code jwt.jwks-refresh-interval} in the background. Lookups are a single read of an
+ * immutable map and never touch the network: a token with an unknown {@code kid} is
+ * rejected and only triggers an early background refresh (at most one per
+ * {@code MIN_REFRESH_INTERVAL}), so a key that was just rotated in becomes usable within
+ * seconds without letting forged key ids drive traffic to auth-service.
+ * <p>
+ * Without {@code jwt.jwks-uri} the source stays empty and only HMAC keys are used.
+ *
+ * @author Amsidh Mohammed
+ */
+@Component
+public class JwksKeySource {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeySource.class);
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    private static final long MIN_REFRESH_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final WebClient webClient;
+    private final String jwksUri;
+    private final Duration refreshInterval;
+    private final AtomicLong lastFetchNanos = new AtomicLong(System.nanoTime() - MIN_REFRESH_INTERVAL_NANOS);
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private Disposable refresher;
+
+    public JwksKeySource(@LoadBalanced WebClient.Builder webClientBuilder,
+                         @Value("${jwt.jwks-uri:}") String jwksUri,
+                         @Value("${jwt.jwks-refresh-interval:5m}") Duration refreshInterval,
+                         MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.jwksUri = jwksUri.trim();
+        this.refreshInterval = refreshInterval;
+        Gauge.builder("gateway.jwt.jwks.keys", this, source -> source.keys.size())
+                .description("Public keys currently loaded from the JWK Set")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (jwksUri.isEmpty()) {
+            return;
+        }
+        log.info("Loading JWT public keys from: {} - Refresh Interval: {}", jwksUri, refreshInterval);
+        refresher = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> fetch())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    /**
+     * Look up a public key by id.
+     *
+     * @param kid the token's key id
+     * @return the key, or {@code null} if it is not (yet) known
+     */
+    public PublicKey find(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            requestRefresh();
+        }
+        return key;
+    }
+
+    private void requestRefresh() {
+        if (jwksUri.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastFetchNanos.get();
+        if (now - last >= MIN_REFRESH_INTERVAL_NANOS && lastFetchNanos.compareAndSet(last, now)) {
+            fetch().subscribe();
+        }
+    }
+
+    private Mono<Void> fetch() {
+        lastFetchNanos.set(System.nanoTime());
+        return webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(FETCH_TIMEOUT)
+                .doOnNext(this::update)
+                .onErrorResume(error -> {
+                    // Keep the last known keys; the next refresh tries again
+                    log.warn("Unable to refresh JWT public keys from: {} - Error: {}", jwksUri, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void update(JsonNode jwks) {
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            String kid = jwk.path("kid").asText(null);
+            if (kid == null || !"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())) {
+                continue;
+            }
+            try {
+                loaded.put(kid, ecPublicKey(jwk.path("x").asText(), jwk.path("y").asText()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping invalid JWK with kid: {} - Error: {}", kid, e.getMessage());
+            }
+        }
+        if (!loaded.keySet().equals(keys.keySet())) {
+            log.info("JWT public keys updated - Key Ids: {}", loaded.keySet());
+        }
+        keys = Map.copyOf(loaded);
+    }
+
+    private static PublicKey ecPublicKey(String x, String y) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(new BigInteger(1, decoder.decode(x)), new BigInteger(1, decoder.decode(y)));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec));
+    }
+}
@@ -0,0 +1,91 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of HMAC verification keys indexed by key id ({@code kid}).
+ * <p>
+ * Loaded once at startup from {@code jwt.keys.<kid>.secret}. Tokens without a
+ * {@code kid} header are verified with the legacy {@code jwt.secret}, so tokens
+ * issued before key ids were introduced stay valid until they expire.
+ * <p>
+ * Asymmetric (ES256) keys are not configured here; their public keys come from
+ * auth-service's JWK Set through {@link JwksKeySource}.
+ *
+ * @author Amsidh Mohammed
+ */
+public final class JwtKeyRing {
+
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final SecretKey legacyKey;
+    private final Map<String, SecretKey> keys;
+    private final List<HmacSecret> secrets;
+
+    private JwtKeyRing(SecretKey legacyKey, Map<String, SecretKey> keys, List<HmacSecret> secrets) {
+        this.legacyKey = legacyKey;
+        this.keys = keys;
+        this.secrets = secrets;
+    }
+
+    /**
+     * Build the ring from configuration.
+     *
+     * @param legacySecret secret for tokens without a {@code kid}
+     * @param secrets      HMAC secrets by key id
+     * @return the key ring
+     * @throws IllegalStateException if a key id is not a plain token
+     */
+    public static JwtKeyRing of(String legacySecret, Map<String, String> secrets) {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        List<HmacSecret> rawSecrets = new ArrayList<>();
+        byte[] legacyBytes = legacySecret.getBytes(StandardCharsets.UTF_8);
+        rawSecrets.add(new HmacSecret(null, legacyBytes));
+        secrets.forEach((kid, secret) -> {
+            // Key ids end up inside pre-encoded JSON headers, so only plain tokens are allowed
+            if (!KEY_ID.matcher(kid).matches()) {
+                throw new IllegalStateException("Invalid JWT key id: " + kid);
+            }
+            byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+            keys.put(kid, Keys.hmacShaKeyFor(bytes));
+            rawSecrets.add(new HmacSecret(kid, bytes));
+        });
+        return new JwtKeyRing(Keys.hmacShaKeyFor(legacyBytes),
+                Collections.unmodifiableMap(keys), List.copyOf(rawSecrets));
+    }
+
+    /**
+     * Look up the HMAC key for a token.
+     *
+     * @param kid the token's {@code kid} header, or {@code null}
+     * @return the key, or {@code null} if the ring has no HMAC key with that id
+     */
+    public SecretKey find(String kid) {
+        return kid == null ? legacyKey : keys.get(kid);
+    }
+
+    /**
+     * @return raw HMAC secrets, the legacy secret first (with a {@code null} kid)
+     */
+    public List<HmacSecret> getSecrets() {
+        return secrets;
+    }
+
+    /**
+     * Raw HMAC secret for the fast-path verifier.
+     *
+     * @param kid    key id, {@code null} for the legacy secret
+     * @param secret secret bytes
+     */
+    public record HmacSecret(String kid, byte[] secret) {
+    }
+}
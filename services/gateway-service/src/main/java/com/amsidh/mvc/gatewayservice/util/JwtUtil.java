@@ -5,31 +5,36 @@ import com.amsidh.mvc.gatewayservice.exception.AuthenticationException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.InvalidKeyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.function.Function;
 
 /**
  * Utility class for JWT token operations.
  * <p>
- * Handles JWT token generation, validation, and claims extraction.
- * Uses HS256 (HMAC with SHA-256) algorithm for token signing.
+ * Handles JWT token validation and claims extraction.
  * <p>
  * Token Structure:
- * - Header: Algorithm and token type
+ * - Header: Algorithm and, for rotated keys, the key id ({@code kid})
  * - Payload: Claims (subject/email, issued date, expiration)
- * - Signature: HMAC SHA-256 signature
+ * - Signature: HMAC (HS256/384/512) or ECDSA P-256 (ES256) signature
+ * <p>
+ * Key Selection:
+ * - The verification key is picked by the token's {@code kid}, never by trying keys in turn
+ * - HMAC keys come from {@link JwtKeyRing}; tokens without a {@code kid} use {@code jwt.secret}
+ * - ES256 public keys come from auth-service's JWK Set via {@link JwksKeySource}
  * <p>
  * Security Notes:
- * - Secret key must be at least 256 bits (32 bytes) for HS256
+ * - HMAC secrets must be at least 256 bits (32 bytes)
  * - Tokens are stateless - no server-side session storage
  * - Token validation checks signature, expiration, and subject
  *
@@ -38,6 +43,16 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    private final HmacJwtVerifier hmacJwtVerifier;
+    private final JwksKeySource jwksKeySource;
+    private volatile JwtParser parser;
+
+    public JwtUtil(HmacJwtVerifier hmacJwtVerifier, JwksKeySource jwksKeySource) {
+        this.hmacJwtVerifier = hmacJwtVerifier;
+        this.jwksKeySource = jwksKeySource;
+    }
+
     /**
      * Validate the JWT token.
      * <p>
@@ -75,6 +90,42 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Verify the JWT token in a single parse.
+     * <p>
+     * Checks the signature and expiration once and returns the subject and
+     * expiry together, so callers do not need to re-parse the token for each
+     * claim they are interested in.
+     * <p>
+     * Tokens in the exact shape auth-service issues are handled by
+     * {@link HmacJwtVerifier}; any other token goes through the jjwt parser.
+     *
+     * @param token the JWT token
+     * @return the verified subject and expiry
+     * @throws AuthenticationException if the token is invalid, expired or has no subject
+     */
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken fastPath = hmacJwtVerifier.verify(token);
+        if (fastPath != null) {
+            return fastPath;
+        }
+        try {
+            Claims claims = extractAllClaims(token);
+            String email = claims.getSubject();
+            Date expiration = claims.getExpiration();
+            if (email == null || email.isBlank() || expiration == null) {
+                throw new AuthenticationException("Invalid token");
+            }
+            return new VerifiedToken(email, expiration.toInstant(), claims.getId());
+        } catch (ExpiredJwtException e) {
+            log.error("Token has expired: {}", e.getMessage());
+            throw new AuthenticationException("Token has expired", e);
+        } catch (JwtException e) {
+            log.error("Invalid token: {}", e.getMessage());
+            throw new AuthenticationException("Invalid token", e);
+        }
+    }
+
     /**
      * Extract the email (subject) from the JWT token.
      *
@@ -128,9 +179,7 @@ public class JwtUtil {
      * @throws JwtException if token is invalid or expired
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -155,15 +204,39 @@ public class JwtUtil {
 
 
     /**
-     * Get the signing key for JWT token operations.
+     * Get the JWT parser, built once and reused.
      * <p>
-     * Converts the SECRET_KEY string to a SecretKey object.
-     * Key must be at least 256 bits (32 bytes) for HS256 algorithm.
+     * The parser resolves the verification key from the token's {@code kid} header.
      *
-     * @return the signing key
+     * @return the parser
+     */
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser()
+                    .keyLocator(new KeyIdLocator())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
+    /**
+     * Resolves the verification key by key id: HMAC keys first, then the JWK Set.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = JwtConfigEnum.INSTANCE.getJwtSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final class KeyIdLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            String kid = header.getKeyId();
+            Key key = JwtConfigEnum.INSTANCE.getKeyRing().find(kid);
+            if (key == null && kid != null) {
+                key = jwksKeySource.find(kid);
+            }
+            if (key == null) {
+                throw new InvalidKeyException("Unknown key id: " + kid);
+            }
+            return key;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fast trace id handling for the gateway edge.
+ * <p>
+ * Generates 128-bit, lower-case hex trace ids, the format shared by W3C
+ * {@code traceparent} and B3 {@code X-B3-TraceId}. Ids come from
+ * {@link ThreadLocalRandom}, so generation never contends on a shared
+ * {@code SecureRandom} the way {@code UUID.randomUUID()} does.
+ *
+ * @author Amsidh Mohammed
+ */
+public final class TraceIdGenerator {
+
+    public static final String B3_TRACE_ID = "X-B3-TraceId";
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIdGenerator() {
+    }
+
+    /**
+     * Resolve the trace id of an incoming request.
+     * <p>
+     * Uses the W3C {@code traceparent} header first, then {@code X-B3-TraceId}.
+     *
+     * @param headers the request headers
+     * @return the caller's trace id, or {@code null} if none was sent
+     */
+    public static String fromHeaders(HttpHeaders headers) {
+        String traceparent = headers.getFirst(TRACEPARENT);
+        // version(2) - trace-id(32) - parent-id(16) - flags(2)
+        if (traceparent != null && traceparent.length() >= 55 && traceparent.charAt(2) == '-') {
+            return traceparent.substring(3, 35);
+        }
+        String b3 = headers.getFirst(B3_TRACE_ID);
+        return b3 == null || b3.isEmpty() ? null : b3;
+    }
+
+    /**
+     * Generate a new, non-zero 128-bit trace id as 32 hex characters.
+     *
+     * @return the trace id
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low;
+        do {
+            low = random.nextLong();
+        } while (low == 0L);
+
+        char[] chars = new char[32];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, 16);
+        return new String(chars);
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import java.time.Instant;
+
+/**
+ * Result of a successful JWT verification.
+ * <p>
+ * Holds only what the gateway needs downstream: the subject (user email),
+ * the instant at which the token stops being valid and the token id used
+ * for revocation checks.
+ *
+ * @param email     the token subject
+ * @param expiresAt the token's {@code exp} claim
+ * @param tokenId   the token's {@code jti} claim, {@code null} for tokens issued without one
+ * @author Amsidh Mohammed
+ */
+public record VerifiedToken(String email, Instant expiresAt, String tokenId) {
+
+    /**
+     * Check whether the token has expired at the given instant.
+     *
+     * @param now the instant to check against
+     * @return true if the token is no longer valid
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
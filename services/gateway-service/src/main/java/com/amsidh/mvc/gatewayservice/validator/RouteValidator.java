@@ -1,49 +1,120 @@
 package com.amsidh.mvc.gatewayservice.validator;
 
+import com.amsidh.mvc.gatewayservice.config.GatewaySecurityProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.function.Predicate;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Decides whether a request path requires authentication.
+ * <p>
+ * The open (public) endpoints from {@link GatewaySecurityProperties} are compiled
+ * once at startup into a segment trie. A path is open when one of the configured
+ * prefixes matches it on whole segments, so {@code /eureka} opens {@code /eureka/apps}
+ * but not {@code /foo/eureka-bar}.
+ * <p>
+ * Decisions are kept in a small bounded cache keyed by path, so repeated requests
+ * to the same path are a single map lookup.
+ */
 @Component
 public class RouteValidator {
     private static final Logger log = LoggerFactory.getLogger(RouteValidator.class);
 
-    // List of public endpoints that don't require authentication
-    private static final List<String> openApiEndpoints = List.of(
-            "/api/v1/auth-service/auth/register",
-            "/api/v1/auth-service/auth/token",
-            "/api/v1/auth-service/auth/validate",
-            "/actuator",
-            "/auth/login",
-            "/auth/validate",
-            "/auth/forgot-password",
-            "/auth/reset-password",
-            "/eureka",
-            "/actuator",
-            "/swagger-ui",
-            "/v3/api-docs",
-            "/webjars",
-            "/swagger-resources");
-
-    // Generic predicate that checks for open API endpoints
-    // Generic predicate that checks for open API endpoints
-    public static final Predicate<ServerHttpRequest> isSecured =
-            request -> {
-                final String path = request.getURI().getPath().split("#")[0].split("\\?")[0];
-                log.info("Checking path: {}", path);
-
-                // Check if a path contains any of the open API patterns
-                final boolean isOpenApiEndpoint = openApiEndpoints.stream()
-                        .anyMatch(path::contains);
-
-                final boolean isSecured = !isOpenApiEndpoint;
-                log.info("Path '{}' is secured: {}", path, isSecured);
-                return isSecured;
-            };
+    private static final String WILDCARD = "*";
 
-}
+    private final Node root = new Node();
+    private final Cache<String, Boolean> decisions;
+
+    public RouteValidator(GatewaySecurityProperties properties) {
+        properties.openEndpoints().forEach(this::addOpenEndpoint);
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(properties.decisionCacheSize())
+                .build();
+        log.info("Route validator initialized with open endpoints: {}", properties.openEndpoints());
+    }
+
+    /**
+     * Check whether the request targets a secured (non-public) endpoint.
+     *
+     * @param request the incoming request
+     * @return true if the request must carry a valid token
+     */
+    public boolean isSecured(ServerHttpRequest request) {
+        return isSecured(request.getURI().getPath());
+    }
+
+    /**
+     * Check whether the path is secured.
+     *
+     * @param path the request path, without query string or fragment
+     * @return true if the path is not covered by an open endpoint
+     */
+    public boolean isSecured(String path) {
+        Boolean secured = decisions.getIfPresent(path);
+        if (secured == null) {
+            secured = !matchesOpenEndpoint(path);
+            decisions.put(path, secured);
+            log.debug("Path '{}' is secured: {}", path, secured);
+        }
+        return secured;
+    }
+
+    private void addOpenEndpoint(String endpoint) {
+        Node node = root;
+        int start = 0;
+        int length = endpoint.length();
+        while (start < length) {
+            int end = endpoint.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.children.computeIfAbsent(endpoint.substring(start, end), segment -> new Node());
+            }
+            start = end + 1;
+        }
+        node.open = true;
+    }
 
+    private boolean matchesOpenEndpoint(String path) {
+        return matches(root, path, 0);
+    }
+
+    private static boolean matches(Node node, String path, int start) {
+        if (node.open) {
+            return true;
+        }
+        int length = path.length();
+        while (start < length && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= length) {
+            return false;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+
+        Node exact = node.children.get(path.substring(start, end));
+        if (exact != null && matches(exact, path, end)) {
+            return true;
+        }
+        Node wildcard = node.children.get(WILDCARD);
+        return wildcard != null && matches(wildcard, path, end);
+    }
+
+    /**
+     * One path segment in the open-endpoint trie.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean open;
+    }
+}
@@ -0,0 +1,260 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import com.amsidh.mvc.gatewayservice.config.HedgingProperties;
+import com.amsidh.mvc.gatewayservice.hedging.HedgeBudget;
+import com.amsidh.mvc.gatewayservice.hedging.LatencyPercentile;
+import com.amsidh.mvc.gatewayservice.loadbalancer.InstanceLoadTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HedgeGatewayFilterFactoryTest {
+
+    private static final ServiceInstance FIRST = new DefaultServiceInstance("a", "CUSTOMER-SERVICE", "10.0.0.1", 8080, false);
+    private static final ServiceInstance SECOND = new DefaultServiceInstance("b", "CUSTOMER-SERVICE", "10.0.0.2", 8080, false);
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoadBalancerClientFactory loadBalancerClientFactory;
+    private GatewayFilterChain chain;
+    private final AtomicInteger sent = new AtomicInteger();
+    // Answers each attempt by target host; a missing host never answers
+    private final Map<String, Function<ClientRequest, Mono<ClientResponse>>> instances = new HashMap<>();
+    private HedgeGatewayFilterFactory factory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loadBalancerClientFactory = mock(LoadBalancerClientFactory.class);
+        chain = mock(GatewayFilterChain.class);
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    sent.incrementAndGet();
+                    return instances.getOrDefault(request.url().getHost(), any -> Mono.never()).apply(request);
+                })
+                .build();
+        HedgingProperties properties = new HedgingProperties(null, null);
+        factory = new HedgeGatewayFilterFactory(loadBalancerClientFactory, mock(InstanceLoadTracker.class),
+                new HedgeBudget(properties, meterRegistry), headersFilters, new HttpClientProperties(),
+                meterRegistry, webClient);
+    }
+
+    @Test
+    void runsAfterRequestUrlIsResolved() {
+        GatewayFilter filter = factory.apply(config(95.0));
+
+        assertThat(filter).isInstanceOf(Ordered.class);
+        assertThat(((Ordered) filter).getOrder()).isGreaterThan(RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER);
+    }
+
+    @Test
+    void largeResponseIsStreamedWithoutSendingAgain() {
+        loadBalancer(FIRST);
+        byte[] chunk = new byte[512 * 1024];
+        instances.put("10.0.0.1", request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.range(0, 4).map(i -> DefaultDataBufferFactory.sharedInstance.wrap(chunk)))
+                .build()));
+        MockServerWebExchange exchange = exchange(route(null));
+
+        factory.apply(config(95.0)).filter(exchange, chain).block(Duration.ofSeconds(1));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBody().map(DataBuffer::readableByteCount).reduce(0, Integer::sum)
+                .block()).isEqualTo(4 * chunk.length);
+        assertThat(sent.get()).isEqualTo(1);
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void failedPrimaryReturnsItsOwnErrorWithoutHedging() {
+        loadBalancer(FIRST, SECOND);
+        ConnectException refused = new ConnectException("Connection refused");
+        instances.put("10.0.0.1", request -> Mono.error(
+                new WebClientRequestException(refused, HttpMethod.GET, request.url(), new HttpHeaders())));
+
+        Throwable error = failure(factory.apply(config(95.0)), exchange(route(null)));
+
+        assertThat(error).isSameAs(refused);
+        assertThat(sent.get()).isEqualTo(1);
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void missingInstanceIsNotFound() {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = mock(ReactiveLoadBalancer.class);
+        when(loadBalancer.choose()).thenReturn(Mono.just(new EmptyResponse()));
+        when(loadBalancerClientFactory.getInstance("CUSTOMER-SERVICE")).thenReturn(loadBalancer);
+
+        Throwable error = failure(factory.apply(config(95.0)), exchange(route(null)));
+
+        assertThat(error).isInstanceOf(NotFoundException.class);
+        assertThat(sent.get()).isZero();
+    }
+
+    @Test
+    void slowPrimaryIsAnsweredByHedge() {
+        loadBalancer(FIRST, SECOND);
+        instances.put("10.0.0.2", request -> Mono.just(ClientResponse.create(HttpStatus.OK).body("hedged").build()));
+        HedgeGatewayFilterFactory.Config config = config(95.0);
+        config.setMaxDelay(Duration.ofMillis(20));
+        MockServerWebExchange exchange = exchange(route(null));
+
+        factory.apply(config).filter(exchange, chain).block(Duration.ofSeconds(1));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("hedged");
+        assertThat(sent.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway.hedge.requests").tag("result", "hedge-won").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void unansweredRequestTimesOutLikeTheRoutingFilter() {
+        // A single instance: no hedge can be sent and the primary never answers
+        loadBalancer(FIRST);
+
+        Throwable error = failure(factory.apply(config(95.0)), exchange(route(50)));
+
+        assertThat(error).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) error).getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void delayUsesMaxDelayUntilSamplesExist() {
+        factory.apply(config(95.0));
+
+        assertThat(factory.routeHedge("customer-service").delay()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void learnedLatencySurvivesRouteRefresh() {
+        factory.apply(config(95.0));
+        HedgeGatewayFilterFactory.RouteHedge routeHedge = factory.routeHedge("customer-service");
+        LatencyPercentile latency = routeHedge.latency();
+        latency.record(TimeUnit.MILLISECONDS.toNanos(50));
+
+        factory.apply(config(95.0));
+
+        assertThat(factory.routeHedge("customer-service")).isSameAs(routeHedge);
+        assertThat(routeHedge.latency()).isSameAs(latency);
+        assertThat(meterRegistry.find("gateway.hedge.delay").gauges()).hasSize(1);
+    }
+
+    @Test
+    void gaugeFollowsRefreshedConfig() {
+        factory.apply(config(95.0));
+        HedgeGatewayFilterFactory.Config refreshed = config(95.0);
+        refreshed.setMaxDelay(Duration.ofMillis(300));
+
+        factory.apply(refreshed);
+
+        assertThat(meterRegistry.get("gateway.hedge.delay").gauge().value()).isEqualTo(300.0);
+    }
+
+    @Test
+    void changedPercentileStartsOver() {
+        factory.apply(config(95.0));
+        HedgeGatewayFilterFactory.RouteHedge routeHedge = factory.routeHedge("customer-service");
+        LatencyPercentile latency = routeHedge.latency();
+
+        factory.apply(config(99.0));
+
+        assertThat(routeHedge.latency()).isNotSameAs(latency);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadBalancer(ServiceInstance... choices) {
+        AtomicInteger next = new AtomicInteger();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = mock(ReactiveLoadBalancer.class);
+        when(loadBalancer.choose()).thenReturn(Mono.fromSupplier(
+                () -> new DefaultResponse(choices[next.getAndIncrement() % choices.length])));
+        when(loadBalancerClientFactory.getInstance("CUSTOMER-SERVICE")).thenReturn(loadBalancer);
+    }
+
+    private Throwable failure(GatewayFilter filter, MockServerWebExchange exchange) {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        filter.filter(exchange, chain)
+                .onErrorResume(failure -> {
+                    error.set(failure);
+                    return Mono.empty();
+                })
+                .block(Duration.ofSeconds(1));
+        return error.get();
+    }
+
+    private static Route route(Integer responseTimeoutMillis) {
+        Route.AsyncBuilder route = Route.async()
+                .id("customer-service")
+                .uri(URI.create("lb://CUSTOMER-SERVICE"))
+                .predicate(exchange -> true);
+        if (responseTimeoutMillis != null) {
+            route.metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis);
+        }
+        return route.build();
+    }
+
+    private static MockServerWebExchange exchange(Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/customers/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("lb://CUSTOMER-SERVICE/customers/1"));
+        return exchange;
+    }
+
+    private static HedgeGatewayFilterFactory.Config config(double percentile) {
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setRouteId("customer-service");
+        config.setPercentile(percentile);
+        return config;
+    }
+}
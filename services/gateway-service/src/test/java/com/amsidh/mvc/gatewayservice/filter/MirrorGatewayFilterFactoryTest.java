@@ -0,0 +1,80 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MirrorGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MirrorGatewayFilterFactory factory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+        // Shadow requests never complete, so every mirror stays in flight
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> Mono.never());
+        factory = new MirrorGatewayFilterFactory(webClientBuilder, headersFilters, meterRegistry);
+    }
+
+    @Test
+    void maxConcurrentHoldsAcrossRouteRefresh() {
+        send(factory.apply(config()));
+        assertThat(factory.inFlight("product-service")).isEqualTo(1);
+
+        // Route refresh (Eureka heartbeat) re-applies the filter
+        send(factory.apply(config()));
+
+        assertThat(factory.inFlight("product-service")).isEqualTo(1);
+        assertThat(count("mirrored")).isEqualTo(1.0);
+        assertThat(count("saturated")).isEqualTo(1.0);
+    }
+
+    @Test
+    void requestsWithBodyAreNotMirrored() {
+        GatewayFilter filter = factory.apply(config());
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/products/1").header("Content-Length", "12"));
+        filter.filter(exchange, primary -> Mono.empty()).block();
+
+        assertThat(factory.inFlight("product-service")).isZero();
+        assertThat(count("has-body")).isEqualTo(1.0);
+    }
+
+    private static void send(GatewayFilter filter) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/1"));
+        filter.filter(exchange, primary -> Mono.empty()).block();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.mirror.requests").tag("result", result).counter().count();
+    }
+
+    private static MirrorGatewayFilterFactory.Config config() {
+        MirrorGatewayFilterFactory.Config config = new MirrorGatewayFilterFactory.Config();
+        config.setRouteId("product-service");
+        config.setUri(URI.create("http://product-canary:8050"));
+        config.setPercentage(100.0);
+        config.setMaxConcurrent(1);
+        return config;
+    }
+}
@@ -0,0 +1,133 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("product-service")
+            .uri(URI.create("lb://PRODUCT-SERVICE"))
+            .predicate(exchange -> true)
+            .metadata(RequestCoalescingFilter.COALESCE_METADATA_KEY, true)
+            .build();
+
+    private RequestCoalescingFilter filter;
+    private StreamingChain chain;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestCoalescingFilter(new SimpleMeterRegistry(), DataSize.ofBytes(16));
+        chain = new StreamingChain();
+    }
+
+    @Test
+    void followersShareChunkedBodyWithinLimit() {
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+
+        chain.emit("{\"id\":");
+        chain.emit("1}");
+        assertThat(followerDone).isNotDone();
+        chain.complete();
+
+        assertThat(leaderDone).isCompleted();
+        assertThat(followerDone).isCompleted();
+        assertThat(chain.calls.get()).isEqualTo(1);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void chunkedBodyLargerThanLimitIsStreamedAndNotShared() {
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+
+        // No Content-Length: the limit is only known to be exceeded while the body streams
+        chain.emit("0123456789");
+        assertThat(followerDone).isNotDone();
+        chain.emit("0123456789");
+
+        // The follower is released as soon as the copy is dropped, not when the leader ends
+        assertThat(followerDone).isCompleted();
+        assertThat(leaderDone).isNotDone();
+        assertThat(chain.calls.get()).isEqualTo(2);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("own response");
+
+        chain.emit("0123456789");
+        chain.complete();
+        assertThat(leaderDone).isCompleted();
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("012345678901234567890123456789");
+    }
+
+    @Test
+    void nextRequestAfterLeaderCompletesGoesDownstream() {
+        CompletableFuture<Void> leaderDone = filter.filter(exchange(), chain).toFuture();
+        chain.emit("{\"id\":1}");
+        chain.complete();
+        assertThat(leaderDone).isCompleted();
+
+        MockServerWebExchange later = exchange();
+        filter.filter(later, chain).block();
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+        assertThat(later.getResponse().getBodyAsString().block()).isEqualTo("own response");
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+
+    /**
+     * Downstream stand-in: the first call streams a chunked body controlled by the test,
+     * later calls answer at once.
+     */
+    private static final class StreamingChain implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Sinks.Many<String> leaderBody = Sinks.many().unicast().onBackpressureBuffer();
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            Flux<String> chunks = calls.incrementAndGet() == 1 ? leaderBody.asFlux() : Flux.just("own response");
+            return response.writeWith(chunks
+                    .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        }
+
+        void emit(String chunk) {
+            leaderBody.tryEmitNext(chunk).orThrow();
+        }
+
+        void complete() {
+            leaderBody.tryEmitComplete().orThrow();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.amsidh.mvc.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheGatewayFilterFactory factory;
+    private ResponseCacheGatewayFilterFactory.Config config;
+    private StubChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new ResponseCacheGatewayFilterFactory(meterRegistry, WebClient.builder());
+        config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("product-service");
+        chain = new StubChain();
+    }
+
+    @Test
+    void secondIdenticalGetIsServedFromCache() {
+        GatewayFilter filter = factory.apply(config);
+
+        MockServerHttpResponse first = execute(filter, get("/products/1"));
+        MockServerHttpResponse second = execute(filter, get("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(1);
+        assertThat(first.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getBodyAsString().block()).isEqualTo(first.getBodyAsString().block());
+    }
+
+    @Test
+    void keyIncludesQueryAndUser() {
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1").header("X-User-Email", "a@example.com"));
+        execute(filter, get("/products/1").header("X-User-Email", "b@example.com"));
+        execute(filter, get("/products/1?view=full").header("X-User-Email", "a@example.com"));
+        execute(filter, get("/products/1").header("X-User-Email", "a@example.com"));
+
+        assertThat(chain.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void onlyGetRequestsAreCached() {
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, MockServerHttpRequest.post("/products/1"));
+        execute(filter, MockServerHttpRequest.post("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void varyHeadersMustMatch() {
+        chain.headers = headers -> headers.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1").header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        MockServerHttpResponse otherLanguage = execute(filter, get("/products/1").header(HttpHeaders.ACCEPT_LANGUAGE, "de"));
+        MockServerHttpResponse sameLanguage = execute(filter, get("/products/1").header(HttpHeaders.ACCEPT_LANGUAGE, "de"));
+
+        assertThat(otherLanguage.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(sameLanguage.getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+    }
+
+    @Test
+    void varyStarIsNotStored() {
+        chain.headers = headers -> headers.set(HttpHeaders.VARY, "*");
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void noStoreResponsesAreNotStored() {
+        chain.headers = headers -> headers.setCacheControl("no-store");
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void setCookieResponsesAreNotStored() {
+        chain.headers = headers -> headers.add(HttpHeaders.SET_COOKIE, "session=1");
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void privateResponsesAreOnlyStoredPerUser() {
+        chain.headers = headers -> headers.setCacheControl("private");
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1").header("X-User-Email", "a@example.com"));
+        execute(filter, get("/products/1").header("X-User-Email", "a@example.com"));
+
+        assertThat(chain.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void requestNoStoreAndNoCacheBypassLookup() {
+        GatewayFilter filter = factory.apply(config);
+        execute(filter, get("/products/1"));
+
+        execute(filter, get("/products/1").header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        execute(filter, get("/products/1").header(HttpHeaders.CACHE_CONTROL, "no-store"));
+
+        assertThat(chain.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void oversizedBodyIsStreamedButNotStored() {
+        config.setMaxEntrySize(DataSize.ofBytes(10));
+        chain.chunks = new String[]{"0123456", "789abcdef"};
+        GatewayFilter filter = factory.apply(config);
+
+        MockServerHttpResponse first = execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+
+        assertThat(first.getBodyAsString().block()).isEqualTo("0123456789abcdef");
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void multiChunkBodyWithinLimitIsStored() {
+        chain.chunks = new String[]{"part-1,", "part-2"};
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        MockServerHttpResponse cached = execute(filter, get("/products/1"));
+
+        assertThat(cached.getBodyAsString().block()).isEqualTo("part-1,part-2");
+        assertThat(chain.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void staleEntryIsServedWithinRevalidateWindow() throws InterruptedException {
+        config.setTtl(Duration.ofMillis(50));
+        config.setStaleWhileRevalidate(Duration.ofSeconds(30));
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        Thread.sleep(120);
+        MockServerHttpResponse stale = execute(filter, get("/products/1"));
+
+        assertThat(stale.getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+        assertThat(chain.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryWithoutRevalidateWindowIsMissed() throws InterruptedException {
+        config.setTtl(Duration.ofMillis(50));
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        Thread.sleep(120);
+        MockServerHttpResponse response = execute(filter, get("/products/1"));
+
+        assertThat(response.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void originMaxAgeShortensTtl() {
+        chain.headers = headers -> headers.setCacheControl("max-age=0");
+        GatewayFilter filter = factory.apply(config);
+
+        execute(filter, get("/products/1"));
+        execute(filter, get("/products/1"));
+
+        assertThat(chain.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheSurvivesRouteRefresh() {
+        execute(factory.apply(config), get("/products/1"));
+
+        MockServerHttpResponse afterRefresh = execute(factory.apply(config), get("/products/1"));
+
+        assertThat(afterRefresh.getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(factory.findUsable("product-service", URI.create("/products/1"), new HttpHeaders())).isPresent();
+        assertThat(meterRegistry.get("cache.size").tag("route", "product-service").gauge().value()).isEqualTo(1.0);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> get(String uri) {
+        return MockServerHttpRequest.get(uri);
+    }
+
+    private MockServerHttpResponse execute(GatewayFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse();
+    }
+
+    /**
+     * Downstream stand-in that writes a 200 response and counts calls.
+     */
+    private static final class StubChain implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private Consumer<HttpHeaders> headers = headers -> { };
+        private String[] chunks = {"{\"id\":1}"};
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            calls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            headers.accept(response.getHeaders());
+            return response.writeWith(Flux.fromArray(chunks)
+                    .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.amsidh.mvc.gatewayservice.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void newBucketAdmitsFullBurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(1.0, 3);
+
+        assertThat(bucket.tryAcquire().remaining()).isEqualTo(2);
+        assertThat(bucket.tryAcquire().remaining()).isEqualTo(1);
+        TokenBucket.Result last = bucket.tryAcquire();
+        assertThat(last.allowed()).isTrue();
+        assertThat(last.remaining()).isZero();
+        assertThat(last.resetNanos()).isBetween(2 * SECOND, 3 * SECOND);
+
+        TokenBucket.Result rejected = bucket.tryAcquire();
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.retryAfterNanos()).isPositive().isLessThanOrEqualTo(SECOND);
+        assertThat(rejected.resetNanos()).isLessThanOrEqualTo(3 * SECOND);
+    }
+
+    @Test
+    void rejectionDoesNotConsumeCapacity() {
+        TokenBucket bucket = new TokenBucket(1.0, 1);
+        assertThat(bucket.tryAcquire().allowed()).isTrue();
+
+        long firstRetry = bucket.tryAcquire().retryAfterNanos();
+        long secondRetry = bucket.tryAcquire().retryAfterNanos();
+
+        // A rejected request must not push the theoretical arrival time further out
+        assertThat(secondRetry).isLessThanOrEqualTo(firstRetry);
+    }
+
+    @Test
+    void refillsWithElapsedTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000.0, 5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire().allowed()).isTrue();
+        }
+        assertThat(bucket.tryAcquire().allowed()).isFalse();
+
+        Thread.sleep(20);
+
+        TokenBucket.Result refilled = bucket.tryAcquire();
+        assertThat(refilled.allowed()).isTrue();
+        assertThat(refilled.remaining()).isEqualTo(4);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 100);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryAcquire().allowed()) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(admitted.get()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new TokenBucket(0.0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(10.0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.amsidh.mvc.gatewayservice.loadbalancer;
+
+import com.amsidh.mvc.gatewayservice.config.LoadBalancingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class InstanceLoadTrackerTest {
+
+    private final ServiceInstance first = new DefaultServiceInstance("customer-1", "CUSTOMER-SERVICE", "10.0.0.1", 8090, false);
+    private final ServiceInstance second = new DefaultServiceInstance("customer-2", "CUSTOMER-SERVICE", "10.0.0.2", 8090, false);
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstanceLoadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new InstanceLoadTracker(new LoadBalancingProperties(null, null, null, null, null), meterRegistry);
+    }
+
+    @Test
+    void tracksWebClientRequestsWithReadOnlyAttributes() {
+        Request<Object> request = webClientRequest();
+        Response<ServiceInstance> lbResponse = new DefaultResponse(first);
+
+        assertThatNoException().isThrownBy(() -> tracker.onStartRequest(request, lbResponse));
+        assertThat(inFlight(first)).isEqualTo(1.0);
+
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse));
+        assertThat(inFlight(first)).isZero();
+        assertThat(tracker.trackedRequests()).isZero();
+    }
+
+    @Test
+    void equalRequestsAreTrackedSeparately() {
+        Request<Object> one = webClientRequest();
+        Request<Object> other = webClientRequest();
+        Response<ServiceInstance> lbResponse = new DefaultResponse(first);
+
+        tracker.onStartRequest(one, lbResponse);
+        tracker.onStartRequest(other, lbResponse);
+        assertThat(inFlight(first)).isEqualTo(2.0);
+
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, one, lbResponse));
+        assertThat(inFlight(first)).isEqualTo(1.0);
+    }
+
+    @Test
+    void busyInstanceCostsMore() {
+        tracker.onStartRequest(webClientRequest(), new DefaultResponse(first));
+
+        assertThat(tracker.cost(first)).isGreaterThan(tracker.cost(second));
+    }
+
+    @Test
+    void removedInstancesAreEvictedWithTheirGauges() {
+        tracker.start(first);
+        tracker.start(second);
+        assertThat(meterRegistry.find("gateway.loadbalancer.in-flight").gauges()).hasSize(2);
+
+        tracker.retainInstances("CUSTOMER-SERVICE", List.of(second));
+
+        assertThat(meterRegistry.find("gateway.loadbalancer.in-flight").gauges()).hasSize(1);
+        assertThat(meterRegistry.find("gateway.loadbalancer.in-flight").tag("instance", "10.0.0.1:8090").gauge()).isNull();
+        assertThat(meterRegistry.find("gateway.loadbalancer.latency").gauges()).hasSize(1);
+        assertThat(inFlight(second)).isEqualTo(1.0);
+    }
+
+    @Test
+    void otherServicesAreNotEvicted() {
+        ServiceInstance product = new DefaultServiceInstance("product-1", "PRODUCT-SERVICE", "10.0.0.3", 8050, false);
+        tracker.start(product);
+
+        tracker.retainInstances("CUSTOMER-SERVICE", List.of());
+
+        assertThat(inFlight(product)).isEqualTo(1.0);
+    }
+
+    private static Request<Object> webClientRequest() {
+        ClientRequest clientRequest = ClientRequest.create(HttpMethod.GET, URI.create("http://CUSTOMER-SERVICE/customers"))
+                .attribute("origin", "test")
+                .build();
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(clientRequest)));
+    }
+
+    private double inFlight(ServiceInstance instance) {
+        return meterRegistry.get("gateway.loadbalancer.in-flight")
+                .tag("instance", instance.getHost() + ":" + instance.getPort())
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,60 @@
+package com.amsidh.mvc.gatewayservice.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        SplittableRandom random = new SplittableRandom(42);
+        long[][] keys = new long[1_000][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new long[]{random.nextLong(), random.nextLong() | 1L};
+            filter.put(keys[i][0], keys[i][1]);
+        }
+
+        for (long[] key : keys) {
+            assertThat(filter.mightContain(key[0], key[1])).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetAtExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(random.nextLong(), random.nextLong() | 1L);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong() | 1L)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain(1L, 3L)).isFalse();
+        assertThat(filter.mightContain(-1L, Long.MIN_VALUE | 1L)).isFalse();
+    }
+
+    @Test
+    void sizesBitArrayFromInsertionsAndRate() {
+        // m = -n ln p / (ln 2)^2, about 9.6 bits per key at 1%, rounded up to whole words
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        assertThat(filter.sizeInBytes()).isBetween(11_900L, 12_100L);
+    }
+}
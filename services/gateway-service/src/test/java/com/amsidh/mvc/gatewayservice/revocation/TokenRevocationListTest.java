@@ -0,0 +1,96 @@
+package com.amsidh.mvc.gatewayservice.revocation;
+
+import com.amsidh.mvc.gatewayservice.config.RevocationProperties;
+import com.amsidh.mvc.gatewayservice.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        TokenRevocationList list = list(Duration.ofHours(1), 1_000, 0.01);
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        list.revoke("revoked-id", expiresAt.getEpochSecond());
+
+        assertThat(list.isRevoked(token("revoked-id", expiresAt))).isTrue();
+        assertThat(list.isRevoked(token("other-id", expiresAt))).isFalse();
+        assertThat(list.isRevoked(token(null, expiresAt))).isFalse();
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.revocation.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void lookupUsesThePartitionOfTheTokenExpiry() {
+        TokenRevocationList list = list(Duration.ofSeconds(60), 1_000, 0.01);
+        long expiresAt = (Instant.now().getEpochSecond() / 60 + 10) * 60;
+
+        list.revoke("id", expiresAt);
+
+        assertThat(list.isRevoked(token("id", Instant.ofEpochSecond(expiresAt + 59)))).isTrue();
+        // Same id with an exp in another partition is a different token
+        assertThat(list.isRevoked(token("id", Instant.ofEpochSecond(expiresAt + 60)))).isFalse();
+    }
+
+    @Test
+    void ignoresAlreadyExpiredTokensAndDuplicates() {
+        TokenRevocationList list = list(Duration.ofHours(1), 1_000, 0.01);
+        long future = Instant.now().plusSeconds(600).getEpochSecond();
+
+        list.revoke("expired", Instant.now().minusSeconds(1).getEpochSecond());
+        list.revoke("id", future);
+        list.revoke("id", future);
+
+        assertThat(list.size()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsPartitionsWhoseRangeHasPassed() throws InterruptedException {
+        TokenRevocationList list = list(Duration.ofSeconds(1), 1_000, 0.01);
+        long now = Instant.now().getEpochSecond();
+
+        list.revoke("short-lived", now + 1);
+        assertThat(list.size()).isEqualTo(1);
+
+        Thread.sleep(Duration.ofSeconds(now + 2).toMillis() - System.currentTimeMillis() + 50);
+        list.revoke("long-lived", Instant.now().plusSeconds(600).getEpochSecond());
+
+        assertThat(list.size()).isEqualTo(1);
+    }
+
+    @Test
+    void bloomFalsePositivesAreConfirmedAgainstExactSet() {
+        // One expected entry at a 50% rate: the filter is tiny and saturates quickly
+        TokenRevocationList list = list(Duration.ofHours(1), 1, 0.5);
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        for (int i = 0; i < 50; i++) {
+            list.revoke("revoked-" + i, expiresAt.getEpochSecond());
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(list.isRevoked(token("valid-" + i, expiresAt))).isFalse();
+        }
+        assertThat(meterRegistry.get("gateway.revocation.hits").tag("result", "false-positive").counter().count())
+                .isPositive();
+        assertThat(meterRegistry.get("gateway.revocation.hits").tag("result", "revoked").counter().count())
+                .isZero();
+    }
+
+    private TokenRevocationList list(Duration partitionDuration, int expectedPerPartition, double falsePositiveRate) {
+        return new TokenRevocationList(
+                new RevocationProperties(true, null, partitionDuration, expectedPerPartition, falsePositiveRate),
+                meterRegistry);
+    }
+
+    private static VerifiedToken token(String tokenId, Instant expiresAt) {
+        return new VerifiedToken("user@example.com", expiresAt, tokenId);
+    }
+}
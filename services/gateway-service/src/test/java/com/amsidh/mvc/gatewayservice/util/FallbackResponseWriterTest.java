@@ -0,0 +1,86 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.amsidh.mvc.gatewayservice.config.ResilienceProperties;
+import com.amsidh.mvc.gatewayservice.filter.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FallbackResponseWriterTest {
+
+    private static final String ROUTE_ID = "product-service";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheGatewayFilterFactory responseCache;
+    private ResponseCacheGatewayFilterFactory.Config cacheConfig;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new ResponseCacheGatewayFilterFactory(meterRegistry, WebClient.builder());
+        cacheConfig = new ResponseCacheGatewayFilterFactory.Config();
+        cacheConfig.setRouteId(ROUTE_ID);
+    }
+
+    @Test
+    void cachedModeServesEntryStoredBeforeRouteRefresh() {
+        cacheResponse("/products/1", "{\"id\":1}");
+        // Route refresh (Eureka heartbeat) re-applies the filter
+        responseCache.apply(cacheConfig);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/1"));
+        writer(ResilienceProperties.FallbackMode.CACHED).write(exchange, ROUTE_ID, "circuit-breaker").block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("FALLBACK");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void cachedModeWithoutEntryReturnsServiceUnavailable() {
+        responseCache.apply(cacheConfig);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/2"));
+        writer(ResilienceProperties.FallbackMode.CACHED).write(exchange, ROUTE_ID, "circuit-breaker").block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+    }
+
+    @Test
+    void jsonModeIgnoresCache() {
+        cacheResponse("/products/1", "{\"id\":1}");
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/1"));
+        writer(ResilienceProperties.FallbackMode.JSON).write(exchange, ROUTE_ID, "bulkhead").block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private FallbackResponseWriter writer(ResilienceProperties.FallbackMode mode) {
+        ResilienceProperties properties = new ResilienceProperties(
+                null, null, null, null, null, null, null, null, mode, null);
+        return new FallbackResponseWriter(properties, responseCache, meterRegistry);
+    }
+
+    private void cacheResponse(String path, String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        responseCache.apply(cacheConfig).filter(exchange, downstream -> {
+            ServerHttpResponse response = downstream.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Mono.just(
+                    response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }).block();
+    }
+}
@@ -0,0 +1,186 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.amsidh.mvc.gatewayservice.config.JwtConfigEnum;
+import com.amsidh.mvc.gatewayservice.exception.AuthenticationException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HmacJwtVerifierTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String ROTATED_SECRET = "7A24432646294A404E635266556A586E3272357538782F413F4428472B4B6250";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    private static final SecretKey ROTATED_KEY = Keys.hmacShaKeyFor(ROTATED_SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private HmacJwtVerifier verifier;
+
+    @BeforeAll
+    static void initializeKeyRing() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("jwt.secret", SECRET)
+                .withProperty("jwt.keys.k1.secret", ROTATED_SECRET);
+        JwtConfigEnum.Config config = new JwtConfigEnum.Config(environment);
+        ReflectionTestUtils.setField(config, "secret", SECRET);
+        ReflectionTestUtils.setField(config, "expiration", 86400000L);
+        config.initializeEnum();
+    }
+
+    @BeforeEach
+    void setUp() {
+        verifier = new HmacJwtVerifier();
+    }
+
+    @Test
+    void verifiesAuthServiceTokenForEveryHmacAlgorithm() {
+        for (MacAlgorithm algorithm : new MacAlgorithm[]{
+                Jwts.SIG.HS256, Jwts.SIG.HS384, Jwts.SIG.HS512}) {
+            String tokenId = UUID.randomUUID().toString();
+            String token = issue(tokenId, "user@example.com", Instant.now().plusSeconds(60))
+                    .signWith(KEY, algorithm)
+                    .compact();
+
+            VerifiedToken verified = verifier.verify(token);
+
+            assertThat(verified).as(algorithm.getId()).isNotNull();
+            assertThat(verified.email()).isEqualTo("user@example.com");
+            assertThat(verified.tokenId()).isEqualTo(tokenId);
+        }
+    }
+
+    @Test
+    void matchesJjwtClaimsForLegacyAndRotatedKeys() {
+        for (int i = 0; i < 50; i++) {
+            boolean rotated = i % 2 == 0;
+            String subject = "user" + i + "@example.com";
+            Instant expiresAt = Instant.now().plusSeconds(60 + i);
+            JwtBuilder builder = issue(UUID.randomUUID().toString(), subject, expiresAt);
+            String token = rotated
+                    ? builder.header().keyId("k1").and().signWith(ROTATED_KEY).compact()
+                    : builder.signWith(KEY).compact();
+
+            VerifiedToken verified = verifier.verify(token);
+            Claims claims = Jwts.parser()
+                    .verifyWith(rotated ? ROTATED_KEY : KEY)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+
+            assertThat(verified).isNotNull();
+            assertThat(verified.email()).isEqualTo(claims.getSubject());
+            assertThat(verified.expiresAt()).isEqualTo(claims.getExpiration().toInstant());
+            assertThat(verified.tokenId()).isEqualTo(claims.getId());
+        }
+    }
+
+    @Test
+    void fallsBackOnMalformedSegments() {
+        String token = issue("id", "user@example.com", Instant.now().plusSeconds(60)).signWith(KEY).compact();
+        String[] parts = token.split("\\.");
+
+        assertThat(verifier.verify(parts[0] + "." + parts[1])).isNull();
+        assertThat(verifier.verify(token + ".extra")).isNull();
+        assertThat(verifier.verify("no-dots-at-all")).isNull();
+        assertThat(verifier.verify("x".repeat(5000) + "." + parts[1] + "." + parts[2])).isNull();
+        assertThat(verifier.verify(parts[0] + "." + parts[1] + "é." + parts[2])).isNull();
+    }
+
+    @Test
+    void fallsBackOnOtherAlgorithmsAndUnknownKeyIds() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        String unsigned = encode("{\"alg\":\"none\"}") + "." + encode("{\"sub\":\"user@example.com\"}") + ".";
+        KeyPair ecKeys = Jwts.SIG.ES256.keyPair().build();
+        String es256 = issue("id", "user@example.com", expiresAt).signWith(ecKeys.getPrivate()).compact();
+        String unknownKid = issue("id", "user@example.com", expiresAt)
+                .header().keyId("unknown").and()
+                .signWith(KEY)
+                .compact();
+
+        assertThat(verifier.verify(unsigned)).isNull();
+        assertThat(verifier.verify(es256)).isNull();
+        assertThat(verifier.verify(unknownKid)).isNull();
+    }
+
+    @Test
+    void fallsBackOnUnexpectedClaims() {
+        String token = issue("id", "user@example.com", Instant.now().plusSeconds(60))
+                .claim("role", "admin")
+                .signWith(KEY)
+                .compact();
+
+        assertThat(verifier.verify(token)).isNull();
+    }
+
+    @Test
+    void rejectsTamperedSignatureAndPayload() {
+        String token = issue("id", "user@example.com", Instant.now().plusSeconds(60)).signWith(KEY).compact();
+        String[] parts = token.split("\\.");
+        char last = parts[2].charAt(0);
+        String tamperedSignature = parts[0] + "." + parts[1] + "." + (last == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        String tamperedPayload = parts[0] + "." + encode("{\"sub\":\"admin@example.com\",\"exp\":"
+                + Instant.now().plusSeconds(60).getEpochSecond() + "}") + "." + parts[2];
+        String otherKey = issue("id", "user@example.com", Instant.now().plusSeconds(60))
+                .signWith(ROTATED_KEY)
+                .compact();
+
+        assertThatThrownBy(() -> verifier.verify(tamperedSignature)).isInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> verifier.verify(tamperedPayload)).isInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> verifier.verify(otherKey)).isInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> verifier.verify(parts[0] + "." + parts[1] + ".%%%"))
+                .isInstanceOf(AuthenticationException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String expired = issue("id", "user@example.com", Instant.now().minusSeconds(1)).signWith(KEY).compact();
+        String valid = issue("id", "user@example.com", Instant.now().plusSeconds(2)).signWith(KEY).compact();
+
+        assertThatThrownBy(() -> verifier.verify(expired))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Token has expired");
+        assertThat(verifier.verify(valid)).isNotNull();
+    }
+
+    @Test
+    void tokenExpiresAtItsExpInstantWithoutSkew() {
+        Instant expiresAt = Instant.ofEpochSecond(1_700_000_000L);
+        VerifiedToken token = new VerifiedToken("user@example.com", expiresAt, null);
+
+        assertThat(token.isExpiredAt(expiresAt.minusMillis(1))).isFalse();
+        assertThat(token.isExpiredAt(expiresAt)).isTrue();
+        assertThat(token.isExpiredAt(expiresAt.plusMillis(1))).isTrue();
+    }
+
+    /**
+     * Same claims as auth-service {@code JwtUtil.createToken}.
+     */
+    private static JwtBuilder issue(String tokenId, String subject, Instant expiresAt) {
+        return Jwts.builder()
+                .id(tokenId)
+                .subject(subject)
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.amsidh.mvc.gatewayservice.util;
+
+import com.amsidh.mvc.gatewayservice.config.JwtConfigEnum;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the gateway token verification paths.
+ * <p>
+ * - {@code legacyPath}: what AuthenticationFilter used to do (extractEmail + validateToken)
+ * - {@code jjwtSingleParse}: one jjwt parse with a fresh key, the generic fallback
+ * - {@code fastPath}: {@link HmacJwtVerifier} on an auth-service shaped token
+ * <p>
+ * Run with {@code mvn test-compile} followed by {@link #main(String[])} from the IDE,
+ * optionally adding {@code -prof gc} to see the allocation rate per operation.
+ *
+ * @author Amsidh Mohammed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtil jwtUtil;
+    private HmacJwtVerifier hmacJwtVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment().withProperty("jwt.secret", SECRET);
+        JwtConfigEnum.Config config = new JwtConfigEnum.Config(environment);
+        ReflectionTestUtils.setField(config, "secret", SECRET);
+        ReflectionTestUtils.setField(config, "expiration", 86400000L);
+        config.initializeEnum();
+
+        hmacJwtVerifier = new HmacJwtVerifier();
+        // No jwt.jwks-uri: the JWK Set source stays empty, only HMAC keys are used
+        JwksKeySource jwksKeySource = new JwksKeySource(
+                WebClient.builder(), "", Duration.ofMinutes(5), new SimpleMeterRegistry());
+        jwtUtil = new JwtUtil(hmacJwtVerifier, jwksKeySource);
+
+        // Same shape as auth-service JwtUtil.createToken
+        Date now = new Date();
+        token = Jwts.builder()
+                .subject("benchmark.user@example.com")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 86400000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        VerifiedToken fast = hmacJwtVerifier.verify(token);
+        if (fast == null || !fast.email().equals(jwtUtil.extractEmail(token))) {
+            throw new IllegalStateException("Fast path did not handle the auth-service token shape");
+        }
+    }
+
+    @Benchmark
+    public boolean legacyPath() {
+        String email = jwtUtil.extractEmail(token);
+        return jwtUtil.validateToken(token, email);
+    }
+
+    @Benchmark
+    public String jjwtSingleParse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public VerifiedToken fastPath() {
+        return hmacJwtVerifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
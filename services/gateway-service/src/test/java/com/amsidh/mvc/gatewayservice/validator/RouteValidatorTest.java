@@ -0,0 +1,66 @@
+package com.amsidh.mvc.gatewayservice.validator;
+
+import com.amsidh.mvc.gatewayservice.config.GatewaySecurityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteValidatorTest {
+
+    private final RouteValidator validator = new RouteValidator(new GatewaySecurityProperties(List.of(
+            "/api/v1/auth-service/auth/token",
+            "/actuator",
+            "/eureka/",
+            "/api/v1/*/actuator"), 16));
+
+    @Test
+    void opensConfiguredPrefixesOnWholeSegments() {
+        assertThat(validator.isSecured("/actuator")).isFalse();
+        assertThat(validator.isSecured("/actuator/health")).isFalse();
+        assertThat(validator.isSecured("/eureka/apps/ORDER-SERVICE")).isFalse();
+        assertThat(validator.isSecured("/api/v1/auth-service/auth/token")).isFalse();
+
+        assertThat(validator.isSecured("/actuator-x")).isTrue();
+        assertThat(validator.isSecured("/foo/eureka-bar")).isTrue();
+        assertThat(validator.isSecured("/foo/actuator")).isTrue();
+        assertThat(validator.isSecured("/api/v1/auth-service/auth")).isTrue();
+        assertThat(validator.isSecured("/api/v1/auth-service/auth/tokens")).isTrue();
+    }
+
+    @Test
+    void wildcardMatchesExactlyOneSegment() {
+        assertThat(validator.isSecured("/api/v1/order-service/actuator/health")).isFalse();
+        assertThat(validator.isSecured("/api/v1/actuator")).isTrue();
+        assertThat(validator.isSecured("/api/v1/order-service/orders/actuator")).isTrue();
+    }
+
+    @Test
+    void ignoresRepeatedAndTrailingSlashes() {
+        assertThat(validator.isSecured("//actuator//health/")).isFalse();
+        assertThat(validator.isSecured("/")).isTrue();
+        assertThat(validator.isSecured("")).isTrue();
+    }
+
+    @Test
+    void exactSegmentFailureFallsBackToWildcard() {
+        RouteValidator overlapping = new RouteValidator(new GatewaySecurityProperties(List.of(
+                "/api/v1/orders/internal",
+                "/api/v1/*/public"), 16));
+
+        assertThat(overlapping.isSecured("/api/v1/orders/public")).isFalse();
+        assertThat(overlapping.isSecured("/api/v1/orders/internal/x")).isFalse();
+        assertThat(overlapping.isSecured("/api/v1/orders/private")).isTrue();
+    }
+
+    @Test
+    void cachedDecisionIsStableAndUsesRequestPathOnly() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/actuator/health?token=secret").build();
+
+        assertThat(validator.isSecured(request)).isFalse();
+        assertThat(validator.isSecured(request)).isFalse();
+        assertThat(validator.isSecured(MockServerHttpRequest.get("/orders?x=/actuator").build())).isTrue();
+    }
+}
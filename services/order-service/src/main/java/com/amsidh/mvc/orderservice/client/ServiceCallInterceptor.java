@@ -0,0 +1,85 @@
+package com.amsidh.mvc.orderservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Sends inter-service calls straight to a service instance instead of through the gateway.
+ * <p>
+ * The configured URLs stay the gateway URLs. Because every service runs under the same
+ * context path the gateway routes on, only scheme, host and port are swapped for an
+ * instance chosen by the client-side load balancer (Eureka). When discovery has no
+ * instance, the request goes to the gateway URL unchanged; nothing has been sent at that
+ * point, so the fallback is safe for non-idempotent calls too.
+ * <p>
+ * Every call carries {@code X-Service-Name} with the caller's application name. Trace
+ * headers are added by the RestTemplate observation and are kept on the rewritten request.
+ * <p>
+ * Metric {@code order.client.calls} is tagged by service and route
+ * (direct, gateway, gateway-fallback).
+ */
+@Slf4j
+public class ServiceCallInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String SERVICE_NAME_HEADER = "X-Service-Name";
+
+    private final String serviceId;
+    private final String callerName;
+    private final LoadBalancerClient loadBalancerClient;
+    private final Meter.MeterProvider<Counter> callCounter;
+
+    /**
+     * @param loadBalancerClient {@code null} to always call through the gateway
+     */
+    public ServiceCallInterceptor(String serviceId, String callerName, LoadBalancerClient loadBalancerClient,
+                                  MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.callerName = callerName;
+        this.loadBalancerClient = loadBalancerClient;
+        this.callCounter = Counter.builder("order.client.calls")
+                .description("Inter-service calls by target service and route")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        request.getHeaders().set(SERVICE_NAME_HEADER, callerName);
+        if (loadBalancerClient == null) {
+            count("gateway");
+            return execution.execute(request, body);
+        }
+
+        ServiceInstance instance = loadBalancerClient.choose(serviceId);
+        if (instance == null) {
+            count("gateway-fallback");
+            log.debug("No {} instance in discovery, calling through the gateway: {}", serviceId, request.getURI());
+            return execution.execute(request, body);
+        }
+
+        URI directUri = loadBalancerClient.reconstructURI(instance, request.getURI());
+        count("direct");
+        return execution.execute(new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return directUri;
+            }
+        }, body);
+    }
+
+    private void count(String route) {
+        callCounter.withTags("service", serviceId, "route", route).increment();
+    }
+}
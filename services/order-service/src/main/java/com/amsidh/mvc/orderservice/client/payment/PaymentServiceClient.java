@@ -2,7 +2,7 @@ package com.amsidh.mvc.orderservice.client.payment;
 
 import com.amsidh.mvc.orderservice.dto.PaymentRequest;
 import com.amsidh.mvc.orderservice.exception.BusinessException;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
@@ -11,12 +11,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.client.RestTemplate;
 
 @Component
-@RequiredArgsConstructor
 public class PaymentServiceClient {
     @Value("${application.config.payment-service.url}")
     private String paymentServiceUrl;
     private final RestTemplate restTemplate;
 
+    public PaymentServiceClient(@Qualifier("paymentServiceRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
     public Integer createPayment(@RequestBody PaymentRequest paymentRequest) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -3,7 +3,7 @@ package com.amsidh.mvc.orderservice.client.product;
 import com.amsidh.mvc.kafka.order.PurchaseResponse;
 import com.amsidh.mvc.orderservice.dto.PurchaseRequest;
 import com.amsidh.mvc.orderservice.exception.BusinessException;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
@@ -13,17 +13,30 @@ import org.springframework.web.client.RestTemplate;
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class ProductServiceClient {
 
+    public static final String PURCHASE_ID_HEADER = "X-Purchase-Id";
+
     @Value("${application.config.product-service.url}")
     private String productServiceUrl;
+    // Required: compensation must not depend on the gateway, which does not route it
+    @Value("${application.config.product-service.internal-url}")
+    private String productServiceInternalUrl;
     private final RestTemplate restTemplate;
 
-    public List<PurchaseResponse> purchaseProducts(List<PurchaseRequest> purchaseRequestList) {
+    public ProductServiceClient(@Qualifier("productServiceRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Purchase the products under the given purchase id. product-service records the
+     * purchase, so it can be cancelled by id (see {@link #restockProducts(String)}).
+     */
+    public List<PurchaseResponse> purchaseProducts(String purchaseId, List<PurchaseRequest> purchaseRequestList) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
         httpHeaders.setAccept(List.of(MediaType.APPLICATION_JSON));
+        httpHeaders.set(PURCHASE_ID_HEADER, purchaseId);
 
         final HttpEntity<List<PurchaseRequest>> httpRequestEntity = new HttpEntity<>(purchaseRequestList, httpHeaders);
         ResponseEntity<List<PurchaseResponse>> response = restTemplate.exchange(
@@ -45,4 +58,22 @@ public class ProductServiceClient {
         return response.getBody();
     }
 
+    /**
+     * Return the quantities of a purchase to the inventory (compensation).
+     * product-service restocks what it recorded for the purchase id, and only once, so
+     * it is safe to repeat. The endpoint is not routed by the gateway; it is called on
+     * application.config.product-service.internal-url.
+     */
+    public void restockProducts(String purchaseId) {
+        ResponseEntity<Void> response = restTemplate.exchange(
+                productServiceInternalUrl + "/purchase/{purchaseId}/cancel",
+                HttpMethod.POST,
+                HttpEntity.EMPTY,
+                Void.class,
+                purchaseId);
+        if (response.getStatusCode().isError()) {
+            throw new BusinessException(
+                    "Error occurred while restocking products in product-service: " + response.getStatusCode());
+        }
+    }
 }
@@ -1,15 +1,99 @@
 package com.amsidh.mvc.orderservice.config;
 
+import com.amsidh.mvc.orderservice.client.ServiceCallInterceptor;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class AppConfig {
 
+    public static final String CUSTOMER_SERVICE = "customer-service";
+    public static final String PRODUCT_SERVICE = "product-service";
+    public static final String PAYMENT_SERVICE = "payment-service";
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+    @Value("${application.config.direct-calls.enabled:false}")
+    private boolean directCallsEnabled;
+    @Value("${application.config.customer-service.service-id:CUSTOMER-SERVICE}")
+    private String customerServiceId;
+    @Value("${application.config.product-service.service-id:PRODUCT-SERVICE}")
+    private String productServiceId;
+    @Value("${application.config.payment-service.service-id:PAYMENT-SERVICE}")
+    private String paymentServiceId;
+
+    /**
+     * One RestTemplate per downstream, each on its own connection pool and timeouts
+     * (application.config.http-client). Built from RestTemplateBuilder so calls keep
+     * the http.client.requests metrics and trace headers.
+     * <p>
+     * With application.config.direct-calls.enabled the calls go to an instance resolved
+     * through Eureka instead of the gateway URL, see {@link ServiceCallInterceptor}.
+     */
+    @Bean
+    public RestTemplate customerServiceRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                    PooledHttpClientFactory pooledHttpClientFactory,
+                                                    ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                                                    MeterRegistry meterRegistry) {
+        return serviceRestTemplate(restTemplateBuilder, pooledHttpClientFactory, CUSTOMER_SERVICE,
+                serviceCallInterceptor(customerServiceId, loadBalancerClient, meterRegistry));
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
-        return restTemplateBuilder.build();
+    public RestTemplate productServiceRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                   PooledHttpClientFactory pooledHttpClientFactory,
+                                                   ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                                                   MeterRegistry meterRegistry) {
+        return serviceRestTemplate(restTemplateBuilder, pooledHttpClientFactory, PRODUCT_SERVICE,
+                serviceCallInterceptor(productServiceId, loadBalancerClient, meterRegistry));
+    }
+
+    @Bean
+    public RestTemplate paymentServiceRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                   PooledHttpClientFactory pooledHttpClientFactory,
+                                                   ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                                                   MeterRegistry meterRegistry) {
+        return serviceRestTemplate(restTemplateBuilder, pooledHttpClientFactory, PAYMENT_SERVICE,
+                serviceCallInterceptor(paymentServiceId, loadBalancerClient, meterRegistry));
+    }
+
+    private static RestTemplate serviceRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                    PooledHttpClientFactory pooledHttpClientFactory,
+                                                    String downstream,
+                                                    ServiceCallInterceptor serviceCallInterceptor) {
+        return restTemplateBuilder
+                .requestFactory(() -> pooledHttpClientFactory.requestFactory(downstream))
+                .additionalInterceptors(serviceCallInterceptor)
+                .build();
+    }
+
+    private ServiceCallInterceptor serviceCallInterceptor(String serviceId,
+                                                          ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                                                          MeterRegistry meterRegistry) {
+        LoadBalancerClient directCalls = directCallsEnabled ? loadBalancerClient.getIfAvailable() : null;
+        return new ServiceCallInterceptor(serviceId, applicationName, directCalls, meterRegistry);
+    }
+
+    /**
+     * Runs the overlapping remote calls of the order workflow, one virtual thread per call.
+     * The tracing context is carried over from the submitting request thread.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService orderWorkflowExecutor() {
+        ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), snapshotFactory::captureAll);
     }
 }
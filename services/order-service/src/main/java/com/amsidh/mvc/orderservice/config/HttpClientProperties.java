@@ -0,0 +1,68 @@
+package com.amsidh.mvc.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Connection pool and timeout settings for the inter-service HTTP clients, bound from
+ * {@code application.config.http-client.*}.
+ * <p>
+ * Every downstream (customer-service, product-service, payment-service) gets its own pool,
+ * so a slow service can only exhaust its own connections. Values under {@code downstreams}
+ * override the defaults for that service.
+ *
+ * @param defaults    settings used when a downstream has no override
+ * @param downstreams per-service overrides keyed by service name
+ */
+@ConfigurationProperties(prefix = "application.config.http-client")
+public record HttpClientProperties(Downstream defaults, Map<String, Downstream> downstreams) {
+
+    public HttpClientProperties {
+        defaults = Downstream.DEFAULTS.merge(defaults);
+        downstreams = downstreams == null ? Map.of() : downstreams;
+    }
+
+    /**
+     * Settings of the given downstream, falling back to the defaults for unset values.
+     */
+    public Downstream forDownstream(String name) {
+        return defaults.merge(downstreams.get(name));
+    }
+
+    /**
+     * @param maxConnections           pooled connections to the service (keep-alive)
+     * @param connectTimeout           TCP connect timeout
+     * @param readTimeout              socket inactivity timeout while reading a response
+     * @param responseTimeout          maximum wait for the response once the request is sent
+     * @param connectionRequestTimeout maximum wait for a free pooled connection
+     * @param connectionTimeToLive     connections older than this are not reused
+     * @param idleTimeout              idle connections are closed after this
+     */
+    public record Downstream(Integer maxConnections,
+                             Duration connectTimeout,
+                             Duration readTimeout,
+                             Duration responseTimeout,
+                             Duration connectionRequestTimeout,
+                             Duration connectionTimeToLive,
+                             Duration idleTimeout) {
+
+        static final Downstream DEFAULTS = new Downstream(20, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), Duration.ofMillis(500), Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+        Downstream merge(Downstream override) {
+            if (override == null) {
+                return this;
+            }
+            return new Downstream(
+                    override.maxConnections != null && override.maxConnections > 0 ? override.maxConnections : maxConnections,
+                    override.connectTimeout != null ? override.connectTimeout : connectTimeout,
+                    override.readTimeout != null ? override.readTimeout : readTimeout,
+                    override.responseTimeout != null ? override.responseTimeout : responseTimeout,
+                    override.connectionRequestTimeout != null ? override.connectionRequestTimeout : connectionRequestTimeout,
+                    override.connectionTimeToLive != null ? override.connectionTimeToLive : connectionTimeToLive,
+                    override.idleTimeout != null ? override.idleTimeout : idleTimeout);
+        }
+    }
+}
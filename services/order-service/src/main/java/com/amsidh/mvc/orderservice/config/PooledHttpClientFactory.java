@@ -0,0 +1,86 @@
+package com.amsidh.mvc.orderservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates one pooled Apache HttpClient per downstream service.
+ * <p>
+ * Connections are kept alive and reused, capped per downstream, and every phase of a call
+ * is bounded: waiting for a pooled connection, connecting, waiting for the response and
+ * reading it. A slow service therefore fails its own calls fast instead of holding order
+ * threads indefinitely.
+ * <p>
+ * Pool metrics are tagged with {@code httpclient=<downstream>}:
+ * - {@code httpcomponents.httpclient.pool.total.connections} - leased and available connections
+ * - {@code httpcomponents.httpclient.pool.total.pending} - threads waiting for a connection
+ * - {@code httpcomponents.httpclient.pool.total.max} - pool size
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PooledHttpClientFactory implements DisposableBean {
+
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<CloseableHttpClient> httpClients = new CopyOnWriteArrayList<>();
+
+    public ClientHttpRequestFactory requestFactory(String downstream) {
+        HttpClientProperties.Downstream settings = properties.forDownstream(downstream);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // Most recently used first, so surplus connections go idle and get evicted
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeout().toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeout().toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(settings.connectionTimeToLive().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, downstream).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.connectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.responseTimeout().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.idleTimeout().toMillis()))
+                .build();
+        httpClients.add(httpClient);
+
+        log.info("HTTP client pool created for {} - Max connections: {}, Connect timeout: {}, Response timeout: {}",
+                downstream, settings.maxConnections(), settings.connectTimeout(), settings.responseTimeout());
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Override
+    public void destroy() {
+        httpClients.forEach(httpClient -> httpClient.close(CloseMode.GRACEFUL));
+    }
+}
@@ -2,6 +2,7 @@ package com.amsidh.mvc.orderservice.dto;
 
 public record OrderLineResponse(
         Integer id,
+        Integer productId,
         double quantity
 ) {
 }
@@ -16,7 +16,8 @@ import lombok.*;
 @Entity
 public class OrderLine {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_seq")
+    @SequenceGenerator(name = "order_line_seq", sequenceName = "order_line_seq", allocationSize = 50)
     private Integer id;
     @ManyToOne
     @JoinColumn(name = "order_id")
@@ -9,6 +9,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -27,6 +28,17 @@ public class GlobalExceptionHandler {
                                 .body(entityNotFoundException.getMessage());
         }
 
+        /**
+         * A downstream service timed out, refused the connection or its connection pool
+         * is exhausted.
+         */
+        @ExceptionHandler(ResourceAccessException.class)
+        public ResponseEntity<String> handle(ResourceAccessException resourceAccessException) {
+                return ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body("Downstream service unavailable: " + resourceAccessException.getMessage());
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(
                         MethodArgumentNotValidException methodArgumentNotValidException) {
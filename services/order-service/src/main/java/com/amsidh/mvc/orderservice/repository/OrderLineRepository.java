@@ -2,9 +2,15 @@ package com.amsidh.mvc.orderservice.repository;
 
 import com.amsidh.mvc.orderservice.entity.OrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface OrderLineRepository extends JpaRepository<OrderLine, Integer> {
     List<OrderLine> findAllByOrderId(Integer orderId);
+
+    @Modifying
+    @Query("delete from OrderLine l where l.order.id = :orderId")
+    int deleteAllByOrderId(Integer orderId);
 }
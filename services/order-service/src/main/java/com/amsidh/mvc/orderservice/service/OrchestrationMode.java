@@ -0,0 +1,15 @@
+package com.amsidh.mvc.orderservice.service;
+
+/**
+ * How the remote calls of the order workflow are run.
+ */
+public enum OrchestrationMode {
+    /**
+     * Customer lookup, then product purchase, one after the other.
+     */
+    SEQUENTIAL,
+    /**
+     * Customer lookup and product purchase overlap; they do not depend on each other.
+     */
+    CONCURRENT
+}
@@ -12,19 +12,32 @@ import com.amsidh.mvc.orderservice.dto.PaymentRequest;
 import com.amsidh.mvc.orderservice.entity.Order;
 import com.amsidh.mvc.orderservice.exception.BusinessException;
 import com.amsidh.mvc.orderservice.kafka.OrderProducer;
+import com.amsidh.mvc.orderservice.repository.OrderLineRepository;
 import com.amsidh.mvc.orderservice.repository.OrderRepository;
+import com.amsidh.mvc.orderservice.service.OrchestrationMode;
 import com.amsidh.mvc.orderservice.service.OrderService;
 import com.amsidh.mvc.orderservice.util.OrderMapper;
 import com.amsidh.mvc.orderservice.util.OrderProducerMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-@RequiredArgsConstructor
 @Service
 @Slf4j
 public class OrderServiceImpl implements OrderService {
@@ -32,35 +45,140 @@ public class OrderServiceImpl implements OrderService {
     private final CustomerServiceClient customerServiceClient;
     private final ProductServiceClient productServiceClient;
     private final OrderRepository orderRepository;
-    private final OrderLineServiceImpl orderLineServiceImpl;
     private final OrderProducer orderProducer;
     private final PaymentServiceClient paymentServiceClient;
+    private final OrderLineRepository orderLineRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService orderWorkflowExecutor;
+    private final OrchestrationMode orchestrationMode;
+    private final Meter.MeterProvider<Timer> stepTimer;
+
+    public OrderServiceImpl(CustomerServiceClient customerServiceClient,
+                            ProductServiceClient productServiceClient,
+                            OrderRepository orderRepository,
+                            OrderProducer orderProducer,
+                            PaymentServiceClient paymentServiceClient,
+                            OrderLineRepository orderLineRepository,
+                            TransactionTemplate transactionTemplate,
+                            ExecutorService orderWorkflowExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${application.config.order.orchestration-mode:SEQUENTIAL}")
+                            OrchestrationMode orchestrationMode) {
+        this.customerServiceClient = customerServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.orderRepository = orderRepository;
+        this.orderProducer = orderProducer;
+        this.paymentServiceClient = paymentServiceClient;
+        this.orderLineRepository = orderLineRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.orderWorkflowExecutor = orderWorkflowExecutor;
+        this.orchestrationMode = orchestrationMode;
+        this.stepTimer = Timer.builder("order.create.step")
+                .description("Duration of each step of order creation")
+                .tag("mode", orchestrationMode.name())
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+    }
 
     /**
      * Creates a new order with the following workflow:
      * 1. Validate customer exists
      * 2. Purchase products (deducts inventory)
-     * 3. Save order and order lines
+     * 3. Save order and order lines (short local transaction)
      * 4. Create payment transaction
      * 5. Publish order confirmation to Kafka
      * 
-     * Note: This method is transactional for database operations only.
-     * External service calls (customer, product, payment) are NOT part of the
-     * transaction.
-     * If payment or Kafka publishing fails after products are purchased,
-     * a compensating transaction would be needed to restore product inventory.
-     * Consider implementing Saga pattern for distributed transaction management.
+     * Steps 1 and 2 do not depend on each other. In CONCURRENT orchestration mode
+     * (application.config.order.orchestration-mode) the purchase runs on a virtual
+     * thread while the customer is looked up. If the customer lookup fails, the
+     * in-flight purchase is not interrupted (the outcome of an interrupted POST is
+     * unknown); its inventory is restored as soon as it completes.
+     * 
+     * Only step 3 runs in a transaction, so an order-db connection is held for the
+     * few milliseconds of SQL instead of across the remote calls. Remote calls and the
+     * Kafka send run outside it (see hikaricp.connections.usage for hold times).
+     * If the payment fails, the order is deleted again in a second short transaction
+     * and the purchased inventory is restored in product-service; if saving the order
+     * fails, the purchased inventory is restored the same way. Each order creation
+     * has its own purchase id: product-service records the purchase under it and the
+     * compensation cancels it by id, so only the purchased quantities are restocked,
+     * at most once.
+     * 
+     * Each step is timed (order.create.step timer, tagged by step and mode) and the
+     * timings are logged once per order.
      */
-    @Transactional
     @Override
     public Integer createOrder(OrderRequest orderRequest) {
-        log.info("Starting order creation process - Customer: {}, Products: {}",
+        log.info("Starting order creation process - Customer: {}, Products: {}, Mode: {}",
                 orderRequest.customerId(),
-                orderRequest.productList().size());
+                orderRequest.productList().size(),
+                orchestrationMode);
+        final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+        final String purchaseId = UUID.randomUUID().toString();
+
+        final CustomerResponse customerResponse;
+        final List<PurchaseResponse> purchaseResponses;
+        if (orchestrationMode == OrchestrationMode.CONCURRENT) {
+            final CustomerAndPurchase fanOut = timed("fan-out", timings,
+                    () -> findCustomerAndPurchaseConcurrently(orderRequest, purchaseId, timings));
+            customerResponse = fanOut.customer();
+            purchaseResponses = fanOut.purchases();
+        } else {
+            customerResponse = findCustomer(orderRequest, timings);
+            purchaseResponses = purchaseProducts(orderRequest, purchaseId, timings);
+        }
+
+        // Persist the order and its lines in order-database, in one short transaction
+        final Order savedOrder;
+        try {
+            savedOrder = timed("persist", timings,
+                    () -> transactionTemplate.execute(status -> saveOrder(orderRequest)));
+        } catch (RuntimeException e) {
+            log.error("Order could not be saved for customer: {} - Error: {}", orderRequest.customerId(), e.getMessage());
+            restockProducts(purchaseId, orderRequest);
+            throw e;
+        }
+
+        // Start payment transaction in payment-service microservice (no transaction open)
+        final PaymentRequest paymentRequest = OrderMapper.toPaymentRequest(orderRequest, savedOrder, customerResponse);
+        log.info("Calling payment-service - Amount: {}, Method: {}, OrderRef: {}",
+                paymentRequest.amount(),
+                paymentRequest.paymentMethod(),
+                paymentRequest.orderReference());
+        final Integer payment;
+        try {
+            payment = timed("payment", timings, () -> paymentServiceClient.createPayment(paymentRequest));
+        } catch (RuntimeException e) {
+            log.error("Payment failed for order ID: {}, removing the order - Error: {}", savedOrder.getId(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> deleteOrder(savedOrder.getId()));
+            restockProducts(purchaseId, orderRequest);
+            throw e;
+        }
+        log.info("Payment transaction created - Payment ID: {}", payment);
+
+        // Send the order confirmation email using notification-service microservice
+        // (async via Kafka)
+        final OrderConfirmation orderConfirmation = OrderProducerMapper.toOrderConfirmation(orderRequest,
+                customerResponse, purchaseResponses);
+        log.debug("Publishing order confirmation to Kafka - OrderRef: {}", orderConfirmation.orderReference());
+        timed("publish", timings, () -> {
+            orderProducer.sendOrderConfirmation(orderConfirmation);
+            return null;
+        });
+        log.info("Order confirmation published to Kafka successfully");
 
+        log.info("Order creation completed successfully - OrderID: {}, Reference: {}, Step timings (ms): {}",
+                savedOrder.getId(),
+                savedOrder.getReference(),
+                toMillis(timings));
+        return savedOrder.getId();
+    }
+
+    private CustomerResponse findCustomer(OrderRequest orderRequest, Map<String, Long> timings) {
         // Check the customer exists in customer-service microservice
         log.debug("Calling customer-service to validate customer: {}", orderRequest.customerId());
-        final CustomerResponse customerResponse = customerServiceClient.findCustomerById(orderRequest.customerId())
+        final CustomerResponse customerResponse = timed("customer", timings,
+                () -> customerServiceClient.findCustomerById(orderRequest.customerId()))
                 .orElseThrow(() -> {
                     log.error("Customer not found with id: {}", orderRequest.customerId());
                     return new BusinessException(
@@ -70,50 +188,94 @@ public class OrderServiceImpl implements OrderService {
                 customerResponse.email(),
                 customerResponse.firstName(),
                 customerResponse.lastName());
+        return customerResponse;
+    }
 
+    private List<PurchaseResponse> purchaseProducts(OrderRequest orderRequest, String purchaseId,
+                                                    Map<String, Long> timings) {
         // Check the products are available in product-service microservice
         log.debug("Calling product-service to purchase {} products", orderRequest.productList().size());
-        final List<PurchaseResponse> purchaseResponses = productServiceClient
-                .purchaseProducts(orderRequest.productList());
+        final List<PurchaseResponse> purchaseResponses = timed("purchase", timings,
+                () -> productServiceClient.purchaseProducts(purchaseId, orderRequest.productList()));
         log.info("Products purchased successfully - Total items: {}", purchaseResponses.size());
+        return purchaseResponses;
+    }
 
-        // Persist the order in order-database
-        log.debug("Saving order to database");
-        final Order savedOrder = orderRepository.save(OrderMapper.toOrder(orderRequest));
-        log.info("Order saved with ID: {}, Reference: {}", savedOrder.getId(), savedOrder.getReference());
-
-        // Persist the order lines in order-database
-        log.debug("Saving {} order lines", orderRequest.productList().size());
-        orderRequest.productList().forEach(purchaseRequest -> {
-            final Integer savedOrderLineId = orderLineServiceImpl
-                    .saveOrderLine(OrderMapper.toOrderLineRequest(purchaseRequest, savedOrder));
-            log.debug("Saved order line - ID: {}, ProductID: {}, OrderID: {}",
-                    savedOrderLineId,
-                    purchaseRequest.productId(),
-                    savedOrder.getId());
-        });
+    private CustomerAndPurchase findCustomerAndPurchaseConcurrently(OrderRequest orderRequest,
+                                                                    String purchaseId,
+                                                                    Map<String, Long> timings) {
+        final CompletableFuture<List<PurchaseResponse>> purchase = CompletableFuture.supplyAsync(
+                () -> purchaseProducts(orderRequest, purchaseId, timings), orderWorkflowExecutor);
+        final CustomerResponse customerResponse;
+        try {
+            customerResponse = findCustomer(orderRequest, timings);
+        } catch (RuntimeException e) {
+            // Compensate the purchase once it completes; nothing to do if it fails
+            purchase.thenRun(() -> restockProducts(purchaseId, orderRequest));
+            throw e;
+        }
+        return new CustomerAndPurchase(customerResponse, joinPurchase(purchase));
+    }
 
-        // Start payment transaction in payment-service microservice
-        final PaymentRequest paymentRequest = OrderMapper.toPaymentRequest(orderRequest, savedOrder, customerResponse);
-        log.info("Calling payment-service - Amount: {}, Method: {}, OrderRef: {}",
-                paymentRequest.amount(),
-                paymentRequest.paymentMethod(),
-                paymentRequest.orderReference());
-        final Integer payment = paymentServiceClient.createPayment(paymentRequest);
-        log.info("Payment transaction created - Payment ID: {}", payment);
+    private static List<PurchaseResponse> joinPurchase(CompletableFuture<List<PurchaseResponse>> purchase) {
+        try {
+            return purchase.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        // Send the order confirmation email using notification-service microservice
-        // (async via Kafka)
-        final OrderConfirmation orderConfirmation = OrderProducerMapper.toOrderConfirmation(orderRequest,
-                customerResponse, purchaseResponses);
-        log.debug("Publishing order confirmation to Kafka - OrderRef: {}", orderConfirmation.orderReference());
-        orderProducer.sendOrderConfirmation(orderConfirmation);
-        log.info("Order confirmation published to Kafka successfully");
+    /**
+     * Compensation: give the purchased quantities back to product-service.
+     * Failures are logged for manual correction, never thrown over the original error.
+     */
+    private void restockProducts(String purchaseId, OrderRequest orderRequest) {
+        try {
+            productServiceClient.restockProducts(purchaseId);
+            log.info("Inventory restored for {} products - Purchase: {}, Customer: {}",
+                    orderRequest.productList().size(), purchaseId, orderRequest.customerId());
+        } catch (RuntimeException e) {
+            log.error("Inventory compensation failed, manual correction needed - Purchase: {}, Products: {}, Error: {}",
+                    purchaseId, orderRequest.productList(), e.getMessage());
+        }
+    }
 
-        log.info("Order creation completed successfully - OrderID: {}, Reference: {}",
-                savedOrder.getId(),
-                savedOrder.getReference());
-        return savedOrder.getId();
+    private <T> T timed(String step, Map<String, Long> timings, Supplier<T> call) {
+        final long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            timings.put(step, elapsed);
+            stepTimer.withTag("step", step).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Map<String, Long> toMillis(Map<String, Long> timings) {
+        synchronized (timings) {
+            final Map<String, Long> millis = new LinkedHashMap<>();
+            timings.forEach((step, nanos) -> millis.put(step, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            return millis;
+        }
+    }
+
+    private Order saveOrder(OrderRequest orderRequest) {
+        // Order lines are cascaded and flushed with the order as JDBC batches
+        // (hibernate.jdbc.batch_size, order_inserts); IDs come from pooled sequences.
+        log.debug("Saving order with {} order lines", orderRequest.productList().size());
+        final Order savedOrder = orderRepository.save(OrderMapper.toOrder(orderRequest));
+        log.info("Order saved with ID: {}, Reference: {}, Order lines: {}",
+                savedOrder.getId(), savedOrder.getReference(), savedOrder.getOrderLines().size());
+        return savedOrder;
+    }
+
+    private void deleteOrder(Integer orderId) {
+        int deletedLines = orderLineRepository.deleteAllByOrderId(orderId);
+        orderRepository.deleteById(orderId);
+        log.info("Order removed - ID: {}, Order lines: {}", orderId, deletedLines);
     }
 
     @Override
@@ -140,4 +302,10 @@ public class OrderServiceImpl implements OrderService {
                     return new EntityNotFoundException(String.format("No Order exists with provided ID:: %d", orderId));
                 });
     }
+
+    /**
+     * Results of the overlapping customer lookup and product purchase.
+     */
+    private record CustomerAndPurchase(CustomerResponse customer, List<PurchaseResponse> purchases) {
+    }
 }
@@ -22,6 +22,7 @@ public interface OrderLineMapper {
         return allByOrderId.stream()
                 .map(orderLine -> new OrderLineResponse(
                         orderLine.getId(),
+                        orderLine.getProductId(),
                         orderLine.getQuantity()
                 ))
                 .toList();
@@ -3,28 +3,39 @@ package com.amsidh.mvc.orderservice.util;
 import com.amsidh.mvc.kafka.order.CustomerResponse;
 import com.amsidh.mvc.orderservice.dto.*;
 import com.amsidh.mvc.orderservice.entity.Order;
+import com.amsidh.mvc.orderservice.entity.OrderLine;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 public interface OrderMapper {
 
+    /**
+     * Maps the order together with one order line per purchased product, so that
+     * saving the order persists its lines in the same flush (cascade).
+     */
     static Order toOrder(OrderRequest orderRequest) {
-        return Order.builder()
+        final Order order = Order.builder()
                 .id(orderRequest.id())
                 .reference(orderRequest.reference())
                 .totalAmount(orderRequest.amount())
                 .paymentMethod(orderRequest.paymentMethod())
                 .customerId(orderRequest.customerId())
                 .build();
+        order.setOrderLines(orderRequest.productList().stream()
+                .map(purchaseRequest -> toOrderLine(purchaseRequest, order))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return order;
     }
 
-    static OrderLineRequest toOrderLineRequest(
+    static OrderLine toOrderLine(
             PurchaseRequest purchaseRequest,
-            Order savedOrder) {
-        return new OrderLineRequest(
-                null,
-                savedOrder.getId(),
-                purchaseRequest.productId(),
-                purchaseRequest.quantity()
-        );
+            Order order) {
+        return OrderLine.builder()
+                .order(order)
+                .productId(purchaseRequest.productId())
+                .quantity(purchaseRequest.quantity())
+                .build();
     }
 
     static OrderResponse toOrderResponse(Order order) {
@@ -0,0 +1,183 @@
+package com.amsidh.mvc.orderservice.repository;
+
+import com.amsidh.mvc.kafka.order.PaymentMethod;
+import com.amsidh.mvc.orderservice.dto.OrderRequest;
+import com.amsidh.mvc.orderservice.dto.PurchaseRequest;
+import com.amsidh.mvc.orderservice.entity.Order;
+import com.amsidh.mvc.orderservice.util.OrderMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JDBC round trips for saving an order with N lines, counted on the connection.
+ * <p>
+ * Runs with the batching settings of config-server's order-service.yaml. Without them
+ * the same save sends 1 + N insert statements plus a sequence call per row; with them
+ * the lines go out as one batch per 50 rows, and pgjdbc (reWriteBatchedInserts) turns
+ * each batch into multi-row INSERTs.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+class OrderBatchInsertTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcCounters counters;
+
+    @BeforeEach
+    void warmUpSequences() {
+        // The first allocation of each pooled sequence may take an extra call; count steady state only
+        save(BATCH_SIZE + 1);
+        counters.reset();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50, 51, 120, 500})
+    void orderLinesAreInsertedInBatches(int lines) {
+        save(lines);
+
+        int lineBatches = (lines + BATCH_SIZE - 1) / BATCH_SIZE;
+        // One batch for the order row plus one per 50 lines; no single-row inserts
+        assertThat(counters.insertBatches).hasValue(1 + lineBatches);
+        assertThat(counters.batchedInsertRows).hasValue(1 + lines);
+        assertThat(counters.singleInserts).hasValue(0);
+        // IDs come 50 at a time: at most one sequence call per started block of 50 rows
+        assertThat(counters.sequenceCalls.get()).isLessThanOrEqualTo(1 + lineBatches + 1);
+    }
+
+    private void save(int lines) {
+        OrderRequest orderRequest = new OrderRequest(null, "ORD-" + lines, new BigDecimal("10.00"),
+                PaymentMethod.CARD, "customer-1",
+                IntStream.rangeClosed(1, lines).mapToObj(productId -> new PurchaseRequest(productId, 1)).toList());
+        Order order = orderRepository.save(OrderMapper.toOrder(orderRequest));
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(order.getOrderLines()).hasSize(lines);
+    }
+
+    /**
+     * Counts what the connection is asked to execute, by statement kind.
+     */
+    static class JdbcCounters {
+        final AtomicInteger insertBatches = new AtomicInteger();
+        final AtomicInteger batchedInsertRows = new AtomicInteger();
+        final AtomicInteger singleInserts = new AtomicInteger();
+        final AtomicInteger sequenceCalls = new AtomicInteger();
+
+        void reset() {
+            insertBatches.set(0);
+            batchedInsertRows.set(0);
+            singleInserts.set(0);
+            sequenceCalls.set(0);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                    return wrap(statement, sql.toLowerCase(Locale.ROOT));
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            boolean insert = sql.startsWith("insert");
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                switch (method.getName()) {
+                    case "addBatch" -> {
+                        if (insert) {
+                            batchedInsertRows.incrementAndGet();
+                        }
+                    }
+                    case "executeBatch" -> {
+                        if (insert) {
+                            insertBatches.incrementAndGet();
+                        }
+                    }
+                    case "execute", "executeUpdate", "executeQuery" -> {
+                        if (insert) {
+                            singleInserts.incrementAndGet();
+                        } else if (sql.contains("next value for") || sql.contains("nextval")) {
+                            sequenceCalls.incrementAndGet();
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                return method.invoke(target, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Invocation<T> invocation) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        try {
+                            return invocation.invoke(target, method, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+
+        @FunctionalInterface
+        private interface Invocation<T> {
+            Object invoke(T target, Method method, Object[] args) throws Throwable;
+        }
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        JdbcCounters jdbcCounters() {
+            return new JdbcCounters();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource(JdbcCounters jdbcCounters) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? jdbcCounters.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
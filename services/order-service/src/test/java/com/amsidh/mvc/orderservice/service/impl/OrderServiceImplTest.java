@@ -0,0 +1,222 @@
+package com.amsidh.mvc.orderservice.service.impl;
+
+import com.amsidh.mvc.kafka.order.CustomerResponse;
+import com.amsidh.mvc.kafka.order.PaymentMethod;
+import com.amsidh.mvc.kafka.order.PurchaseResponse;
+import com.amsidh.mvc.orderservice.client.customer.CustomerServiceClient;
+import com.amsidh.mvc.orderservice.client.payment.PaymentServiceClient;
+import com.amsidh.mvc.orderservice.client.product.ProductServiceClient;
+import com.amsidh.mvc.orderservice.dto.OrderRequest;
+import com.amsidh.mvc.orderservice.dto.PurchaseRequest;
+import com.amsidh.mvc.orderservice.entity.Order;
+import com.amsidh.mvc.orderservice.exception.BusinessException;
+import com.amsidh.mvc.orderservice.kafka.OrderProducer;
+import com.amsidh.mvc.orderservice.repository.OrderLineRepository;
+import com.amsidh.mvc.orderservice.repository.OrderRepository;
+import com.amsidh.mvc.orderservice.service.OrchestrationMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceImplTest {
+
+    private static final List<PurchaseRequest> PRODUCTS = List.of(
+            new PurchaseRequest(1, 2), new PurchaseRequest(2, 1));
+    private static final OrderRequest ORDER_REQUEST = new OrderRequest(null, "ORD-1", new BigDecimal("99.90"),
+            PaymentMethod.CARD, "customer-1", PRODUCTS);
+    private static final CustomerResponse CUSTOMER = new CustomerResponse("customer-1", "John", "Doe",
+            "john.doe@example.com");
+    private static final List<PurchaseResponse> PURCHASES = List.of(
+            new PurchaseResponse(1, "Keyboard", new BigDecimal("29.95"), 2),
+            new PurchaseResponse(2, "Mouse", new BigDecimal("39.99"), 1));
+
+    private final CustomerServiceClient customerServiceClient = mock(CustomerServiceClient.class);
+    private final ProductServiceClient productServiceClient = mock(ProductServiceClient.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderProducer orderProducer = mock(OrderProducer.class);
+    private final PaymentServiceClient paymentServiceClient = mock(PaymentServiceClient.class);
+    private final OrderLineRepository orderLineRepository = mock(OrderLineRepository.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void failedPaymentRemovesOrderAndRestocksPurchase() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.SEQUENTIAL);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenReturn(PURCHASES);
+        orderSaved(42);
+        when(paymentServiceClient.createPayment(any())).thenThrow(new BusinessException("Payment declined"));
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Payment declined");
+
+        verify(orderLineRepository).deleteAllByOrderId(42);
+        verify(orderRepository).deleteById(42);
+        verify(productServiceClient).restockProducts(anyString());
+        verify(orderProducer, never()).sendOrderConfirmation(any());
+    }
+
+    @Test
+    void everyOrderCancelsTheIdItPurchasedWith() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.SEQUENTIAL);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenReturn(PURCHASES);
+        orderSaved(42);
+        when(paymentServiceClient.createPayment(any())).thenThrow(new BusinessException("Payment declined"));
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST)).isInstanceOf(BusinessException.class);
+
+        ArgumentCaptor<String> purchaseIds = ArgumentCaptor.forClass(String.class);
+        verify(productServiceClient, times(2)).purchaseProducts(purchaseIds.capture(), eq(PRODUCTS));
+        ArgumentCaptor<String> cancelledIds = ArgumentCaptor.forClass(String.class);
+        verify(productServiceClient, times(2)).restockProducts(cancelledIds.capture());
+        assertThat(purchaseIds.getAllValues()).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(cancelledIds.getAllValues()).isEqualTo(purchaseIds.getAllValues());
+    }
+
+    @Test
+    void failedCompensationDoesNotHidePaymentError() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.SEQUENTIAL);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenReturn(PURCHASES);
+        orderSaved(42);
+        when(paymentServiceClient.createPayment(any())).thenThrow(new BusinessException("Payment declined"));
+        doThrow(new BusinessException("product-service unavailable"))
+                .when(productServiceClient).restockProducts(anyString());
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Payment declined");
+        verify(orderRepository).deleteById(42);
+    }
+
+    @Test
+    void failedSaveRestocksPurchaseWithoutPayment() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.SEQUENTIAL);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenReturn(PURCHASES);
+        when(orderRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate reference"));
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessage("duplicate reference");
+
+        ArgumentCaptor<String> purchaseId = ArgumentCaptor.forClass(String.class);
+        verify(productServiceClient).purchaseProducts(purchaseId.capture(), eq(PRODUCTS));
+        verify(productServiceClient).restockProducts(purchaseId.getValue());
+        verify(paymentServiceClient, never()).createPayment(any());
+        verify(orderProducer, never()).sendOrderConfirmation(any());
+    }
+
+    @Test
+    void unknownCustomerInSequentialModePurchasesNothing() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.SEQUENTIAL);
+        when(customerServiceClient.findCustomerById("customer-1")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST)).isInstanceOf(BusinessException.class);
+
+        verify(productServiceClient, never()).purchaseProducts(anyString(), any());
+        verify(productServiceClient, never()).restockProducts(anyString());
+    }
+
+    @Test
+    void unknownCustomerInConcurrentModeRestocksPurchaseOnceItCompletes() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.CONCURRENT);
+        when(customerServiceClient.findCustomerById("customer-1")).thenReturn(Optional.empty());
+        CompletableFuture<Void> purchaseReleased = new CompletableFuture<>();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenAnswer(invocation -> {
+            purchaseReleased.join();
+            return PURCHASES;
+        });
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST)).isInstanceOf(BusinessException.class);
+        // The in-flight purchase is not interrupted, only compensated after it completes
+        verify(productServiceClient, never()).restockProducts(anyString());
+
+        purchaseReleased.complete(null);
+        verify(productServiceClient, timeout(5000)).restockProducts(anyString());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void failedPurchaseInConcurrentModeIsNotCompensated() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.CONCURRENT);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenThrow(new BusinessException("Out of stock"));
+
+        assertThatThrownBy(() -> orderService.createOrder(ORDER_REQUEST))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Out of stock");
+
+        verify(productServiceClient, never()).restockProducts(anyString());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void successfulOrderIsNotCompensatedAndStepsAreTimed() {
+        OrderServiceImpl orderService = orderService(OrchestrationMode.CONCURRENT);
+        customerFound();
+        when(productServiceClient.purchaseProducts(anyString(), eq(PRODUCTS))).thenReturn(PURCHASES);
+        orderSaved(42);
+        when(paymentServiceClient.createPayment(any())).thenReturn(7);
+
+        assertThat(orderService.createOrder(ORDER_REQUEST)).isEqualTo(42);
+
+        verify(productServiceClient, never()).restockProducts(anyString());
+        verify(orderProducer).sendOrderConfirmation(any());
+        assertThat(meterRegistry.get("order.create.step").tag("mode", "CONCURRENT").timers())
+                .extracting(timer -> timer.getId().getTag("step"))
+                .containsExactlyInAnyOrder("customer", "purchase", "fan-out", "persist", "payment", "publish");
+    }
+
+    private void customerFound() {
+        when(customerServiceClient.findCustomerById("customer-1")).thenReturn(Optional.of(CUSTOMER));
+    }
+
+    private void orderSaved(int orderId) {
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+    }
+
+    private OrderServiceImpl orderService(OrchestrationMode orchestrationMode) {
+        // Runs the callbacks in place; only the boundaries of the local transactions matter here
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new OrderServiceImpl(customerServiceClient, productServiceClient, orderRepository, orderProducer,
+                paymentServiceClient, orderLineRepository, transactionTemplate, executor, meterRegistry,
+                orchestrationMode);
+    }
+}
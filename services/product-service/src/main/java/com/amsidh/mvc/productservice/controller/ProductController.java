@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,6 +20,7 @@ import com.amsidh.mvc.productservice.dto.ProductPurchaseResponse;
 import com.amsidh.mvc.productservice.service.ProductService;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,6 +37,11 @@ import lombok.extern.slf4j.Slf4j;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    /**
+     * Caller's id for a purchase. Purchases sent with it are recorded and can be cancelled.
+     */
+    public static final String PURCHASE_ID_HEADER = "X-Purchase-Id";
+
     // Injects the ProductService dependency via constructor
     private final ProductService productService;
 
@@ -54,14 +61,33 @@ public class ProductController {
     /**
      * Purchase one or more products.
      * 
+     * @param purchaseId              caller's purchase id, needed to cancel the purchase later
      * @param productPurchaseRequests list of product purchase requests
      * @return list of purchase responses for each requested product
      */
     @PostMapping("/purchase")
     public ResponseEntity<List<ProductPurchaseResponse>> purchaseProducts(
+            @RequestHeader(value = PURCHASE_ID_HEADER, required = false) @Size(max = 64) String purchaseId,
             @RequestBody @Valid List<ProductPurchaseRequest> productPurchaseRequests) {
-        log.info("Purchasing products: {}", productPurchaseRequests);
-        return ResponseEntity.ok(productService.purchaseProduct(productPurchaseRequests));
+        log.info("Purchasing products: {}, Purchase: {}", productPurchaseRequests, purchaseId);
+        return ResponseEntity.ok(productService.purchaseProduct(purchaseId, productPurchaseRequests));
+    }
+
+    /**
+     * Return the products of a recorded purchase to the inventory.
+     * Used by order-service to compensate a purchase when the order fails afterwards.
+     * Idempotent: repeating a cancellation restocks nothing.
+     * Internal: order-service calls product-service directly; the gateway does not
+     * route it.
+     * 
+     * @param purchaseId the id the purchase was made with
+     * @return HTTP 204 on success, also when the purchase was already cancelled
+     */
+    @PostMapping("/purchase/{purchase-id}/cancel")
+    public ResponseEntity<Void> cancelPurchase(@PathVariable("purchase-id") String purchaseId) {
+        log.info("Cancelling product purchase: {}", purchaseId);
+        productService.cancelPurchase(purchaseId);
+        return ResponseEntity.noContent().build();
     }
 
     /**
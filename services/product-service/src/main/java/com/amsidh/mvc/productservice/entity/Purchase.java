@@ -0,0 +1,32 @@
+package com.amsidh.mvc.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A purchase recorded under the id sent by the caller (order-service sends one per
+ * order). Cancelling the purchase restocks the recorded lines, never quantities sent
+ * with the cancellation, and the status makes a repeated cancellation a no-op.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+public class Purchase {
+
+    @Id
+    private String purchaseId;
+    @Enumerated(EnumType.STRING)
+    private PurchaseStatus status;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime cancelledAt;
+    @ElementCollection
+    @CollectionTable(name = "purchase_line", joinColumns = @JoinColumn(name = "purchase_id"))
+    private List<PurchaseLine> lines;
+}
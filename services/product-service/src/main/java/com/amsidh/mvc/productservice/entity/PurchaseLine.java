@@ -0,0 +1,18 @@
+package com.amsidh.mvc.productservice.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * A product and the quantity taken from the inventory by a purchase.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Embeddable
+public class PurchaseLine {
+
+    private Integer productId;
+    private double quantity;
+}
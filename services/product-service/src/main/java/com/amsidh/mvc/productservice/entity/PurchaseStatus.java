@@ -0,0 +1,9 @@
+package com.amsidh.mvc.productservice.entity;
+
+/**
+ * Lifecycle of a recorded purchase.
+ */
+public enum PurchaseStatus {
+    PURCHASED,
+    CANCELLED
+}
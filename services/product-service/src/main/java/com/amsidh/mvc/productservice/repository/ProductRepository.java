@@ -2,6 +2,17 @@ package com.amsidh.mvc.productservice.repository;
 
 import com.amsidh.mvc.productservice.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
+
+    /**
+     * Add quantity back to a product in a single atomic update.
+     *
+     * @return number of updated rows (0 if the product does not exist)
+     */
+    @Modifying
+    @Query("update Product p set p.availableQuantity = p.availableQuantity + :quantity where p.id = :productId")
+    int increaseAvailableQuantity(Integer productId, double quantity);
 }
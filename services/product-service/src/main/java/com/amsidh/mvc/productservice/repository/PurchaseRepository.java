@@ -0,0 +1,23 @@
+package com.amsidh.mvc.productservice.repository;
+
+import com.amsidh.mvc.productservice.entity.Purchase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface PurchaseRepository extends JpaRepository<Purchase, String> {
+
+    /**
+     * Move a purchase from PURCHASED to CANCELLED. Concurrent calls for the same
+     * purchase wait on the row lock; only one of them updates it.
+     *
+     * @return 1 if cancelled now, 0 if the purchase was already cancelled
+     */
+    @Modifying
+    @Query("update Purchase p set p.status = com.amsidh.mvc.productservice.entity.PurchaseStatus.CANCELLED, "
+            + "p.cancelledAt = :cancelledAt where p.purchaseId = :purchaseId "
+            + "and p.status = com.amsidh.mvc.productservice.entity.PurchaseStatus.PURCHASED")
+    int markCancelled(String purchaseId, LocalDateTime cancelledAt);
+}
@@ -10,7 +10,9 @@ import java.util.List;
 public interface ProductService {
     Integer createProduct(CreateProductRequest createProductRequest);
 
-    List<ProductPurchaseResponse> purchaseProduct(List<ProductPurchaseRequest> productPurchaseRequests);
+    List<ProductPurchaseResponse> purchaseProduct(String purchaseId, List<ProductPurchaseRequest> productPurchaseRequests);
+
+    void cancelPurchase(String purchaseId);
 
     CreateProductResponse getProductById(Integer productId);
 
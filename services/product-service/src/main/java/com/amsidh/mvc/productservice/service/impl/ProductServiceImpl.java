@@ -5,8 +5,12 @@ import com.amsidh.mvc.productservice.dto.ProductPurchaseResponse;
 import com.amsidh.mvc.productservice.dto.CreateProductRequest;
 import com.amsidh.mvc.productservice.dto.CreateProductResponse;
 import com.amsidh.mvc.productservice.entity.Product;
+import com.amsidh.mvc.productservice.entity.Purchase;
+import com.amsidh.mvc.productservice.entity.PurchaseLine;
+import com.amsidh.mvc.productservice.entity.PurchaseStatus;
 import com.amsidh.mvc.productservice.exception.ProductPurchaseException;
 import com.amsidh.mvc.productservice.repository.ProductRepository;
+import com.amsidh.mvc.productservice.repository.PurchaseRepository;
 import com.amsidh.mvc.productservice.service.ProductService;
 import com.amsidh.mvc.productservice.util.ProductMapper;
 import jakarta.persistence.EntityNotFoundException;
@@ -15,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 
@@ -23,6 +28,7 @@ import java.util.List;
 @Service
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final PurchaseRepository purchaseRepository;
 
     @Override
     public Integer createProduct(CreateProductRequest createProductRequest) {
@@ -54,12 +60,21 @@ public class ProductServiceImpl implements ProductService {
      * method
      * 2. Optimistic locking: @Version field in Product entity
      * 3. Distributed locking: Redis-based locks for multi-instance deployments
+     * 
+     * With a purchase id, the purchased quantities are recorded under it in the same
+     * transaction, so the purchase can be cancelled later (see {@link #cancelPurchase}).
+     * A purchase id can be used once.
      */
     @Transactional
     @Override
-    public List<ProductPurchaseResponse> purchaseProduct(
+    public List<ProductPurchaseResponse> purchaseProduct(String purchaseId,
             List<ProductPurchaseRequest> productPurchaseRequests) {
-        log.info("Processing product purchase request - Total products: {}", productPurchaseRequests.size());
+        log.info("Processing product purchase request - Purchase: {}, Total products: {}",
+                purchaseId, productPurchaseRequests.size());
+        if (purchaseId != null && purchaseRepository.existsById(purchaseId)) {
+            log.error("Purchase already recorded with ID: {}", purchaseId);
+            throw new ProductPurchaseException("Purchase already recorded with id: " + purchaseId);
+        }
 
         final List<Integer> productIds = productPurchaseRequests.stream()
                 .map(ProductPurchaseRequest::productId)
@@ -116,10 +131,59 @@ public class ProductServiceImpl implements ProductService {
                     return ProductMapper.toProductPurchaseResponse(storeProduct, productPurchaseRequest.quantity());
                 }).toList();
 
+        if (purchaseId != null) {
+            recordPurchase(purchaseId, sortedProductsById);
+        }
         log.info("Product purchase completed successfully - Total products purchased: {}", responses.size());
         return responses;
     }
 
+    /**
+     * Return the quantities of a recorded purchase to the inventory (compensation for
+     * an order that failed after its products were purchased).
+     * Only the quantities recorded with the purchase are restocked. The purchase is
+     * marked cancelled in the same transaction, so a retried or replayed cancellation
+     * restocks nothing.
+     * Each product is updated with a single atomic increment, so concurrent purchases
+     * are never overwritten.
+     */
+    @Transactional
+    @Override
+    public void cancelPurchase(String purchaseId) {
+        log.info("Processing purchase cancellation - Purchase: {}", purchaseId);
+        final Purchase purchase = purchaseRepository.findById(purchaseId)
+                .orElseThrow(() -> {
+                    log.error("Purchase not found with ID: {}", purchaseId);
+                    return new EntityNotFoundException("Purchase not found with id: " + purchaseId);
+                });
+        if (purchaseRepository.markCancelled(purchaseId, LocalDateTime.now()) == 0) {
+            log.info("Purchase {} already cancelled, inventory left unchanged", purchaseId);
+            return;
+        }
+        purchase.getLines().stream()
+                .sorted(Comparator.comparing(PurchaseLine::getProductId))
+                .forEach(line -> {
+                    if (productRepository.increaseAvailableQuantity(line.getProductId(), line.getQuantity()) == 0) {
+                        log.error("Product not found with ID: {}", line.getProductId());
+                        throw new ProductPurchaseException("Product not found with id: " + line.getProductId());
+                    }
+                    log.info("Inventory restored for product ID: {} - Quantity: {}",
+                            line.getProductId(), line.getQuantity());
+                });
+    }
+
+    private void recordPurchase(String purchaseId, List<ProductPurchaseRequest> productPurchaseRequests) {
+        final List<PurchaseLine> lines = productPurchaseRequests.stream()
+                .map(request -> new PurchaseLine(request.productId(), request.quantity()))
+                .toList();
+        purchaseRepository.save(Purchase.builder()
+                .purchaseId(purchaseId)
+                .status(PurchaseStatus.PURCHASED)
+                .lines(lines)
+                .build());
+        log.debug("Purchase recorded - ID: {}, Lines: {}", purchaseId, lines.size());
+    }
+
     @Override
     public CreateProductResponse getProductById(Integer productId) {
         log.info("Retrieving product with ID: {}", productId);
@@ -0,0 +1,15 @@
+-- V4: purchases recorded by the caller's purchase id, so a cancellation restocks
+-- exactly the recorded quantities, and only once
+
+CREATE TABLE IF NOT EXISTS purchase (
+    purchase_id varchar(64) NOT NULL PRIMARY KEY,
+    status varchar(16) NOT NULL,
+    created_at timestamp NOT NULL DEFAULT current_timestamp,
+    cancelled_at timestamp
+);
+
+CREATE TABLE IF NOT EXISTS purchase_line (
+    purchase_id varchar(64) NOT NULL REFERENCES purchase(purchase_id) ON DELETE CASCADE,
+    product_id integer NOT NULL,
+    quantity double precision NOT NULL
+);
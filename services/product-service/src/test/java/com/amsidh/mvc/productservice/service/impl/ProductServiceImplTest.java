@@ -0,0 +1,131 @@
+package com.amsidh.mvc.productservice.service.impl;
+
+import com.amsidh.mvc.productservice.dto.ProductPurchaseRequest;
+import com.amsidh.mvc.productservice.entity.Product;
+import com.amsidh.mvc.productservice.entity.Purchase;
+import com.amsidh.mvc.productservice.entity.PurchaseLine;
+import com.amsidh.mvc.productservice.entity.PurchaseStatus;
+import com.amsidh.mvc.productservice.exception.ProductPurchaseException;
+import com.amsidh.mvc.productservice.repository.ProductRepository;
+import com.amsidh.mvc.productservice.repository.PurchaseRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceImplTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final PurchaseRepository purchaseRepository = mock(PurchaseRepository.class);
+    private final ProductServiceImpl productService = new ProductServiceImpl(productRepository, purchaseRepository);
+
+    @Test
+    void purchaseWithIdRecordsPurchasedQuantities() {
+        when(productRepository.findAllById(List.of(7, 3))).thenReturn(List.of(product(3, 10), product(7, 10)));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.purchaseProduct("purchase-1",
+                List.of(new ProductPurchaseRequest(7, 2), new ProductPurchaseRequest(3, 1.5)));
+
+        ArgumentCaptor<Purchase> recorded = ArgumentCaptor.forClass(Purchase.class);
+        verify(purchaseRepository).save(recorded.capture());
+        assertThat(recorded.getValue().getPurchaseId()).isEqualTo("purchase-1");
+        assertThat(recorded.getValue().getStatus()).isEqualTo(PurchaseStatus.PURCHASED);
+        assertThat(recorded.getValue().getLines())
+                .extracting(PurchaseLine::getProductId, PurchaseLine::getQuantity)
+                .containsExactly(tuple(3, 1.5), tuple(7, 2.0));
+    }
+
+    @Test
+    void purchaseIdCanBeUsedOnce() {
+        when(purchaseRepository.existsById("purchase-1")).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.purchaseProduct("purchase-1", List.of(new ProductPurchaseRequest(7, 2))))
+                .isInstanceOf(ProductPurchaseException.class)
+                .hasMessage("Purchase already recorded with id: purchase-1");
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void cancellationRestocksRecordedLinesInIdOrder() {
+        purchaseRecorded();
+        when(purchaseRepository.markCancelled(eq("purchase-1"), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.increaseAvailableQuantity(anyInt(), anyDouble())).thenReturn(1);
+
+        productService.cancelPurchase("purchase-1");
+
+        InOrder inOrder = inOrder(purchaseRepository, productRepository);
+        inOrder.verify(purchaseRepository).markCancelled(eq("purchase-1"), any(LocalDateTime.class));
+        inOrder.verify(productRepository).increaseAvailableQuantity(3, 1.5);
+        inOrder.verify(productRepository).increaseAvailableQuantity(7, 2);
+    }
+
+    @Test
+    void repeatedCancellationRestocksNothing() {
+        purchaseRecorded();
+        when(purchaseRepository.markCancelled(eq("purchase-1"), any(LocalDateTime.class))).thenReturn(0);
+
+        productService.cancelPurchase("purchase-1");
+
+        verify(productRepository, never()).increaseAvailableQuantity(anyInt(), anyDouble());
+    }
+
+    @Test
+    void unknownPurchaseIsNotCancelled() {
+        when(purchaseRepository.findById("purchase-1")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.cancelPurchase("purchase-1"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Purchase not found with id: purchase-1");
+        verify(purchaseRepository, never()).markCancelled(any(), any());
+        verify(productRepository, never()).increaseAvailableQuantity(anyInt(), anyDouble());
+    }
+
+    @Test
+    void unknownProductFailsTheCancellation() {
+        purchaseRecorded();
+        when(purchaseRepository.markCancelled(eq("purchase-1"), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.increaseAvailableQuantity(3, 1.5)).thenReturn(0);
+
+        // Thrown inside the transaction: the status change is rolled back with it
+        assertThatThrownBy(() -> productService.cancelPurchase("purchase-1"))
+                .isInstanceOf(ProductPurchaseException.class)
+                .hasMessage("Product not found with id: 3");
+        verify(productRepository, never()).increaseAvailableQuantity(7, 2);
+    }
+
+    private void purchaseRecorded() {
+        when(purchaseRepository.findById("purchase-1")).thenReturn(Optional.of(Purchase.builder()
+                .purchaseId("purchase-1")
+                .status(PurchaseStatus.PURCHASED)
+                .lines(List.of(new PurchaseLine(7, 2), new PurchaseLine(3, 1.5)))
+                .build()));
+    }
+
+    private static Product product(int id, double availableQuantity) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .availableQuantity(availableQuantity)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}